@@ -3,18 +3,36 @@ package cs3500.animator;
 import cs3500.animator.controller.ControllerFactory;
 import cs3500.animator.controller.IAnimatorController;
 import cs3500.animator.model.AnimatorModel;
+import cs3500.animator.model.ColumnarBuilder;
+import cs3500.animator.model.ConcurrentAnimatorModel;
 import cs3500.animator.model.IAnimatorModel;
+import cs3500.animator.model.MotionOrder;
 import cs3500.animator.model.shape.IModelShape;
+import cs3500.animator.util.AnimationBuilder;
 import cs3500.animator.util.AnimationReader;
+import cs3500.animator.util.BinaryAnimationWriter;
 
 import cs3500.animator.view.IAnimatorView;
+import cs3500.animator.view.SVGAnimationView;
+import cs3500.animator.view.TextualAnimationView;
 import cs3500.animator.view.ViewFactory;
 import java.io.BufferedWriter;
+import java.io.FileInputStream;
 import java.io.FileNotFoundException;
-import java.io.FileReader;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.FileWriter;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.GZIPOutputStream;
 import javax.swing.JOptionPane;
 
 /**
@@ -23,22 +41,31 @@ import javax.swing.JOptionPane;
  */
 public class Excellence {
 
+  private static final int GZIP_BUFFER_SIZE = 1 << 16;
+
   /**
    * The main method from which to invoke the easy animator program from the command line.
    * @param args command line arguments
    * @throws IOException if rendering fails
    */
   public static void main(String[] args) throws IOException {
-    BufferedWriter out =
-        new BufferedWriter(new OutputStreamWriter(System.out)); // defaults to System.out
-    Readable in = null;
+    BufferedWriter out;
+    String outFile = null; // defaults to System.out
+    InputStream in = null;
+    String inFile = null;
     IAnimatorModel<IModelShape> model;
     IAnimatorView view;
     IAnimatorController controller;
     double tempo = 1.0; // defaults to 1.0 tick/sec
+    SVGAnimationView.Skip skip = SVGAnimationView.Skip.NONE; // defaults to every animation
+    boolean merge = false; // defaults to one animation per pair of keyframes
+    boolean plusSymbols = false; // defaults to animating every point of a plus sign
+    int threads = 1; // defaults to rendering on this thread
+    boolean progressive = false; // defaults to loading the whole animation before playing it
+    boolean columnar = false; // defaults to checking each motion as it is read
 
-    if (args.length % 2 != 0 || args.length > 8) {
-      // if uneven number of args or more than 8 args, must be invalid
+    if (args.length % 2 != 0 || args.length > 20) {
+      // if uneven number of args or more than 20 args, must be invalid
       displayError("Invalid number of arguments!");
       return;
     }
@@ -55,10 +82,11 @@ public class Excellence {
         switch (currCommand) {
           case "-in":
             in = parseInCommand(argToCommand);
+            inFile = argToCommand;
             inSpecified = true;
             break;
           case "-out":
-            out = parseOutCommand(argToCommand);
+            outFile = argToCommand;
             break;
           case "-view":
             viewType = argToCommand.toLowerCase();
@@ -67,6 +95,24 @@ public class Excellence {
           case "-speed":
             tempo = parseSpeedCommand(argToCommand);
             break;
+          case "-svgskip":
+            skip = parseSkipCommand(argToCommand);
+            break;
+          case "-svgmerge":
+            merge = parseMergeCommand(argToCommand);
+            break;
+          case "-svgplus":
+            plusSymbols = parsePlusCommand(argToCommand);
+            break;
+          case "-threads":
+            threads = parseThreadsCommand(argToCommand);
+            break;
+          case "-load":
+            progressive = parseLoadCommand(argToCommand);
+            break;
+          case "-builder":
+            columnar = parseBuilderCommand(argToCommand);
+            break;
           default:
             displayError("Unknown command type!");
         }
@@ -82,15 +128,54 @@ public class Excellence {
       return;
     }
 
-    try {
-      model = AnimationReader.parseFile(in, AnimatorModel.getBuilder());
-    } catch (Exception e) {
-      displayError(String.format("Parsing input file failed. *%s*", e.getMessage()));
+    if (!"binary".equals(viewType)) {
+      try {
+        out = outFile == null ? new BufferedWriter(new OutputStreamWriter(System.out))
+            : parseOutCommand(outFile);
+      } catch (IllegalArgumentException e) {
+        displayError(String.format("Invalid argument. *%s*", e.getMessage()));
+        return;
+      }
+    } else {
+      out = null; // written as bytes, once the model has been read
+    }
+
+    ForkJoinPool pool = threads > 1 ? new ForkJoinPool(threads) : null;
+    if (progressive && ("visual".equals(viewType) || "interactive".equals(viewType))) {
+      try {
+        model = loadProgressively(in, inFile, pool);
+      } catch (InterruptedException e) {
+        return;
+      }
+    } else {
+      try {
+        model = parse(in, inFile,
+            columnar ? new ColumnarBuilder() : AnimatorModel.getBuilder(), pool);
+      } catch (Exception e) {
+        displayError(String.format("Parsing input file failed. *%s*", e.getMessage()));
+        return;
+      }
+    }
+
+    if (out == null) {
+      try {
+        writeBinary(model, outFile);
+      } catch (IOException | IllegalArgumentException e) {
+        displayError(String.format("Writing binary output failed. *%s*", e.getMessage()));
+      }
       return;
     }
 
     try {
       view = ViewFactory.create(viewType, model, out, tempo);
+      if (view instanceof SVGAnimationView) {
+        ((SVGAnimationView) view).setSkip(skip);
+        ((SVGAnimationView) view).setMergeAnimations(merge);
+        ((SVGAnimationView) view).setPlusSymbols(plusSymbols);
+        ((SVGAnimationView) view).setParallelRendering(pool);
+      } else if (view instanceof TextualAnimationView) {
+        ((TextualAnimationView) view).setParallelRendering(pool);
+      }
       controller = ControllerFactory.create(view, model, out, tempo);
     } catch (IllegalArgumentException e) {
       // if the view type entered is invalid
@@ -102,6 +187,79 @@ public class Excellence {
     out.close();
   }
 
+  /**
+   * <p>Read the animation from the given input, or from the file with the given name if there is a
+   * pool to split it into tokens on.</p>
+   *
+   * @param in      the input
+   * @param inFile  name of the input file
+   * @param builder the builder to read the animation into
+   * @param pool    the pool to split the input into tokens on, or null to read it on this thread
+   * @param <Doc>   the type of the animation
+   * @return the animation
+   * @throws IOException if reading fails
+   */
+  private static <Doc> Doc parse(InputStream in, String inFile, AnimationBuilder<Doc> builder,
+      ForkJoinPool pool) throws IOException {
+    if (pool == null) {
+      return AnimationReader.parseFile(in, builder);
+    }
+    // split the file into tokens on the pool too
+    in.close();
+    return AnimationReader.parseFile(Paths.get(inFile), builder, pool);
+  }
+
+  /**
+   * <p>Start reading the animation into a model on a background thread, returning the model once
+   * the start of the animation (and so the canvas before it) is loaded, so that playback can
+   * begin while the rest loads. That needs the input to be ordered as
+   * {@link ConcurrentAnimatorModel.Builder} describes, which is checked first; if it is not, the
+   * model is only returned once all of it is loaded. A parsing error is displayed once found, and
+   * the model keeps what was read before it.</p>
+   *
+   * @param in     the input
+   * @param inFile name of the input file
+   * @param pool   the pool to split the input into tokens on, or null to read it on the
+   *               background thread alone
+   * @return the model being loaded
+   * @throws InterruptedException if interrupted while waiting for the start of the animation
+   */
+  private static IAnimatorModel<IModelShape> loadProgressively(InputStream in, String inFile,
+      ForkJoinPool pool) throws InterruptedException {
+    ConcurrentAnimatorModel model = new ConcurrentAnimatorModel();
+    AnimationBuilder<IAnimatorModel<IModelShape>> builder =
+        new ConcurrentAnimatorModel.Builder(model, isOrdered(inFile));
+    Thread loader = new Thread(() -> {
+      try {
+        parse(in, inFile, builder, pool);
+      } catch (Exception e) {
+        builder.build(); // stop playback waiting for the rest
+        displayError(String.format("Parsing input file failed. *%s*", e.getMessage()));
+      }
+    }, "animation loader");
+    loader.setDaemon(true);
+    loader.start();
+    model.awaitLoaded(0);
+    return model;
+  }
+
+  /**
+   * <p>Check whether the animation in the file with the given name lists its motions in an order
+   * that lets it be played while it is loaded, as a {@link MotionOrder} checks. Reads the file
+   * up to the first motion out of order, without building the animation.</p>
+   *
+   * @param inFile name of the input file
+   * @return whether the animation is ordered; false if the file cannot be read or parsed, so
+   *         that loading it reports the error
+   */
+  private static boolean isOrdered(String inFile) {
+    try (InputStream in = new FileInputStream(inFile)) {
+      return MotionOrder.isOrdered(in);
+    } catch (IOException | RuntimeException e) {
+      return false;
+    }
+  }
+
   /**
    * <p>Display a popup window with the given error message.</p>
    *
@@ -117,14 +275,15 @@ public class Excellence {
    * @return an input source from which to read in instructions for building a model
    * @throws IllegalArgumentException if the argument is invalid
    */
-  private static Readable parseInCommand(String arg) throws IllegalArgumentException {
-    Readable fileReader;
+  private static InputStream parseInCommand(String arg) throws IllegalArgumentException {
+    InputStream fileStream;
     try {
-      fileReader = new FileReader(arg);
+      // may be gzip-compressed, which the reader detects and decompresses as it reads
+      fileStream = new FileInputStream(arg);
     } catch (FileNotFoundException e) {
       throw new IllegalArgumentException("Input file not found!");
     }
-    return fileReader;
+    return fileStream;
   }
 
   /**
@@ -134,15 +293,187 @@ public class Excellence {
    * @throws IllegalArgumentException if the argument is invalid
    */
   private static BufferedWriter parseOutCommand(String arg) throws IllegalArgumentException {
-    FileWriter fileWriter;
+    Writer fileWriter;
     try {
-      fileWriter = new FileWriter(arg, true);
+      if (isCompressedName(arg)) {
+        // compressed as it is written; closing the output finishes the compressed data
+        fileWriter = new OutputStreamWriter(
+            new GZIPOutputStream(new FileOutputStream(arg, true), GZIP_BUFFER_SIZE));
+      } else {
+        fileWriter = new FileWriter(arg, true);
+      }
     } catch (IOException e) {
       throw new IllegalArgumentException("Unable to create specified output file!");
     }
     return new BufferedWriter(fileWriter);
   }
 
+  /**
+   * <p>Write the given model in the binary format to the output file with the given name,
+   * replacing anything already in it (and gzip-compressing it if its name says to), or to
+   * {@code System.out} if there is no output file. Any input format, including the binary one,
+   * can be read back from it. The file is written beside it first and only then moved in place,
+   * so it is left as it was if writing fails.</p>
+   *
+   * @param model   the model
+   * @param outFile name of the output file, or null to write to {@code System.out}
+   * @throws IOException              if writing fails
+   * @throws IllegalArgumentException if the model cannot be written in the binary format
+   */
+  private static void writeBinary(IAnimatorModel<IModelShape> model, String outFile)
+      throws IOException, IllegalArgumentException {
+    if (outFile == null) {
+      BinaryAnimationWriter.write(model, System.out);
+      return;
+    }
+    // a binary animation cannot follow anything else, so the file is not appended to
+    Path target = Paths.get(outFile).toAbsolutePath();
+    Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+    try {
+      try (OutputStream file = isCompressedName(outFile)
+          ? new GZIPOutputStream(Files.newOutputStream(temp), GZIP_BUFFER_SIZE)
+          : Files.newOutputStream(temp)) {
+        BinaryAnimationWriter.write(model, file);
+      }
+      Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+    } finally {
+      Files.deleteIfExists(temp);
+    }
+  }
+
+  /**
+   * <p>Check whether the output file with the given name should be gzip-compressed: whether it
+   * ends in {@code .gz} (such as {@code .txt.gz}) or {@code .svgz}.</p>
+   *
+   * @param arg name of the output file
+   * @return whether to compress the output
+   */
+  private static boolean isCompressedName(String arg) {
+    String name = arg.toLowerCase(Locale.ROOT);
+    return name.endsWith(".gz") || name.endsWith(".svgz");
+  }
+
+  /**
+   * <p>Return which animations the SVG view should leave out: {@code none}, those of
+   * {@code static} shapes, or all {@code unchanged} ones.</p>
+   *
+   * @return which animations to leave out
+   * @throws IllegalArgumentException if the argument is invalid
+   */
+  private static SVGAnimationView.Skip parseSkipCommand(String arg)
+      throws IllegalArgumentException {
+    switch (arg.toLowerCase()) {
+      case "none":
+        return SVGAnimationView.Skip.NONE;
+      case "static":
+        return SVGAnimationView.Skip.STATIC_SHAPES;
+      case "unchanged":
+        return SVGAnimationView.Skip.UNCHANGED;
+      default:
+        throw new IllegalArgumentException("Invalid SVG skip value!");
+    }
+  }
+
+  /**
+   * <p>Return whether the SVG view should merge the animations of each attribute into one.</p>
+   *
+   * @return whether to merge animations
+   * @throws IllegalArgumentException if the argument is neither {@code true} nor {@code false}
+   */
+  private static boolean parseMergeCommand(String arg) throws IllegalArgumentException {
+    switch (arg.toLowerCase()) {
+      case "true":
+        return true;
+      case "false":
+        return false;
+      default:
+        throw new IllegalArgumentException("Invalid SVG merge value!");
+    }
+  }
+
+  /**
+   * <p>Return whether the SVG view should draw plus signs as instances of a shared
+   * {@code symbol}, or each as its own {@code polygon}.</p>
+   *
+   * @return whether to draw plus signs using a shared outline
+   * @throws IllegalArgumentException if the argument is neither {@code symbol} nor
+   *                                  {@code polygon}
+   */
+  private static boolean parsePlusCommand(String arg) throws IllegalArgumentException {
+    switch (arg.toLowerCase()) {
+      case "symbol":
+        return true;
+      case "polygon":
+        return false;
+      default:
+        throw new IllegalArgumentException("Invalid SVG plus value!");
+    }
+  }
+
+  /**
+   * <p>Return whether the visual and interactive views should start playing the animation while
+   * it is still being loaded ({@code progressive}), or only once all of it is ({@code full}).
+   * Playing starts early only for an input file listing its motions in order of their start
+   * ticks, each motion of a shape starting where its last ended; any other file is loaded in full
+   * before playing, as with {@code full}. The other views always load all of it first.</p>
+   *
+   * @return whether to load the animation progressively
+   * @throws IllegalArgumentException if the argument is neither {@code progressive} nor
+   *                                  {@code full}
+   */
+  private static boolean parseLoadCommand(String arg) throws IllegalArgumentException {
+    switch (arg.toLowerCase()) {
+      case "progressive":
+        return true;
+      case "full":
+        return false;
+      default:
+        throw new IllegalArgumentException("Invalid load value!");
+    }
+  }
+
+  /**
+   * <p>Return whether to read the input into a {@link ColumnarBuilder} ({@code columnar}), which
+   * is faster but only finds most conflicting keyframes once all of the input is read, so it may
+   * report a later error first and without its line number, or into the model's own builder
+   * ({@code checked}), which checks each motion as it is read.</p>
+   *
+   * @return whether to read the input into a columnar builder
+   * @throws IllegalArgumentException if the argument is neither {@code columnar} nor
+   *                                  {@code checked}
+   */
+  private static boolean parseBuilderCommand(String arg) throws IllegalArgumentException {
+    switch (arg.toLowerCase()) {
+      case "columnar":
+        return true;
+      case "checked":
+        return false;
+      default:
+        throw new IllegalArgumentException("Invalid builder value!");
+    }
+  }
+
+  /**
+   * <p>Return how many threads to read the input and render the textual views on. Reading on
+   * more than one thread puts the line number in front of errors in the input, except for
+   * conflicting keyframes that the columnar builder only finds once all of it is read.</p>
+   *
+   * @return the number of threads
+   * @throws IllegalArgumentException if the number is invalid
+   */
+  private static int parseThreadsCommand(String arg) throws IllegalArgumentException {
+    int threads;
+    try {
+      threads = Integer.parseInt(arg);
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("Invalid number of threads!");
+    }
+    if (threads < 1) {
+      throw new IllegalArgumentException("Invalid number of threads!");
+    }
+    return threads;
+  }
+
   /**
    * <p>Return the tempo of the view.</p>
    *
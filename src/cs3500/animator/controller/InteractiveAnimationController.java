@@ -54,6 +54,9 @@ public class InteractiveAnimationController implements IAnimatorController, IVie
     // initialize the timer
     int delay = (int) (1000.0 / this.tempo); // in millis
     this.timer = new Timer(delay, event -> {
+      if (model.hasNextFrame() && !model.isNextFrameLoaded()) {
+        return; // playback has caught up with loading, and waits for it
+      }
       if (model.hasNextFrame()) {
         List<IModelShape> shapesToRender;
 
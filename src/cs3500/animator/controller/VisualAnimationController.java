@@ -63,6 +63,9 @@ public class VisualAnimationController implements IAnimatorController {
     view.render();
     int delay = (int) (1000.0 / this.tempo); // in millis
     Timer timer = new Timer(delay, event -> {
+      if (model.hasNextFrame() && !model.isNextFrameLoaded()) {
+        return; // playback has caught up with loading, and waits for it
+      }
       if (model.hasNextFrame()) {
 
         List<IModelShape> shapesToRender = model.getNextFrame();
@@ -7,11 +7,20 @@ import cs3500.animator.util.AnimationStatePrinter;
 import java.awt.Color;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import cs3500.animator.model.shape.IModelShape;
 
 /**
@@ -19,13 +28,19 @@ import cs3500.animator.model.shape.IModelShape;
  */
 public class AnimatorModel implements IAnimatorModel<IModelShape> {
 
-  // mapping from all shape IDs to all of their keyframes for any given tick
-  private final Map<String, Map<Integer, IModelShape>> keyframes;
+  // mapping from all shape IDs to all of their keyframes, sorted by tick
+  private Map<String, KeyFrameTrack> keyframes;
   // enables easy finding of shapes from IDs
-  private final Map<String, ShapeType> shapeTypeMap;
-
-  // info about the ordering of shapes on top of each other (index 0 is bottommost shape)
-  private final List<String> layers;
+  private Map<String, ShapeType> shapeTypeMap;
+
+  // info about the ordering of shapes on top of each other (bottommost shape first)
+  private LayerOrder layers;
+  // snapshots share the three structures above, and tracks, until this model next changes them
+  private boolean shared; // whether shapeTypeMap and layers are shared with a snapshot
+  private boolean keyframesShared; // whether keyframes is shared with a snapshot
+  private int generation; // tracks of older generations may be shared, see KeyFrameTrack
+  private final boolean frozen; // whether this model is a snapshot, and cannot be changed
+  private final boolean compact; // whether keyframes are stored as primitive arrays
   private int currentTick; // for getNextFrame()
   private final int startTick; // tick of first frame in animation (always assumed to start at 0)
   private int endTick; // tick of last frame in animation
@@ -36,121 +51,442 @@ public class AnimatorModel implements IAnimatorModel<IModelShape> {
   private int width;
   private int height;
 
+  private FrameCache frameCache; // null unless frames are being cached
+  private LifetimeIndex lifetimes; // which shapes are present when; null until needed again
+  private final PlaybackCursor playback; // for getNextFrame()
+  private ForkJoinPool framePool; // null unless frames are computed in parallel
+  private int parallelThreshold; // fewest shapes in a frame worth computing in parallel
+  private ShapeInterner interner; // null unless colors and keyframes are being interned
+  private long internedSaved; // objects saved by interning, not counting the current interner
+
   /**
    * <p>Constructs a default animator model with default values for the fields: The current tick is
    * 0, the end ticks is -1. The (x,y) position is (0,0), the width is 800 and the height is
    * 600.</p>
    */
   public AnimatorModel() {
+    this(false);
+  }
+
+  /**
+   * <p>Constructs a default animator model, choosing how keyframes are stored. A compact model
+   * keeps each shape's keyframes as parallel primitive arrays rather than as shape objects, which
+   * uses much less memory for large animations; the keyframes it hands out are built on
+   * demand.</p>
+   *
+   * @param compact whether to store keyframes as primitive arrays
+   */
+  public AnimatorModel(boolean compact) {
+    this.compact = compact;
     this.x = 0;
     this.y = 0;
     this.width = 800;
     this.height = 600;
     this.keyframes = new HashMap<>();
-    this.layers = new ArrayList<>();
+    this.layers = new LayerOrder();
     this.shapeTypeMap = new HashMap<>();
     this.currentTick = 0;
     this.startTick = 0; // animation always starts at 0
     this.endTick = -1;
+    this.frameCache = null;
+    this.lifetimes = null;
+    this.playback = new PlaybackCursor(this);
+    this.framePool = null;
+    this.parallelThreshold = Integer.MAX_VALUE;
+    this.interner = null;
+    this.internedSaved = 0;
+    this.shared = false;
+    this.keyframesShared = false;
+    this.generation = 0;
+    this.frozen = false;
+  }
+
+  /**
+   * <p>Constructs a frozen snapshot of the given model, sharing its structures.</p>
+   *
+   * @param source the model to take a snapshot of
+   */
+  private AnimatorModel(AnimatorModel source) {
+    this.compact = source.compact;
+    this.x = source.x;
+    this.y = source.y;
+    this.width = source.width;
+    this.height = source.height;
+    this.keyframes = source.keyframes;
+    this.layers = source.layers;
+    this.shapeTypeMap = source.shapeTypeMap;
+    this.currentTick = 0;
+    this.startTick = source.startTick;
+    this.endTick = source.endTick;
+    this.frameCache = null;
+    this.lifetimes = source.lifetimes; // immutable, and only refers to shared structures
+    this.playback = new PlaybackCursor(this);
+    this.framePool = null;
+    this.parallelThreshold = Integer.MAX_VALUE;
+    this.interner = null;
+    this.internedSaved = source.getInterningSavings();
+    this.shared = true;
+    this.keyframesShared = true;
+    this.generation = source.generation;
+    this.frozen = true;
+  }
+
+  /**
+   * <p>Return an immutable snapshot of this model as it is now, in constant time. The snapshot
+   * shares this model's shapes and keyframes; this model copies whatever it changes next, so the
+   * snapshot never sees a later change, or part of one.</p>
+   *
+   * <p>A snapshot may be read by any number of threads while this model keeps changing, provided it
+   * is handed to them safely (through a thread-safe queue or executor, for instance). Each snapshot
+   * has its own playback position for {@link #getNextFrame()}, which only one thread should use.
+   * Casting a snapshot back to {@link AnimatorModel} and changing it throws an
+   * {@link IllegalStateException}.</p>
+   *
+   * @return an immutable snapshot of this model
+   */
+  public IReadOnlyAnimatorModel<IModelShape> snapshot() {
+    if (this.frozen) {
+      return this; // already immutable
+    }
+    // from now on, copy shared structures before changing them
+    this.shared = true;
+    this.keyframesShared = true;
+    this.generation++;
+    return new AnimatorModel(this);
+  }
+
+  /**
+   * <p>Prepare to change this model: make sure it is not a snapshot, and that the structures it
+   * is about to change are not shared with one.</p>
+   *
+   * @throws IllegalStateException if this model is a snapshot
+   */
+  private void prepareWrite() throws IllegalStateException {
+    this.prepareKeyFrameWrite();
+    if (this.shared) {
+      this.shapeTypeMap = new HashMap<>(this.shapeTypeMap);
+      this.layers = new LayerOrder(this.layers);
+      this.shared = false;
+    }
+  }
+
+  /**
+   * <p>Prepare to change the keyframes of this model's shapes, but not its shapes or their
+   * layering: as {@link #prepareWrite()}, but only copying the map of keyframes if it is
+   * shared.</p>
+   *
+   * @throws IllegalStateException if this model is a snapshot
+   */
+  private void prepareKeyFrameWrite() throws IllegalStateException {
+    if (this.frozen) {
+      throw new IllegalStateException("A snapshot cannot be changed!");
+    }
+    if (this.keyframesShared) {
+      this.keyframes = new HashMap<>(this.keyframes);
+      this.keyframesShared = false;
+    }
+  }
+
+  /**
+   * <p>Return the keyframes of the given shape, ready to be changed: copied first if they may be
+   * shared with a snapshot. Call {@link #prepareKeyFrameWrite()} first.</p>
+   *
+   * @param shapeId ID of an existing shape
+   * @return the shape's keyframes, owned by this model alone
+   */
+  private KeyFrameTrack writableTrack(String shapeId) {
+    KeyFrameTrack track = this.keyframes.get(shapeId);
+    if (track.generation() != this.generation) {
+      track = track.copy(this.generation);
+      this.keyframes.put(shapeId, track);
+    }
+    return track;
   }
 
   @Override
   public List<IModelShape> getFrame(int tick) throws IllegalArgumentException {
+    return this.getFrame(tick, null);
+  }
+
+  /**
+   * <p>Return the frame at the given tick, from the frame cache if there is one, otherwise
+   * computing it: in parallel if enabled and the frame is large enough, else with the given cursor
+   * if there is one.</p>
+   *
+   * @param tick   tick during the animation
+   * @param cursor cursor to compute the frame with, or {@code null} to compute it directly
+   * @return the state of every shape present at the tick, in layering order
+   * @throws IllegalArgumentException if the tick is out of range
+   */
+  private List<IModelShape> getFrame(int tick, PlaybackCursor cursor)
+      throws IllegalArgumentException {
     if (tick < 0 || tick > this.getEndTick()) {
       // if the given tick is past the end of the animation
       throw new IllegalArgumentException("Tick is out of range!");
     }
+    if (this.frameCache != null) {
+      List<IModelShape> cached = this.frameCache.get(tick);
+      if (cached != null) {
+        return cached;
+      }
+    }
 
-    List<IModelShape> frame = new ArrayList<>();
-    // iterate over this.layers to preserve ordering
-    for (String shapeId : this.layers) {
-      IModelShape interpolatedFrame = this.interpolateFrame(tick, shapeId);
-      if (interpolatedFrame != null) {
-        frame.add(interpolatedFrame);
+    // only visit the shapes present at this tick; the index gives them in layering order
+    LifetimeIndex index = this.getLifetimes();
+    int[] present = index.query(tick);
+    List<IModelShape> frame;
+    if (this.framePool != null && present.length >= this.parallelThreshold) {
+      IModelShape[] states = new IModelShape[present.length];
+      this.framePool.invoke(
+          new FrameTask(index, present, tick, states, 0, present.length, this.parallelThreshold));
+      frame = new ArrayList<>(Arrays.asList(states));
+    } else if (cursor != null) {
+      frame = cursor.getFrame(index, present, tick);
+    } else {
+      frame = new ArrayList<>(present.length);
+      for (int rank : present) {
+        frame.add(stateAt(index.trackAt(rank), index.typeAt(rank), tick));
       }
     }
+    if (this.frameCache != null) {
+      this.frameCache.put(tick, frame);
+    }
     return frame;
   }
 
   /**
-   * <p>Return the state for the given shape at the given tick during the animation. Interpolates
-   * the state of a shape between keyframes, or returns a keyframe if the tick falls on eactly a
-   * keyframe.</p>
+   * <p>Computes the frames through a playback cursor of their own, so each shape's keyframes are
+   * walked once across the range rather than searched at every tick. Bypasses the frame
+   * cache.</p>
+   */
+  @Override
+  public Stream<List<IModelShape>> getFrames(int from, int to) throws IllegalArgumentException {
+    if (from < 0 || from > to || to > this.getEndTick()) {
+      throw new IllegalArgumentException("Tick range is invalid!");
+    }
+    PlaybackCursor cursor = new PlaybackCursor(this);
+    Iterator<List<IModelShape>> frames = new Iterator<List<IModelShape>>() {
+      private int next = from;
+
+      @Override
+      public boolean hasNext() {
+        return this.next <= to;
+      }
+
+      @Override
+      public List<IModelShape> next() {
+        if (!this.hasNext()) {
+          throw new NoSuchElementException();
+        }
+        return cursor.getFrame(this.next++);
+      }
+    };
+    // a cursor must be used by one thread at a time; a stream over an iterator only ever
+    // advances it from one thread, even when run in parallel
+    return StreamSupport.stream(Spliterators.spliterator(frames, to - from + 1,
+        Spliterator.ORDERED | Spliterator.NONNULL), false);
+  }
+
+  /**
+   * <p>Compute frames with at least the given number of shapes in parallel, splitting their shapes
+   * across the given pool, or stop computing frames in parallel if the pool is {@code null}.
+   * Frames are the same either way, shapes still in layering order; smaller frames are always
+   * computed sequentially, since splitting them costs more than it saves.</p>
    *
-   * @param tick    tick during the animation
-   * @param shapeId ID of desired shape
-   * @return the state for the given shape at the given tick during the animation
-   * @throws IllegalArgumentException if a shape with the given ID does not exist
+   * @param pool      the pool to compute frames in, or {@code null} to compute them sequentially
+   * @param threshold the fewest shapes a frame must have to be computed in parallel; frames are
+   *                  split into pieces of about this many shapes
+   * @throws IllegalArgumentException if the threshold is not positive
    */
-  private IModelShape interpolateFrame(int tick, String shapeId) throws IllegalArgumentException {
-    Objects.requireNonNull(shapeId);
-    if (!this.idExists(shapeId)) {
-      throw new IllegalArgumentException("Shape with the given ID does not exist!");
+  public void setParallelFrames(ForkJoinPool pool, int threshold) throws IllegalArgumentException {
+    if (threshold <= 0) {
+      throw new IllegalArgumentException("Threshold must be positive!");
     }
+    this.framePool = pool;
+    this.parallelThreshold = threshold;
+  }
 
-    // check if there is a keyframe at the desired tick
-    IModelShape frame = this.keyframes.get(shapeId).get(tick);
-    if (frame != null) {
-      // if this shape has a keyframe at this particular tick :)
-      return frame;
+  /**
+   * <p>Start or stop interning the colors and keyframes added to this model: sharing one instance
+   * of each distinct color, and of each distinct keyframe state, rather than keeping every copy
+   * given. Saves memory and garbage collection when loading animations that repeat colors and
+   * states, at the cost of a lookup per keyframe and the interning tables themselves. Stopping
+   * releases the tables; what was already shared stays shared. {@link Builder}s intern while
+   * building.</p>
+   *
+   * @param interning whether to intern keyframes added from now on
+   */
+  public void setInterning(boolean interning) {
+    if (interning && this.interner == null) {
+      this.interner = new ShapeInterner();
+    } else if (!interning && this.interner != null) {
+      this.internedSaved += this.interner.getSaved();
+      this.interner = null;
     }
+  }
 
-    // otherwise, must interpolate :(
-    int prevTick = this.findPrevKeyFrame(tick, shapeId);
-    int nextTick = this.findNextKeyFrame(tick, shapeId);
+  /**
+   * <p>Return how many color and shape objects interning has saved over the life of this model:
+   * the number of times an existing instance was used in place of a new or given one.</p>
+   *
+   * @return the number of objects saved by interning
+   */
+  public long getInterningSavings() {
+    return this.internedSaved + (this.interner != null ? this.interner.getSaved() : 0);
+  }
 
-    if (prevTick != -1 && nextTick != -1) {
-      IModelShape prevState = this.keyframes.get(shapeId).get(prevTick);
-      IModelShape nextState = this.keyframes.get(shapeId).get(nextTick);
+  /**
+   * <p>Return an opaque color with the given components, shared if interning.</p>
+   *
+   * @param red   red component, 0 to 255
+   * @param green green component, 0 to 255
+   * @param blue  blue component, 0 to 255
+   * @return the color
+   * @throws IllegalArgumentException if a component is out of range
+   */
+  Color color(int red, int green, int blue) throws IllegalArgumentException {
+    return this.interner != null ? this.interner.color(red, green, blue)
+        : new Color(red, green, blue);
+  }
 
-      List<Double> prevAttributes = prevState.getAttributes();
-      List<Double> nextAttributes = nextState.getAttributes();
-      List<Double> currAttributes = new ArrayList<>();
+  /**
+   * <p>Return a new cursor for computing frames of this model. Computing frames in order through
+   * a cursor is faster than through {@link #getFrame(int)}; {@link #getNextFrame()} uses one.</p>
+   *
+   * @return a new playback cursor over this model
+   */
+  public PlaybackCursor newPlaybackCursor() {
+    return new PlaybackCursor(this);
+  }
 
-      for (int i = 0; i < prevAttributes.size(); i++) {
-        double current = this.linearInterpolateAttribute(
-            prevTick, nextTick, tick, prevAttributes.get(i), nextAttributes.get(i));
-        currAttributes.add(current);
-      }
+  /**
+   * <p>Cache the frames computed by {@link #getFrame(int)} (and so {@link #getNextFrame()}) in the
+   * given cache, or stop caching if it is {@code null}. The cache is cleared when installed and
+   * whenever the animation changes.</p>
+   *
+   * @param cache the cache to use, or {@code null} to disable caching
+   */
+  public void setFrameCache(FrameCache cache) {
+    if (cache != null) {
+      cache.clear();
+    }
+    this.frameCache = cache;
+  }
 
-      double x = currAttributes.remove(0);
-      double y = currAttributes.remove(0);
-      double width = currAttributes.remove(0);
-      double height = currAttributes.remove(0);
-      double red = currAttributes.remove(0);
-      double green = currAttributes.remove(0);
-      double blue = currAttributes.remove(0);
-      Color color = new Color((int) red, (int) green, (int) blue);
+  /**
+   * <p>Return the frame cache in use, or {@code null} if frames are not being cached.</p>
+   *
+   * @return the frame cache in use, or {@code null}
+   */
+  public FrameCache getFrameCache() {
+    return this.frameCache;
+  }
 
-      ShapeType type = this.shapeTypeMap.get(shapeId);
-      frame = new ModelShape(type, x, y, width, height, color);
+  /**
+   * <p>Return the index of shape lifetimes, building it if the animation has changed since it was
+   * last built.</p>
+   *
+   * @return the up-to-date index of shape lifetimes
+   */
+  LifetimeIndex getLifetimes() {
+    if (this.lifetimes == null) {
+      this.lifetimes =
+          new LifetimeIndex(this.layers.inOrder(), this.keyframes, this.shapeTypeMap);
     }
+    return this.lifetimes;
+  }
 
-    return frame;
+  /**
+   * <p>Record that the animation has changed, so any frames computed earlier are stale.</p>
+   */
+  private void invalidate() {
+    if (this.frameCache != null) {
+      this.frameCache.clear();
+    }
+    this.lifetimes = null; // rebuilt lazily, so a run of edits only pays for it once
   }
 
   /**
-   * <p>Interpolates at a given tick for a single value ("tweening").</p>
+   * <p>Record that the keyframes of the given shape have changed, so any frames computed earlier
+   * are stale. Unlike {@link #invalidate()}, keeps the index of shape lifetimes, updating it for
+   * just that shape, so playing frames between edits does not rebuild it every time.</p>
    *
-   * @param startTick    the start tick of the transition
-   * @param endTick      the end tick of the transition
-   * @param currTick     the tick where we want the frame at
-   * @param initialState initial state of the attribute that is being interpolated
-   * @param finalState   final state of the attribute that is being interpolated
-   * @return the value of the interpolated attribute
-   * @throws IllegalArgumentException if the tick is not in the range
+   * @param shapeId ID of the shape whose keyframes changed
    */
-  private double linearInterpolateAttribute(double startTick, double endTick, double currTick,
-      double initialState, double finalState) throws IllegalArgumentException {
-    if (endTick < startTick) {
-      throw new IllegalArgumentException("End tick cannot be before start tick!");
+  private void invalidate(String shapeId) {
+    if (this.frameCache != null) {
+      this.frameCache.clear();
+    }
+    if (this.lifetimes != null) {
+      // null if it has drifted too far from its tree, to be rebuilt lazily
+      this.lifetimes = this.lifetimes.withTrack(shapeId, this.keyframes.get(shapeId));
+    }
+  }
+
+  /**
+   * <p>Return the state of a shape at the given tick during the animation. Interpolates the state
+   * of the shape between keyframes, or returns a keyframe if the tick falls on exactly a
+   * keyframe.</p>
+   *
+   * @param track the shape's keyframes
+   * @param type  the type of the shape
+   * @param tick  tick during the animation
+   * @return the state of the shape at the given tick, or {@code null} if it is not present
+   */
+  private static IModelShape stateAt(KeyFrameTrack track, ShapeType type, int tick) {
+    // check if there is a keyframe at the desired tick
+    int index = track.indexOf(tick);
+    if (index >= 0) {
+      // if this shape has a keyframe at this particular tick :)
+      return track.stateAt(index);
     }
-    if (endTick <= currTick || startTick >= currTick) {
-      throw new IllegalArgumentException("Cannot interpolate this tick, not in range!");
+
+    // otherwise, must interpolate :( the keyframes around the tick sit either side of where it
+    // would be inserted
+    int next = -index - 1;
+    int prev = next - 1;
+    if (prev < 0 || next >= track.size()) {
+      return null; // the shape is not present at this tick
     }
-    return
-        initialState * ((endTick - currTick) / (endTick - startTick))
-            + finalState * ((currTick - startTick) / (endTick - startTick));
+    return tween(track, type, prev, tick);
+  }
+
+  /**
+   * <p>Interpolate ("tween") the state of a shape between two consecutive keyframes of its track.
+   * Reads the attributes of both keyframes straight from the track, so the only objects created
+   * are the resulting shape and, if the two keyframes' colors differ, its color.</p>
+   *
+   * @param track the shape's keyframes
+   * @param type  the type of the shape
+   * @param prev  position in the track of the keyframe at or before the tick; the keyframe after
+   *              it must exist
+   * @param tick  tick strictly between the two keyframes
+   * @return the state of the shape at the given tick
+   */
+  static IModelShape tween(KeyFrameTrack track, ShapeType type, int prev, int tick) {
+    int next = prev + 1;
+    double startTick = track.tickAt(prev);
+    double endTick = track.tickAt(next);
+    // weights of the start and end states, computed exactly as linear interpolation always has
+    double startWeight = (endTick - tick) / (endTick - startTick);
+    double endWeight = (tick - startTick) / (endTick - startTick);
+
+    double x = track.xAt(prev) * startWeight + track.xAt(next) * endWeight;
+    double y = track.yAt(prev) * startWeight + track.yAt(next) * endWeight;
+    double width = track.widthAt(prev) * startWeight + track.widthAt(next) * endWeight;
+    double height = track.heightAt(prev) * startWeight + track.heightAt(next) * endWeight;
+
+    int startColor = track.argbAt(prev);
+    int endColor = track.argbAt(next);
+    int red = (int) (((startColor >> 16) & 0xFF) * startWeight
+        + ((endColor >> 16) & 0xFF) * endWeight);
+    int green = (int) (((startColor >> 8) & 0xFF) * startWeight
+        + ((endColor >> 8) & 0xFF) * endWeight);
+    int blue = (int) ((startColor & 0xFF) * startWeight + (endColor & 0xFF) * endWeight);
+    int rgb = 0xFF000000 | (red << 16) | (green << 8) | blue;
+    // share the start keyframe's color when the result is identical to it
+    Color color = rgb == startColor ? track.colorAt(prev) : new Color(rgb);
+    return new ModelShape(type, x, y, width, height, color);
   }
 
   @Override
@@ -160,46 +496,17 @@ public class AnimatorModel implements IAnimatorModel<IModelShape> {
       throw new IllegalArgumentException("Shape with the given ID does not exist!");
     }
 
-    Map<Integer, IModelShape> frames = this.keyframes.get(shapeId);
-    int prevTick = -1;
-    boolean hasPrevTick = false;
-    for (int i : frames.keySet()) {
-      // iterate over all tick values of keyframes
-      if (i < tick && i > prevTick) {
-        prevTick = i;
-        hasPrevTick = true;
-      }
-    }
-
-    if (!hasPrevTick) {
-      return -1;
-    }
-    return prevTick;
+    return this.keyframes.get(shapeId).prevTick(tick);
   }
 
   @Override
   public int findNextKeyFrame(int tick, String shapeId) throws IllegalArgumentException {
-    //TODO: skips first key frame
     Objects.requireNonNull(shapeId);
     if (!this.idExists(shapeId)) {
       throw new IllegalArgumentException("Shape with the given ID does not exist!");
     }
 
-    Map<Integer, IModelShape> frames = this.keyframes.get(shapeId);
-    int nextTick = Integer.MAX_VALUE;
-    boolean hasNextFrame = false;
-    for (int i : frames.keySet()) {
-      // iterate over all tick values of keyframes
-      if (i > tick && i < nextTick) {
-        nextTick = i;
-        hasNextFrame = true;
-      }
-    }
-
-    if (!hasNextFrame) {
-      return -1;
-    }
-    return nextTick;
+    return this.keyframes.get(shapeId).nextTick(tick);
   }
 
   @Override
@@ -227,12 +534,13 @@ public class AnimatorModel implements IAnimatorModel<IModelShape> {
     if (!hasNextFrame()) {
       throw new IllegalStateException("Animation does not have a next frame!");
     }
-    return this.getFrame(this.currentTick++); // get frame, then increment tick
+    // get frame, then increment tick
+    return this.getFrame(this.currentTick++, this.playback);
   }
 
   @Override
   public List<IModelShape> getNextKeyFrame() throws IllegalArgumentException {
-    List<IModelShape> result = this.getFrame(this.currentTick);
+    List<IModelShape> result = this.getFrame(this.currentTick, this.playback);
     int nextKeyTick = this.endTick;
 
     for (String id : this.keyframes.keySet()) {
@@ -266,12 +574,11 @@ public class AnimatorModel implements IAnimatorModel<IModelShape> {
     boolean hasKeyframe = false;
     int endTick = 0;
 
-    for (Map<Integer, IModelShape> frames : this.keyframes.values()) {
-      // for each shape
-      for (int tick : frames.keySet()) {
-        // for each keyframe of the shape
+    for (KeyFrameTrack track : this.keyframes.values()) {
+      // for each shape, its last keyframe is its latest one
+      if (track.size() > 0) {
         hasKeyframe = true;
-        endTick = Math.max(endTick, tick);
+        endTick = Math.max(endTick, track.tickAt(track.size() - 1));
       }
     }
     if (!hasKeyframe) {
@@ -292,7 +599,7 @@ public class AnimatorModel implements IAnimatorModel<IModelShape> {
 
   @Override
   public List<String> getShapeIds() {
-    return new ArrayList<>(this.layers); // preserves ordering of layers
+    return this.layers.toList(); // preserves ordering of layers
   }
 
   @Override
@@ -317,7 +624,7 @@ public class AnimatorModel implements IAnimatorModel<IModelShape> {
     if (!this.idExists(shapeId)) {
       throw new IllegalArgumentException("Shape with the given ID does not exist!");
     }
-    return this.keyframes.get(shapeId); // should never be null
+    return this.keyframes.get(shapeId).asMap(); // should never be null
   }
 
   @Override
@@ -325,8 +632,9 @@ public class AnimatorModel implements IAnimatorModel<IModelShape> {
     if (!this.idExists(id)) {
       throw new IllegalArgumentException("Shape with the given ID does not exist!");
     }
-    this.layers.remove(id);
-    this.layers.add(id);
+    this.prepareWrite();
+    this.layers.toFront(id);
+    this.invalidate();
   }
 
   @Override
@@ -334,8 +642,9 @@ public class AnimatorModel implements IAnimatorModel<IModelShape> {
     if (!this.idExists(id)) {
       throw new IllegalArgumentException("Shape with the given ID does not exist!");
     }
-    this.layers.remove(id);
-    this.layers.add(0, id);
+    this.prepareWrite();
+    this.layers.toBack(id);
+    this.invalidate();
   }
 
   @Override
@@ -346,6 +655,9 @@ public class AnimatorModel implements IAnimatorModel<IModelShape> {
     if (x < 0 || y < 0) {
       throw new IllegalArgumentException("X and Y must be non-negative!");
     }
+    if (this.frozen) {
+      throw new IllegalStateException("A snapshot cannot be changed!");
+    }
     this.x = x;
     this.y = y;
     this.width = width;
@@ -367,9 +679,11 @@ public class AnimatorModel implements IAnimatorModel<IModelShape> {
     if (!this.idExists(id)) {
       throw new IllegalArgumentException("Shape with the given ID does not exist!");
     }
+    this.prepareWrite();
     this.keyframes.remove(id);
     this.layers.remove(id);
     this.shapeTypeMap.remove(id);
+    this.invalidate();
   }
 
   @Override
@@ -380,9 +694,13 @@ public class AnimatorModel implements IAnimatorModel<IModelShape> {
     if (this.idExists(id)) {
       throw new IllegalArgumentException("Shape with given ID already exists!");
     }
+    this.prepareWrite();
     this.shapeTypeMap.put(id, type);
-    this.layers.add(id);
-    this.keyframes.put(id, new HashMap<>()); // important to init the hashmap here
+    this.layers.toFront(id);
+    // important to init the track here
+    this.keyframes.put(id, this.compact ? new PackedKeyFrameTrack(type, this.generation)
+        : new ObjectKeyFrameTrack(this.generation));
+    this.invalidate();
   }
 
   @Override
@@ -397,14 +715,73 @@ public class AnimatorModel implements IAnimatorModel<IModelShape> {
     }
 
     ShapeType type = this.shapeTypeMap.get(shapeId); // find type of the shape with given ID
+    if (this.interner != null && color != null) {
+      color = this.interner.color(color);
+    }
     IModelShape keyframe = new ModelShape(type, x, y, width, height, color);
     if (this.isConflict(tick, shapeId, keyframe)) {
       throw new IllegalArgumentException("New keyframe conflicts with existing keyframe!");
     }
+    if (this.interner != null && !this.compact) {
+      // compact tracks keep no keyframe objects, so there is nothing to share
+      keyframe = this.interner.state(keyframe);
+    }
     // either add a new keyframe, or leave the remaining (identical) one unchanged
-    this.keyframes.get(shapeId).put(tick, keyframe);
+    this.prepareKeyFrameWrite();
+    this.writableTrack(shapeId).put(tick, keyframe);
     // recalculate the ending tick for the animation
     this.endTick = Math.max(tick, this.endTick);
+    this.invalidate(shapeId);
+  }
+
+  /**
+   * <p>Return the keyframes of the given shape, ready for a builder to append the given number of
+   * keyframes to with {@link #appendKeyFrame}, skipping the checks and searches of
+   * {@link #addKeyFrame}. Call {@link #finishAppending()} once done.</p>
+   *
+   * @param shapeId ID of an existing shape
+   * @param count   number of keyframes to be appended
+   * @return the shape's keyframes, owned by this model alone
+   */
+  KeyFrameTrack appendableTrack(String shapeId, int count) {
+    this.prepareKeyFrameWrite();
+    KeyFrameTrack track = this.writableTrack(shapeId);
+    track.ensureCapacity(track.size() + count);
+    return track;
+  }
+
+  /**
+   * <p>Append a keyframe to a track returned by {@link #appendableTrack}, interning it if
+   * interning is on. The builder must already have checked it as {@link #addKeyFrame} would: its
+   * tick must be non-negative and later than every other in the track, and its color
+   * components in range.</p>
+   *
+   * @param track  the track
+   * @param type   type of the track's shape
+   * @param tick   tick of the keyframe
+   * @param x      x position of the keyframe
+   * @param y      y position of the keyframe
+   * @param width  width of the keyframe
+   * @param height height of the keyframe
+   * @param rgb    color of the keyframe, as {@code 0xRRGGBB}
+   */
+  void appendKeyFrame(KeyFrameTrack track, ShapeType type, int tick, int x, int y, int width,
+      int height, int rgb) {
+    if (this.compact) {
+      ((PackedKeyFrameTrack) track).append(tick, x, y, width, height, 0xFF000000 | rgb);
+    } else {
+      Color color = this.color(rgb >> 16, rgb >> 8 & 0xFF, rgb & 0xFF);
+      IModelShape keyframe = new ModelShape(type, x, y, width, height, color);
+      track.append(tick, this.interner != null ? this.interner.state(keyframe) : keyframe);
+    }
+    this.endTick = Math.max(tick, this.endTick);
+  }
+
+  /**
+   * <p>Finish appending keyframes with {@link #appendKeyFrame}.</p>
+   */
+  void finishAppending() {
+    this.invalidate();
   }
 
   /**
@@ -427,9 +804,10 @@ public class AnimatorModel implements IAnimatorModel<IModelShape> {
       throw new IllegalArgumentException("Shape with the given ID does not exist!");
     }
 
-    IModelShape conflictingKeyframe = this.keyframes.get(shapeId).get(tick);
+    KeyFrameTrack track = this.keyframes.get(shapeId);
+    int index = track.indexOf(tick);
     //conflicts if there is already a keyframe at that tick AND it is different than the new one
-    return conflictingKeyframe != null && !conflictingKeyframe.equals(keyframe);
+    return index >= 0 && !track.stateEquals(index, keyframe);
   }
 
   @Override
@@ -438,13 +816,84 @@ public class AnimatorModel implements IAnimatorModel<IModelShape> {
     if (!this.idExists(shapeId)) {
       throw new IllegalArgumentException("Shape with the given ID does not exist!");
     }
-    Map<Integer, IModelShape> frames = this.keyframes.get(shapeId);
-    if (!frames.containsKey(tick)) {
+    if (this.keyframes.get(shapeId).indexOf(tick) < 0) {
       throw new IllegalArgumentException("No keyframe exists for the specified tick!");
     }
-    frames.remove(tick);
+    this.prepareKeyFrameWrite();
+    this.writableTrack(shapeId).remove(tick);
     // recalculate the ending tick for the animation
     this.endTick = this.findEndTick();
+    this.invalidate(shapeId);
+  }
+
+  /**
+   * <p>Shrink the storage of every shape's keyframes to exactly fit. Called once a model is done
+   * being built.</p>
+   */
+  void trimToSize() {
+    this.prepareKeyFrameWrite();
+    for (String id : this.shapeTypeMap.keySet()) {
+      this.writableTrack(id).trimToSize();
+    }
+    this.invalidate(); // so the index of lifetimes lets go of any untrimmed copies
+  }
+
+  /**
+   * Computes the states of a range of the shapes present in a frame, splitting the range in half
+   * until it is small enough to compute directly. Each state is written to the slot of the output
+   * array matching its shape's position in the frame, so the result stays in layering order.
+   */
+  private static final class FrameTask extends RecursiveAction {
+
+    private static final long serialVersionUID = 1L;
+
+    private final LifetimeIndex index;
+    private final int[] present;
+    private final int tick;
+    private final IModelShape[] states;
+    private final int from;
+    private final int to;
+    private final int threshold;
+
+    /**
+     * <p>Constructs a {@code FrameTask} computing {@code states[from]} to {@code states[to - 1]}.
+     * </p>
+     *
+     * @param index     the model's lifetime index
+     * @param present   layer ranks of the shapes present at the tick, in ascending order
+     * @param tick      tick of the frame
+     * @param states    output, one slot per present shape
+     * @param from      first position to compute (inclusive)
+     * @param to        last position to compute (exclusive)
+     * @param threshold most shapes to compute without splitting
+     */
+    private FrameTask(LifetimeIndex index, int[] present, int tick, IModelShape[] states,
+        int from, int to, int threshold) {
+      this.index = index;
+      this.present = present;
+      this.tick = tick;
+      this.states = states;
+      this.from = from;
+      this.to = to;
+      this.threshold = threshold;
+    }
+
+    @Override
+    protected void compute() {
+      if (this.to - this.from <= this.threshold) {
+        for (int i = this.from; i < this.to; i++) {
+          int rank = this.present[i];
+          this.states[i] = stateAt(this.index.trackAt(rank), this.index.typeAt(rank), this.tick);
+        }
+        return;
+      }
+      int middle = (this.from + this.to) >>> 1;
+      invokeAll(
+          new FrameTask(this.index, this.present, this.tick, this.states, this.from, middle,
+              this.threshold),
+          new FrameTask(this.index, this.present, this.tick, this.states, middle, this.to,
+              this.threshold));
+    }
   }
 
   @Override
@@ -462,22 +911,46 @@ public class AnimatorModel implements IAnimatorModel<IModelShape> {
     return new Builder();
   }
 
+  /**
+   * <p>Return a builder for a model that stores keyframes as described in
+   * {@link #AnimatorModel(boolean)}.</p>
+   *
+   * @param compact whether the built model stores keyframes as primitive arrays
+   * @return a new builder
+   */
+  public static Builder getBuilder(boolean compact) {
+    return new Builder(compact);
+  }
+
   /**
    * A builder class for creating an animator model.
    */
   public static final class Builder implements AnimationBuilder<IAnimatorModel<IModelShape>> {
 
-    private final IAnimatorModel<IModelShape> model;
+    private final AnimatorModel model;
 
     /**
      * Constructs a {@code Builder}.
      */
     public Builder() {
-      this.model = new AnimatorModel();
+      this(false);
+    }
+
+    /**
+     * Constructs a {@code Builder} for a model that stores keyframes as described in
+     * {@link AnimatorModel#AnimatorModel(boolean)}.
+     *
+     * @param compact whether the built model stores keyframes as primitive arrays
+     */
+    public Builder(boolean compact) {
+      this.model = new AnimatorModel(compact);
+      this.model.setInterning(true); // animation files repeat colors and states heavily
     }
 
     @Override
     public IAnimatorModel<IModelShape> build() {
+      this.model.setInterning(false);
+      this.model.trimToSize();
       return this.model;
     }
 
@@ -498,8 +971,8 @@ public class AnimatorModel implements IAnimatorModel<IModelShape> {
     public AnimationBuilder<IAnimatorModel<IModelShape>> addMotion(String name, int t1, int x1,
         int y1, int w1, int h1, int r1, int g1, int b1, int t2, int x2, int y2, int w2, int h2,
         int r2, int g2, int b2) {
-      this.model.addKeyFrame(t1, name, x1, y1, w1, h1, new Color(r1, g1, b1));
-      this.model.addKeyFrame(t2, name, x2, y2, w2, h2, new Color(r2, g2, b2));
+      this.model.addKeyFrame(t1, name, x1, y1, w1, h1, this.model.color(r1, g1, b1));
+      this.model.addKeyFrame(t2, name, x2, y2, w2, h2, this.model.color(r2, g2, b2));
       return this;
     }
   }
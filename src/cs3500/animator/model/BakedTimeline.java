@@ -0,0 +1,344 @@
+package cs3500.animator.model;
+
+import cs3500.animator.model.shape.IModelShape;
+import cs3500.animator.model.shape.ModelShape;
+import cs3500.animator.model.shape.ShapeType;
+import cs3500.animator.util.AnimationStatePrinter;
+import java.awt.Color;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * <p>An immutable, precomputed ("baked") copy of an animation, for playing back finished
+ * animations. Every shape's state at every tick is computed once, when baking, and packed into
+ * primitive arrays: one block per tick, holding the shapes visible at that tick in layering order.
+ * Getting a frame then only reads its block, so it costs time proportional to the number of shapes
+ * visible, with no interpolation.</p>
+ *
+ * <p>Positions and sizes are stored as {@code float}s, which is exact for whole numbers and
+ * accurate to well under a pixel otherwise. Baking takes time and memory proportional to the
+ * total number of visible shapes over all ticks; {@link #getBakeTimeNanos()} and
+ * {@link #getBakedBytes()} report both, to help decide whether baking a given animation pays
+ * off.</p>
+ */
+public final class BakedTimeline implements IReadOnlyAnimatorModel<IModelShape> {
+
+  // shape table, in layering order (index 0 is the bottommost shape)
+  private final String[] ids;
+  private final ShapeType[] types;
+  private final Map<String, ShapeType> shapeTypes;
+  private final Map<String, NavigableMap<Integer, IModelShape>> keyframes; // sorted by tick
+
+  // the block of tick t is entries tickOffsets[t] (inclusive) to tickOffsets[t + 1] (exclusive)
+  private final int[] tickOffsets;
+  private final int[] shapeIndices; // index into the shape table, per entry
+  private final float[] geometry; // x, y, width, height, per entry
+  private final int[] colorIndices; // index into the palette, per entry
+  private final Color[] palette; // every distinct color in the animation
+
+  private final int endTick;
+  private final int x;
+  private final int y;
+  private final int width;
+  private final int height;
+  private final long bakeTimeNanos;
+  private int currentTick; // for getNextFrame()
+
+  /**
+   * <p>Constructs a {@code BakedTimeline} from fully computed arrays. Use {@link #bake}.</p>
+   */
+  private BakedTimeline(IReadOnlyAnimatorModel<IModelShape> model, String[] ids,
+      ShapeType[] types, Map<String, NavigableMap<Integer, IModelShape>> keyframes,
+      int[] tickOffsets, int[] shapeIndices, float[] geometry, int[] colorIndices,
+      Color[] palette, long bakeTimeNanos) {
+    this.ids = ids;
+    this.types = types;
+    this.shapeTypes = model.getShapes();
+    this.keyframes = keyframes;
+    this.tickOffsets = tickOffsets;
+    this.shapeIndices = shapeIndices;
+    this.geometry = geometry;
+    this.colorIndices = colorIndices;
+    this.palette = palette;
+    this.endTick = model.getEndTick();
+    this.x = model.getX();
+    this.y = model.getY();
+    this.width = model.getWidth();
+    this.height = model.getHeight();
+    this.bakeTimeNanos = bakeTimeNanos;
+    this.currentTick = 0;
+  }
+
+  /**
+   * <p>Bake the given animation: compute every frame of it once and pack them into a new
+   * {@code BakedTimeline}. Later changes to the given model are not reflected in the result.</p>
+   *
+   * @param model the animation to bake
+   * @return the baked animation
+   * @throws NullPointerException     if the model is {@code null}
+   * @throws IllegalArgumentException if the animation is too large to bake: if it runs for more
+   *                                  than {@code Integer.MAX_VALUE / 4} ticks, or its frames hold
+   *                                  more than that many shapes in all, since their geometry
+   *                                  would not fit in an array
+   */
+  public static BakedTimeline bake(IReadOnlyAnimatorModel<IModelShape> model)
+      throws NullPointerException, IllegalArgumentException {
+    Objects.requireNonNull(model);
+    long start = System.nanoTime();
+
+    List<String> layers = model.getShapeIds();
+    int shapeCount = layers.size();
+    String[] ids = layers.toArray(new String[0]);
+    ShapeType[] types = new ShapeType[shapeCount];
+    Map<String, NavigableMap<Integer, IModelShape>> keyframes = new HashMap<>();
+    // lifetime of each shape: from its first to its last keyframe, empty if it has none
+    int[] firstTicks = new int[shapeCount];
+    int[] lastTicks = new int[shapeCount];
+    long entryCount = 0;
+    for (int s = 0; s < shapeCount; s++) {
+      types[s] = model.getShapeType(ids[s]);
+      TreeMap<Integer, IModelShape> frames = new TreeMap<>(model.getKeyFrames(ids[s]));
+      keyframes.put(ids[s], Collections.unmodifiableNavigableMap(frames));
+      firstTicks[s] = frames.isEmpty() ? 0 : frames.firstKey();
+      lastTicks[s] = frames.isEmpty() ? -1 : frames.lastKey();
+      entryCount += (long) lastTicks[s] - firstTicks[s] + 1;
+    }
+    int endTick = model.getEndTick();
+    if (entryCount > Integer.MAX_VALUE / 4 || endTick > Integer.MAX_VALUE / 4) {
+      throw new IllegalArgumentException("Animation is too large to bake!");
+    }
+
+    int[] tickOffsets = new int[endTick + 2];
+    int[] shapeIndices = new int[(int) entryCount];
+    float[] geometry = new float[(int) entryCount * 4];
+    int[] colorIndices = new int[(int) entryCount];
+    Map<Integer, Integer> paletteIndices = new HashMap<>();
+    List<Color> palette = new ArrayList<>();
+
+    int entry = 0;
+    for (int tick = 0; tick <= endTick; tick++) {
+      tickOffsets[tick] = entry;
+      // a frame holds exactly the shapes alive at its tick, in layering order
+      List<IModelShape> frame = model.getFrame(tick);
+      int frameIndex = 0;
+      for (int s = 0; s < shapeCount; s++) {
+        if (tick < firstTicks[s] || tick > lastTicks[s]) {
+          continue;
+        }
+        if (frameIndex >= frame.size()) {
+          throw new IllegalStateException("Frame is missing a shape that should be present!");
+        }
+        IModelShape state = frame.get(frameIndex++);
+        shapeIndices[entry] = s;
+        geometry[entry * 4] = (float) state.getX();
+        geometry[entry * 4 + 1] = (float) state.getY();
+        geometry[entry * 4 + 2] = (float) state.getWidth();
+        geometry[entry * 4 + 3] = (float) state.getHeight();
+        Color color = state.getColor();
+        Integer colorIndex = paletteIndices.get(color.getRGB());
+        if (colorIndex == null) {
+          colorIndex = palette.size();
+          paletteIndices.put(color.getRGB(), colorIndex);
+          palette.add(color);
+        }
+        colorIndices[entry] = colorIndex;
+        entry++;
+      }
+      if (frameIndex != frame.size()) {
+        throw new IllegalStateException("Frame has a shape that should not be present!");
+      }
+    }
+    tickOffsets[endTick + 1] = entry;
+
+    return new BakedTimeline(model, ids, types, keyframes, tickOffsets, shapeIndices, geometry,
+        colorIndices, palette.toArray(new Color[0]), System.nanoTime() - start);
+  }
+
+  /**
+   * <p>Return how long baking this timeline took.</p>
+   *
+   * @return the time taken to bake this timeline, in nanoseconds
+   */
+  public long getBakeTimeNanos() {
+    return this.bakeTimeNanos;
+  }
+
+  /**
+   * <p>Return roughly how much memory the baked frames use (not counting the copy of the
+   * keyframes kept for keyframe queries).</p>
+   *
+   * @return the estimated memory used by the baked frames, in bytes
+   */
+  public long getBakedBytes() {
+    long arrayHeader = 16;
+    long colorBytes = 32;
+    return 5 * arrayHeader
+        + 4L * this.tickOffsets.length
+        + 4L * this.shapeIndices.length
+        + 4L * this.geometry.length
+        + 4L * this.colorIndices.length
+        + (4L + colorBytes) * this.palette.length;
+  }
+
+  /**
+   * <p>Return the total number of shape states stored, over all ticks.</p>
+   *
+   * @return the number of baked shape states
+   */
+  public int getBakedStateCount() {
+    return this.shapeIndices.length;
+  }
+
+  @Override
+  public List<IModelShape> getFrame(int tick) throws IllegalArgumentException {
+    if (tick < 0 || tick > this.endTick) {
+      throw new IllegalArgumentException("Tick is out of range!");
+    }
+    int from = this.tickOffsets[tick];
+    int to = this.tickOffsets[tick + 1];
+    List<IModelShape> frame = new ArrayList<>(to - from);
+    for (int entry = from; entry < to; entry++) {
+      frame.add(new ModelShape(this.types[this.shapeIndices[entry]],
+          this.geometry[entry * 4], this.geometry[entry * 4 + 1],
+          this.geometry[entry * 4 + 2], this.geometry[entry * 4 + 3],
+          this.palette[this.colorIndices[entry]]));
+    }
+    return frame;
+  }
+
+  @Override
+  public List<IModelShape> getNextFrame() throws IllegalStateException {
+    if (!this.hasNextFrame()) {
+      throw new IllegalStateException("Animation does not have a next frame!");
+    }
+    return this.getFrame(this.currentTick++); // get frame, then increment tick
+  }
+
+  @Override
+  public List<IModelShape> getNextKeyFrame() throws IllegalArgumentException {
+    List<IModelShape> result = this.getFrame(this.currentTick);
+    int nextKeyTick = this.endTick;
+    for (String id : this.ids) {
+      int temp = this.findNextKeyFrame(this.currentTick, id);
+      if (temp < nextKeyTick) {
+        // next key tick is the next tick that is later than the current tick
+        nextKeyTick = temp;
+      }
+    }
+    this.currentTick = nextKeyTick;
+    return result;
+  }
+
+  @Override
+  public boolean hasNextFrame() {
+    return this.currentTick <= this.endTick && this.currentTick >= 0;
+  }
+
+  @Override
+  public void reset() {
+    this.currentTick = 0;
+  }
+
+  @Override
+  public int getStartTick() {
+    return 0; // animation always starts at 0
+  }
+
+  @Override
+  public int getEndTick() {
+    return this.endTick;
+  }
+
+  @Override
+  public List<String> getShapeIds() {
+    return new ArrayList<>(Arrays.asList(this.ids)); // preserves ordering of layers
+  }
+
+  @Override
+  public ShapeType getShapeType(String shapeId)
+      throws IllegalArgumentException, NullPointerException {
+    Objects.requireNonNull(shapeId);
+    this.checkExists(shapeId);
+    return this.shapeTypes.get(shapeId);
+  }
+
+  @Override
+  public Map<String, ShapeType> getShapes() {
+    return new HashMap<>(this.shapeTypes);
+  }
+
+  @Override
+  public Map<Integer, IModelShape> getKeyFrames(String shapeId)
+      throws IllegalArgumentException, NullPointerException {
+    Objects.requireNonNull(shapeId);
+    this.checkExists(shapeId);
+    return this.keyframes.get(shapeId);
+  }
+
+  @Override
+  public int findPrevKeyFrame(int tick, String shapeId) throws IllegalArgumentException {
+    Objects.requireNonNull(shapeId);
+    this.checkExists(shapeId);
+    Integer prev = this.keyframes.get(shapeId).lowerKey(tick);
+    return prev == null ? -1 : prev;
+  }
+
+  @Override
+  public int findNextKeyFrame(int tick, String shapeId) throws IllegalArgumentException {
+    Objects.requireNonNull(shapeId);
+    this.checkExists(shapeId);
+    Integer next = this.keyframes.get(shapeId).higherKey(tick);
+    return next == null ? -1 : next;
+  }
+
+  @Override
+  public int getX() {
+    return this.x;
+  }
+
+  @Override
+  public int getY() {
+    return this.y;
+  }
+
+  @Override
+  public int getWidth() {
+    return this.width;
+  }
+
+  @Override
+  public int getHeight() {
+    return this.height;
+  }
+
+  /**
+   * <p>Ensure a shape with the given ID exists in this timeline.</p>
+   *
+   * @param shapeId ID of a shape
+   * @throws IllegalArgumentException if no shape with the given ID exists
+   */
+  private void checkExists(String shapeId) throws IllegalArgumentException {
+    if (!this.keyframes.containsKey(shapeId)) {
+      throw new IllegalArgumentException("Shape with the given ID does not exist!");
+    }
+  }
+
+  @Override
+  public String toString() {
+    Appendable sb = new StringBuilder();
+    try {
+      AnimationStatePrinter.print(this, sb, 1);
+    } catch (IOException e) {
+      throw new IllegalStateException("Failed to append toString output!");
+    }
+    return sb.toString();
+  }
+}
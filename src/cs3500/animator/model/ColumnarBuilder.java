@@ -0,0 +1,330 @@
+package cs3500.animator.model;
+
+import cs3500.animator.model.shape.IModelShape;
+import cs3500.animator.model.shape.ShapeType;
+import cs3500.animator.util.AnimationBuilder;
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * <p>Builds an {@link AnimatorModel} from motions in bulk. Where {@link AnimatorModel.Builder}
+ * adds both keyframes of each motion to the model as it comes, checking each against the shape's
+ * keyframes, this builder appends them to growable columns of ints, and only fills in the shapes'
+ * keyframes in {@link #build()}: sorting each shape's keyframes by tick, dropping the copies of
+ * keyframes that several motions share, and checking for conflicts, in one pass.</p>
+ *
+ * <p>The model built is the same, and bad input fails with the same exceptions and messages. A
+ * keyframe that conflicts with the shape's last one (the end of its previous motion, or the start
+ * of the same motion) is reported as soon as it is added, like any other bad motion; any other
+ * conflict is only found by {@link #build()}. So input with such a conflict and a later error of
+ * another kind reports the later error.</p>
+ */
+public final class ColumnarBuilder implements AnimationBuilder<IAnimatorModel<IModelShape>> {
+
+  private static final int INITIAL_CAPACITY = 1 << 10;
+
+  private final AnimatorModel model; // bounds and shapes are set on it straight away
+  private final Map<String, Integer> shapeIndex; // position of each shape in the lists below
+  private final List<String> shapeIds;
+  private final List<ShapeType> shapeTypes;
+  private int[] last; // position in the columns of each shape's last keyframe, or -1
+
+  // the columns: the shape (by index), tick and state of each keyframe added, in order
+  private int[] shapes;
+  private int[] ticks;
+  private int[] xs;
+  private int[] ys;
+  private int[] widths;
+  private int[] heights;
+  private int[] rgbs; // as 0xRRGGBB
+  private int count;
+
+  /**
+   * Constructs a {@code ColumnarBuilder}.
+   */
+  public ColumnarBuilder() {
+    this(false);
+  }
+
+  /**
+   * Constructs a {@code ColumnarBuilder} for a model that stores keyframes as described in
+   * {@link AnimatorModel#AnimatorModel(boolean)}.
+   *
+   * @param compact whether the built model stores keyframes as primitive arrays
+   */
+  public ColumnarBuilder(boolean compact) {
+    this.model = new AnimatorModel(compact);
+    this.model.setInterning(true); // animation files repeat colors and states heavily
+    this.shapeIndex = new HashMap<>();
+    this.shapeIds = new ArrayList<>();
+    this.shapeTypes = new ArrayList<>();
+    this.last = new int[16];
+    this.shapes = new int[INITIAL_CAPACITY];
+    this.ticks = new int[INITIAL_CAPACITY];
+    this.xs = new int[INITIAL_CAPACITY];
+    this.ys = new int[INITIAL_CAPACITY];
+    this.widths = new int[INITIAL_CAPACITY];
+    this.heights = new int[INITIAL_CAPACITY];
+    this.rgbs = new int[INITIAL_CAPACITY];
+    this.count = 0;
+  }
+
+  /**
+   * <p>Fill in the keyframes of every shape, and return the model.</p>
+   *
+   * @return the model
+   * @throws IllegalArgumentException if two keyframes of a shape at the same tick differ
+   */
+  @Override
+  public IAnimatorModel<IModelShape> build() throws IllegalArgumentException {
+    int shapeCount = this.shapeIds.size();
+    // group the keyframes by shape, keeping their order within each shape
+    int[] starts = new int[shapeCount + 1];
+    for (int i = 0; i < this.count; i++) {
+      starts[this.shapes[i] + 1]++;
+    }
+    for (int s = 0; s < shapeCount; s++) {
+      starts[s + 1] += starts[s];
+    }
+    int[] next = Arrays.copyOf(starts, shapeCount);
+    long[] keys = new long[this.count]; // tick in the high half, position in the low half
+    for (int i = 0; i < this.count; i++) {
+      keys[next[this.shapes[i]]++] = (long) this.ticks[i] << 32 | i;
+    }
+
+    for (int s = 0; s < shapeCount; s++) {
+      int from = starts[s];
+      int to = starts[s + 1];
+      if (!isSorted(keys, from, to)) {
+        Arrays.sort(keys, from, to); // by tick, then in the order added
+      }
+      int unique = 0;
+      for (int k = from; k < to; k++) {
+        if (k > from && tick(keys[k]) == tick(keys[k - 1])) {
+          this.checkSameState((int) keys[k - 1], (int) keys[k]);
+        } else {
+          unique++;
+        }
+      }
+      ShapeType type = this.shapeTypes.get(s);
+      KeyFrameTrack track = this.model.appendableTrack(this.shapeIds.get(s), unique);
+      for (int k = from; k < to; k++) {
+        if (k > from && tick(keys[k]) == tick(keys[k - 1])) {
+          continue; // the same keyframe again
+        }
+        int i = (int) keys[k];
+        this.model.appendKeyFrame(track, type, this.ticks[i], this.xs[i], this.ys[i],
+            this.widths[i], this.heights[i], this.rgbs[i]);
+      }
+    }
+    this.model.finishAppending();
+    this.clear(); // building again adds nothing more
+    this.model.setInterning(false);
+    this.model.trimToSize();
+    return this.model;
+  }
+
+  @Override
+  public AnimationBuilder<IAnimatorModel<IModelShape>> setBounds(int x, int y, int width,
+      int height) {
+    this.model.setBounds(x, y, width, height);
+    return this;
+  }
+
+  @Override
+  public AnimationBuilder<IAnimatorModel<IModelShape>> declareShape(String name, String type) {
+    ShapeType shapeType = ShapeType.valueOf(type.toUpperCase(Locale.ROOT));
+    this.model.addShape(name, shapeType);
+    int index = this.shapeIds.size();
+    this.shapeIndex.put(name, index);
+    this.shapeIds.add(name);
+    this.shapeTypes.add(shapeType);
+    if (index == this.last.length) {
+      this.last = Arrays.copyOf(this.last, index * 2);
+    }
+    this.last[index] = -1;
+    return this;
+  }
+
+  @Override
+  public AnimationBuilder<IAnimatorModel<IModelShape>> addMotion(String name, int t1, int x1,
+      int y1, int w1, int h1, int r1, int g1, int b1, int t2, int x2, int y2, int w2, int h2,
+      int r2, int g2, int b2) {
+    // checked in the order adding the keyframes to the model one by one checks them
+    int rgb1 = rgb(r1, g1, b1);
+    int shape = this.check(name, t1, w1, h1);
+    this.add(shape, t1, x1, y1, w1, h1, rgb1);
+    int rgb2 = rgb(r2, g2, b2);
+    this.check(name, t2, w2, h2);
+    this.add(shape, t2, x2, y2, w2, h2, rgb2);
+    return this;
+  }
+
+  /**
+   * <p>Return the index of the shape with the given name, checking a keyframe of it as
+   * {@link AnimatorModel#addKeyFrame} does, but for conflicts with its other keyframes.</p>
+   *
+   * @param name   name of the shape
+   * @param tick   tick of the keyframe
+   * @param width  width of the keyframe
+   * @param height height of the keyframe
+   * @return index of the shape
+   * @throws IllegalArgumentException if there is no such shape, or the tick, width or height
+   *                                  is negative
+   */
+  private int check(String name, int tick, int width, int height)
+      throws IllegalArgumentException {
+    Objects.requireNonNull(name);
+    Integer shape = this.shapeIndex.get(name);
+    if (shape == null) {
+      throw new IllegalArgumentException("Shape with the given ID does not exist!");
+    }
+    if (tick < 0) {
+      throw new IllegalArgumentException("Tick cannot be negative!");
+    }
+    if (width < 0 || height < 0) {
+      throw new IllegalArgumentException("Dimensions cannot be negative!"); // as ModelShape
+    }
+    return shape;
+  }
+
+  /**
+   * <p>Add a keyframe to the columns, unless it is the same as the shape's last keyframe.</p>
+   *
+   * @param shape  index of the shape
+   * @param tick   tick of the keyframe
+   * @param x      x position of the keyframe
+   * @param y      y position of the keyframe
+   * @param width  width of the keyframe
+   * @param height height of the keyframe
+   * @param rgb    color of the keyframe, as {@code 0xRRGGBB}
+   * @throws IllegalArgumentException if the shape's last keyframe is at the same tick, but
+   *                                  differs
+   */
+  private void add(int shape, int tick, int x, int y, int width, int height, int rgb)
+      throws IllegalArgumentException {
+    int previous = this.last[shape];
+    if (previous >= 0 && this.ticks[previous] == tick) {
+      if (this.xs[previous] != x || this.ys[previous] != y || this.widths[previous] != width
+          || this.heights[previous] != height || this.rgbs[previous] != rgb) {
+        throw conflict();
+      }
+      return; // shared with the shape's previous motion, or the start of this one
+    }
+    if (this.count == this.ticks.length) {
+      this.grow();
+    }
+    int i = this.count++;
+    this.shapes[i] = shape;
+    this.ticks[i] = tick;
+    this.xs[i] = x;
+    this.ys[i] = y;
+    this.widths[i] = width;
+    this.heights[i] = height;
+    this.rgbs[i] = rgb;
+    this.last[shape] = i;
+  }
+
+  /**
+   * <p>Check that the keyframes at the given positions in the columns, of the same shape and at
+   * the same tick, are the same.</p>
+   *
+   * @param i position of one keyframe
+   * @param j position of the other
+   * @throws IllegalArgumentException if the keyframes differ
+   */
+  private void checkSameState(int i, int j) throws IllegalArgumentException {
+    if (this.xs[i] != this.xs[j] || this.ys[i] != this.ys[j] || this.widths[i] != this.widths[j]
+        || this.heights[i] != this.heights[j] || this.rgbs[i] != this.rgbs[j]) {
+      throw conflict();
+    }
+  }
+
+  /**
+   * <p>Double the capacity of the columns.</p>
+   */
+  private void grow() {
+    int capacity = this.ticks.length * 2;
+    this.shapes = Arrays.copyOf(this.shapes, capacity);
+    this.ticks = Arrays.copyOf(this.ticks, capacity);
+    this.xs = Arrays.copyOf(this.xs, capacity);
+    this.ys = Arrays.copyOf(this.ys, capacity);
+    this.widths = Arrays.copyOf(this.widths, capacity);
+    this.heights = Arrays.copyOf(this.heights, capacity);
+    this.rgbs = Arrays.copyOf(this.rgbs, capacity);
+  }
+
+  /**
+   * <p>Empty the columns, releasing their storage.</p>
+   */
+  private void clear() {
+    this.count = 0;
+    Arrays.fill(this.last, -1);
+    this.shapes = new int[0];
+    this.ticks = new int[0];
+    this.xs = new int[0];
+    this.ys = new int[0];
+    this.widths = new int[0];
+    this.heights = new int[0];
+    this.rgbs = new int[0];
+  }
+
+  /**
+   * <p>Return the exception thrown for conflicting keyframes, as by
+   * {@link AnimatorModel#addKeyFrame}.</p>
+   *
+   * @return the exception
+   */
+  private static IllegalArgumentException conflict() {
+    return new IllegalArgumentException("New keyframe conflicts with existing keyframe!");
+  }
+
+  /**
+   * <p>Return the given color components packed as {@code 0xRRGGBB}.</p>
+   *
+   * @param red   red component, 0 to 255
+   * @param green green component, 0 to 255
+   * @param blue  blue component, 0 to 255
+   * @return the packed color
+   * @throws IllegalArgumentException if a component is out of range
+   */
+  private static int rgb(int red, int green, int blue) throws IllegalArgumentException {
+    if ((red | green | blue) >>> 8 != 0) {
+      return new Color(red, green, blue).getRGB(); // throws, with the usual message
+    }
+    return red << 16 | green << 8 | blue;
+  }
+
+  /**
+   * <p>Return the tick of the given sort key.</p>
+   *
+   * @param key the key
+   * @return its tick
+   */
+  private static int tick(long key) {
+    return (int) (key >>> 32);
+  }
+
+  /**
+   * <p>Check whether the given range of keys is already sorted.</p>
+   *
+   * @param keys the keys
+   * @param from first position of the range
+   * @param to   position just past the range
+   * @return whether the range is sorted
+   */
+  private static boolean isSorted(long[] keys, int from, int to) {
+    for (int k = from + 1; k < to; k++) {
+      if (keys[k - 1] > keys[k]) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
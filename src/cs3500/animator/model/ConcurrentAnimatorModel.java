@@ -0,0 +1,487 @@
+package cs3500.animator.model;
+
+import cs3500.animator.model.shape.IModelShape;
+import cs3500.animator.model.shape.ShapeType;
+import cs3500.animator.util.AnimationBuilder;
+import java.awt.Color;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * <p>A thread-safe animator model, for many threads reading one animation while others change
+ * it. Reads never wait for, or block, writers: they go to an immutable
+ * {@link AnimatorModel#snapshot() snapshot} of the animation, which is replaced after each change.
+ * Taking a snapshot costs constant time, and happens at most once per change, when the changed
+ * animation is first read; changes themselves are applied one at a time to an
+ * {@link AnimatorModel}. Snapshots share the model's index of which shapes are present when,
+ * which a change to one shape's keyframes updates rather than rebuilds, and the next such change
+ * only copies the map of keyframes, not the shapes or their layering.</p>
+ *
+ * <p>Every read sees the animation either entirely before or entirely after each change. A single
+ * read spanning several calls (the state of a shape, then its keyframes, say) may see changes made
+ * in between; use {@link #snapshot()} to read a consistent animation across calls.</p>
+ *
+ * <p>The animation can also be loaded progressively, by a {@link Builder} on another thread,
+ * while it is being played. The builder publishes a watermark: the last tick up to which the
+ * animation is loaded, so that its frames will not change as the rest is loaded (which it only
+ * knows if the input is ordered). Until loading
+ * finishes, playback goes no further than the watermark ({@link #isNextFrameLoaded()}), and does
+ * not end at the end of what has been loaded so far ({@link #hasNextFrame()}).</p>
+ */
+public class ConcurrentAnimatorModel implements IAnimatorModel<IModelShape> {
+
+  private static final int FULLY_LOADED = Integer.MAX_VALUE;
+
+  private final AnimatorModel model; // only changed or read while holding writeLock
+  private final Object writeLock;
+  // what readers see; null when the model has changed since, until the next read
+  private volatile IReadOnlyAnimatorModel<IModelShape> view;
+  private final Object playbackLock;
+  private int currentTick; // for getNextFrame(), guarded by playbackLock
+  // last tick the animation is loaded up to, or FULLY_LOADED; waited on with loadLock
+  private volatile int loadedTick;
+  private final Object loadLock;
+
+  /**
+   * <p>Constructs an empty {@code ConcurrentAnimatorModel}, with the same defaults as
+   * {@link AnimatorModel#AnimatorModel()}.</p>
+   */
+  public ConcurrentAnimatorModel() {
+    this(false);
+  }
+
+  /**
+   * <p>Constructs an empty {@code ConcurrentAnimatorModel}, choosing how keyframes are stored as
+   * in {@link AnimatorModel#AnimatorModel(boolean)}.</p>
+   *
+   * @param compact whether to store keyframes as primitive arrays
+   */
+  public ConcurrentAnimatorModel(boolean compact) {
+    this.model = new AnimatorModel(compact);
+    this.writeLock = new Object();
+    this.view = null;
+    this.playbackLock = new Object();
+    this.currentTick = 0;
+    this.loadedTick = FULLY_LOADED;
+    this.loadLock = new Object();
+  }
+
+  /**
+   * <p>Return an immutable snapshot of the animation as it is now. Reading the snapshot always
+   * sees the same animation, whatever changes are made to this model later.</p>
+   *
+   * @return an immutable snapshot of the animation
+   */
+  public IReadOnlyAnimatorModel<IModelShape> snapshot() {
+    IReadOnlyAnimatorModel<IModelShape> current = this.view;
+    if (current != null) {
+      return current;
+    }
+    synchronized (this.writeLock) {
+      if (this.view == null) {
+        // index the model itself, rather than each snapshot, so edits to a shape's keyframes
+        // update the index, and snapshots after them share it, instead of rebuilding it
+        this.model.getLifetimes();
+        this.view = this.model.snapshot();
+      }
+      return this.view;
+    }
+  }
+
+  /**
+   * <p>Return the last tick up to which the animation is loaded, while it is being loaded by a
+   * {@link Builder}: the frames up to and including it will not change as the rest is loaded. Is
+   * -1 until the first tick is loaded, and {@link Integer#MAX_VALUE} once loading finishes (or if
+   * the animation was never loaded progressively).</p>
+   *
+   * @return the last tick loaded
+   */
+  public int getLoadedTick() {
+    return this.loadedTick;
+  }
+
+  /**
+   * <p>Check whether the animation is loaded in full.</p>
+   *
+   * @return whether the animation is loaded
+   */
+  public boolean isLoaded() {
+    return this.loadedTick == FULLY_LOADED;
+  }
+
+  /**
+   * <p>Wait until the animation is loaded up to the given tick, or in full.</p>
+   *
+   * @param tick the tick to wait for
+   * @throws InterruptedException if interrupted while waiting
+   */
+  public void awaitLoaded(int tick) throws InterruptedException {
+    synchronized (this.loadLock) {
+      while (this.loadedTick < tick) {
+        this.loadLock.wait();
+      }
+    }
+  }
+
+  /**
+   * <p>Set the last tick up to which the animation is loaded, waking any threads waiting for
+   * it.</p>
+   *
+   * @param tick the last tick loaded, or {@link #FULLY_LOADED}
+   */
+  private void setLoadedTick(int tick) {
+    synchronized (this.loadLock) {
+      this.loadedTick = tick;
+      this.loadLock.notifyAll();
+    }
+  }
+
+  /**
+   * <p>Record that the animation has changed, so readers need a new snapshot. Call while holding
+   * the write lock.</p>
+   */
+  private void changed() {
+    this.view = null;
+  }
+
+  @Override
+  public void addShape(String id, ShapeType type)
+      throws IllegalArgumentException, NullPointerException {
+    synchronized (this.writeLock) {
+      this.model.addShape(id, type);
+      this.changed();
+    }
+  }
+
+  @Override
+  public void addKeyFrame(int tick, String id, double x, double y, double width, double height,
+      Color color) throws IllegalArgumentException, NullPointerException {
+    synchronized (this.writeLock) {
+      this.model.addKeyFrame(tick, id, x, y, width, height, color);
+      this.changed();
+    }
+  }
+
+  @Override
+  public void removeShape(String id) throws IllegalArgumentException {
+    synchronized (this.writeLock) {
+      this.model.removeShape(id);
+      this.changed();
+    }
+  }
+
+  @Override
+  public void removeKeyFrame(int tick, String id) throws IllegalArgumentException {
+    synchronized (this.writeLock) {
+      this.model.removeKeyFrame(tick, id);
+      this.changed();
+    }
+  }
+
+  @Override
+  public void bringToFront(String id) throws IllegalArgumentException {
+    synchronized (this.writeLock) {
+      this.model.bringToFront(id);
+      this.changed();
+    }
+  }
+
+  @Override
+  public void sendToBack(String id) throws IllegalArgumentException {
+    synchronized (this.writeLock) {
+      this.model.sendToBack(id);
+      this.changed();
+    }
+  }
+
+  @Override
+  public void setBounds(int x, int y, int width, int height) throws IllegalArgumentException {
+    synchronized (this.writeLock) {
+      this.model.setBounds(x, y, width, height);
+      this.changed();
+    }
+  }
+
+  @Override
+  public List<IModelShape> getFrame(int tick) throws IllegalArgumentException {
+    return this.snapshot().getFrame(tick);
+  }
+
+  @Override
+  public Stream<List<IModelShape>> getFrames(int from, int to) throws IllegalArgumentException {
+    return this.snapshot().getFrames(from, to);
+  }
+
+  /**
+   * <p>Get the frame at the next tick, as {@link AnimatorModel#getNextFrame()} does.</p>
+   *
+   * @return the state of the animation at the next tick
+   * @throws IllegalStateException if there is no next frame, or it is not loaded yet
+   */
+  @Override
+  public List<IModelShape> getNextFrame() throws IllegalStateException {
+    synchronized (this.playbackLock) {
+      int loaded = this.loadedTick; // before the snapshot, which has at least what was loaded
+      IReadOnlyAnimatorModel<IModelShape> current = this.snapshot();
+      if (!this.hasNextFrame(loaded, current)) {
+        throw new IllegalStateException("Animation does not have a next frame!");
+      }
+      if (!this.isNextFrameLoaded(loaded, current)) {
+        throw new IllegalStateException("Next frame is not loaded yet!");
+      }
+      return current.getFrame(this.currentTick++); // get frame, then increment tick
+    }
+  }
+
+  @Override
+  public List<IModelShape> getNextKeyFrame() throws IllegalArgumentException {
+    synchronized (this.playbackLock) {
+      int loaded = this.loadedTick;
+      IReadOnlyAnimatorModel<IModelShape> current = this.snapshot();
+      List<IModelShape> result = current.getFrame(this.currentTick);
+      int nextKeyTick = current.getEndTick();
+      for (String id : current.getShapeIds()) {
+        int temp = current.findNextKeyFrame(this.currentTick, id);
+        if (temp < nextKeyTick) {
+          // next key tick is the next tick that is later than the current tick
+          nextKeyTick = temp;
+        }
+      }
+      if (loaded != FULLY_LOADED) {
+        // a keyframe still to be loaded may come first
+        nextKeyTick = Math.min(nextKeyTick, loaded + 1);
+      }
+      this.currentTick = nextKeyTick;
+      return result;
+    }
+  }
+
+  /**
+   * <p>Check whether there is another frame to render. While the animation is being loaded, there
+   * always is, although it may not be loaded yet.</p>
+   *
+   * @return whether there is another frame to render
+   */
+  @Override
+  public boolean hasNextFrame() {
+    synchronized (this.playbackLock) {
+      int loaded = this.loadedTick;
+      return this.hasNextFrame(loaded, this.snapshot());
+    }
+  }
+
+  @Override
+  public boolean isNextFrameLoaded() {
+    synchronized (this.playbackLock) {
+      int loaded = this.loadedTick;
+      return this.isNextFrameLoaded(loaded, this.snapshot());
+    }
+  }
+
+  /**
+   * <p>Check whether the given snapshot has a frame at the current tick, or will have once loaded.
+   * Call while holding the playback lock.</p>
+   *
+   * @param loaded  the last tick loaded, read before taking the snapshot
+   * @param current a snapshot of the animation
+   * @return whether there is another frame to render
+   */
+  private boolean hasNextFrame(int loaded, IReadOnlyAnimatorModel<IModelShape> current) {
+    return this.currentTick >= 0
+        && (this.currentTick <= current.getEndTick() || loaded != FULLY_LOADED);
+  }
+
+  /**
+   * <p>Check whether the frame at the current tick in the given snapshot is loaded. Call while
+   * holding the playback lock.</p>
+   *
+   * @param loaded  the last tick loaded, read before taking the snapshot
+   * @param current a snapshot of the animation
+   * @return whether the next frame is loaded
+   */
+  private boolean isNextFrameLoaded(int loaded, IReadOnlyAnimatorModel<IModelShape> current) {
+    return loaded == FULLY_LOADED
+        || (this.currentTick <= loaded && this.currentTick <= current.getEndTick());
+  }
+
+  @Override
+  public void reset() {
+    synchronized (this.playbackLock) {
+      this.currentTick = 0;
+    }
+  }
+
+  @Override
+  public int getStartTick() {
+    return this.snapshot().getStartTick();
+  }
+
+  @Override
+  public int getEndTick() {
+    return this.snapshot().getEndTick();
+  }
+
+  @Override
+  public List<String> getShapeIds() {
+    return this.snapshot().getShapeIds();
+  }
+
+  @Override
+  public ShapeType getShapeType(String shapeId)
+      throws IllegalArgumentException, NullPointerException {
+    return this.snapshot().getShapeType(shapeId);
+  }
+
+  @Override
+  public Map<String, ShapeType> getShapes() {
+    return this.snapshot().getShapes();
+  }
+
+  @Override
+  public Map<Integer, IModelShape> getKeyFrames(String shapeId)
+      throws IllegalArgumentException, NullPointerException {
+    return this.snapshot().getKeyFrames(shapeId);
+  }
+
+  @Override
+  public int findPrevKeyFrame(int tick, String shapeId) throws IllegalArgumentException {
+    return this.snapshot().findPrevKeyFrame(tick, shapeId);
+  }
+
+  @Override
+  public int findNextKeyFrame(int tick, String shapeId) throws IllegalArgumentException {
+    return this.snapshot().findNextKeyFrame(tick, shapeId);
+  }
+
+  @Override
+  public int getX() {
+    return this.snapshot().getX();
+  }
+
+  @Override
+  public int getY() {
+    return this.snapshot().getY();
+  }
+
+  @Override
+  public int getWidth() {
+    return this.snapshot().getWidth();
+  }
+
+  @Override
+  public int getHeight() {
+    return this.snapshot().getHeight();
+  }
+
+  @Override
+  public String toString() {
+    return this.snapshot().toString();
+  }
+
+  /**
+   * <p>Loads an animation progressively into a given {@link ConcurrentAnimatorModel}, which can
+   * be played on other threads while it is being loaded. {@link #build()} finishes loading.</p>
+   *
+   * <p>Frames can only be played before then if the input is known to be ordered, as a
+   * {@link MotionOrder} checks: its motions listed in order of their start ticks, and each motion
+   * of a shape starting at the shape's last keyframe. Then, after each motion, no motion still
+   * to come can change a frame before its start, so the model is loaded up to the tick before it.
+   * Otherwise any motion may still change any frame, so nothing is marked as loaded until loading
+   * finishes, and playback waits for all of it, as if it were loaded in full first.</p>
+   *
+   * <p>Colors and states are interned while loading, as in {@link AnimatorModel.Builder}.</p>
+   */
+  public static final class Builder implements AnimationBuilder<IAnimatorModel<IModelShape>> {
+
+    private final ConcurrentAnimatorModel model;
+    private final MotionOrder order; // null unless the input is known to be ordered
+
+    /**
+     * <p>Constructs a {@code Builder} loading input in any order into the given model, which is
+     * marked as not loaded until {@link #build()} is called. The model should be empty.</p>
+     *
+     * @param model the model to load into
+     */
+    public Builder(ConcurrentAnimatorModel model) {
+      this(model, false);
+    }
+
+    /**
+     * <p>Constructs a {@code Builder} loading into the given model, which is marked as loaded
+     * only up to the start of the last motion until {@link #build()} is called if the input is
+     * ordered, and as not loaded at all otherwise. The model should be empty.</p>
+     *
+     * <p>Should a motion turn out to be out of order after all, the watermark stays where it is
+     * until loading finishes, and the rest is still loaded; but frames played before then may be
+     * missing what that motion changes. So only say the input is ordered if it has been checked
+     * to be, with a {@link MotionOrder}.</p>
+     *
+     * @param model   the model to load into
+     * @param ordered whether the input is ordered, as described above
+     */
+    public Builder(ConcurrentAnimatorModel model, boolean ordered) {
+      this.model = Objects.requireNonNull(model);
+      this.order = ordered ? new MotionOrder() : null;
+      synchronized (model.writeLock) {
+        model.model.setInterning(true);
+      }
+      model.setLoadedTick(-1);
+    }
+
+    /**
+     * <p>Finish loading: the model is marked as loaded in full, even if the input was cut short by
+     * an error, so that playback does not wait for it forever.</p>
+     *
+     * @return the model
+     */
+    @Override
+    public IAnimatorModel<IModelShape> build() {
+      synchronized (this.model.writeLock) {
+        this.model.model.setInterning(false);
+        this.model.model.trimToSize();
+        this.model.changed();
+      }
+      this.model.setLoadedTick(FULLY_LOADED);
+      return this.model;
+    }
+
+    @Override
+    public AnimationBuilder<IAnimatorModel<IModelShape>> setBounds(int x, int y, int width,
+        int height) {
+      this.model.setBounds(x, y, width, height);
+      return this;
+    }
+
+    @Override
+    public AnimationBuilder<IAnimatorModel<IModelShape>> declareShape(String name, String type) {
+      this.model.addShape(name, ShapeType.valueOf(type.toUpperCase(Locale.ROOT)));
+      return this;
+    }
+
+    /**
+     * <p>Add a motion to the model, marking it as loaded up to the tick before the motion starts
+     * while the input is ordered.</p>
+     */
+    @Override
+    public AnimationBuilder<IAnimatorModel<IModelShape>> addMotion(String name, int t1, int x1,
+        int y1, int w1, int h1, int r1, int g1, int b1, int t2, int x2, int y2, int w2, int h2,
+        int r2, int g2, int b2) {
+      synchronized (this.model.writeLock) {
+        AnimatorModel target = this.model.model;
+        target.addKeyFrame(t1, name, x1, y1, w1, h1, target.color(r1, g1, b1));
+        target.addKeyFrame(t2, name, x2, y2, w2, h2, target.color(r2, g2, b2));
+        this.model.changed();
+      }
+      if (this.order != null && this.order.add(name, t1, t2)) {
+        if (t1 - 1 > this.model.loadedTick) {
+          // no motion still to come changes a frame before this one's start
+          this.model.setLoadedTick(t1 - 1);
+        }
+      }
+      return this;
+    }
+  }
+}
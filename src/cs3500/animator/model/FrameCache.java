@@ -0,0 +1,161 @@
+package cs3500.animator.model;
+
+import cs3500.animator.model.shape.IModelShape;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * <p>A size-bounded cache of computed frames, keyed by tick. When either the number of frames or
+ * their estimated memory exceeds its limit, the least recently used frames are evicted first.
+ * Counts hits and misses so that the limits can be tuned for a particular animation.</p>
+ *
+ * <p>Install one on a model with {@link AnimatorModel#setFrameCache(FrameCache)}; the model
+ * clears it whenever the animation changes.</p>
+ */
+public class FrameCache {
+
+  // rough heap cost of one cached shape: the shape, its color, and its slot in the frame's list
+  static final long BYTES_PER_SHAPE = 96;
+  // rough heap cost of an empty cached frame: its list and its entry in the cache
+  static final long BYTES_PER_FRAME = 80;
+
+  private final int maxFrames;
+  private final long maxBytes;
+  private final LinkedHashMap<Integer, List<IModelShape>> frames; // in access order
+  private long bytes;
+  private long hits;
+  private long misses;
+
+  /**
+   * <p>Constructs an empty {@code FrameCache}.</p>
+   *
+   * @param maxFrames the most frames to keep
+   * @param maxBytes  the most memory, in bytes, the kept frames may use (estimated)
+   * @throws IllegalArgumentException if either limit is not positive
+   */
+  public FrameCache(int maxFrames, long maxBytes) throws IllegalArgumentException {
+    if (maxFrames <= 0 || maxBytes <= 0) {
+      throw new IllegalArgumentException("Cache limits must be positive!");
+    }
+    this.maxFrames = maxFrames;
+    this.maxBytes = maxBytes;
+    this.frames = new LinkedHashMap<>(16, 0.75f, true);
+    this.bytes = 0;
+    this.hits = 0;
+    this.misses = 0;
+  }
+
+  /**
+   * <p>Return a copy of the cached frame at the given tick, or {@code null} if it is not cached.
+   * Counts as a hit or a miss respectively.</p>
+   *
+   * @param tick tick of the frame
+   * @return the cached frame, or {@code null}
+   */
+  public List<IModelShape> get(int tick) {
+    List<IModelShape> frame = this.frames.get(tick);
+    if (frame == null) {
+      this.misses++;
+      return null;
+    }
+    this.hits++;
+    return new ArrayList<>(frame); // shapes are immutable, but the list must not be shared
+  }
+
+  /**
+   * <p>Cache the frame at the given tick, evicting the least recently used frames as needed to
+   * stay within the limits. A frame that alone exceeds the memory limit is not cached.</p>
+   *
+   * @param tick  tick of the frame
+   * @param frame the frame
+   */
+  public void put(int tick, List<IModelShape> frame) {
+    Objects.requireNonNull(frame);
+    long frameBytes = estimateBytes(frame);
+    if (frameBytes > this.maxBytes) {
+      return;
+    }
+    List<IModelShape> previous = this.frames.put(tick, new ArrayList<>(frame));
+    if (previous != null) {
+      this.bytes -= estimateBytes(previous);
+    }
+    this.bytes += frameBytes;
+
+    Iterator<List<IModelShape>> eldest = this.frames.values().iterator();
+    while (this.frames.size() > this.maxFrames || this.bytes > this.maxBytes) {
+      this.bytes -= estimateBytes(eldest.next());
+      eldest.remove();
+    }
+  }
+
+  /**
+   * <p>Remove every cached frame. The hit and miss counts are kept.</p>
+   */
+  public void clear() {
+    this.frames.clear();
+    this.bytes = 0;
+  }
+
+  /**
+   * <p>Return the number of frames currently cached.</p>
+   *
+   * @return the number of frames currently cached
+   */
+  public int size() {
+    return this.frames.size();
+  }
+
+  /**
+   * <p>Return the estimated memory used by the cached frames, in bytes.</p>
+   *
+   * @return the estimated memory used by the cached frames
+   */
+  public long getBytes() {
+    return this.bytes;
+  }
+
+  /**
+   * <p>Return the number of lookups that found a cached frame.</p>
+   *
+   * @return the number of cache hits
+   */
+  public long getHits() {
+    return this.hits;
+  }
+
+  /**
+   * <p>Return the number of lookups that did not find a cached frame.</p>
+   *
+   * @return the number of cache misses
+   */
+  public long getMisses() {
+    return this.misses;
+  }
+
+  /**
+   * <p>Reset the hit and miss counts to zero.</p>
+   */
+  public void resetStatistics() {
+    this.hits = 0;
+    this.misses = 0;
+  }
+
+  /**
+   * <p>Estimate the memory used by a cached frame.</p>
+   *
+   * @param frame the frame
+   * @return the estimated memory used by the frame, in bytes
+   */
+  private static long estimateBytes(List<IModelShape> frame) {
+    return BYTES_PER_FRAME + BYTES_PER_SHAPE * frame.size();
+  }
+
+  @Override
+  public String toString() {
+    return String.format("%d frames (%d bytes), %d hits, %d misses",
+        this.frames.size(), this.bytes, this.hits, this.misses);
+  }
+}
@@ -4,6 +4,8 @@ import cs3500.animator.model.shape.IModelShape;
 import cs3500.animator.model.shape.ShapeType;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 /**
  * <p>The model for an animator program. Maintains the state and enforces the rules
@@ -23,6 +25,24 @@ public interface IReadOnlyAnimatorModel<S> {
    */
   List<S> getFrame(int tick) throws IllegalArgumentException;
 
+  /**
+   * <p>Get the frames of this animation from tick {@code from} to tick {@code to}, both
+   * inclusive, in order, as {@link #getFrame(int)} would return them. Frames are computed lazily,
+   * as the stream is consumed, and the playback position used by {@link #getNextFrame()} is left
+   * untouched. The animation must not be changed while the stream is being consumed.</p>
+   *
+   * @param from first tick of the range
+   * @param to   last tick of the range
+   * @return the frames of the animation at every tick of the range
+   * @throws IllegalArgumentException if the range is empty or out of range
+   */
+  default Stream<List<S>> getFrames(int from, int to) throws IllegalArgumentException {
+    if (from < 0 || from > to || to > this.getEndTick()) {
+      throw new IllegalArgumentException("Tick range is invalid!");
+    }
+    return IntStream.rangeClosed(from, to).mapToObj(this::getFrame);
+  }
+
   /**
    * <p>Get a representation of this animation at the next tick. Returns a list of shapes in their
    * correct states for the given tick. The list ordered according to the ordering of the shapes on
@@ -52,6 +72,17 @@ public interface IReadOnlyAnimatorModel<S> {
    */
   boolean hasNextFrame();
 
+  /**
+   * <p>Check whether the next frame is ready to render: whether the animation has been loaded up
+   * to it, for an animation that is still being loaded as it plays. Playback waits while it is
+   * not. An animation that is not loaded progressively always is.</p>
+   *
+   * @return whether the next frame is loaded
+   */
+  default boolean isNextFrameLoaded() {
+    return true;
+  }
+
   /**
    * <p>Resets the internal tick counter of the model to 0, effectively rewinding the animation
    * playback to the beginning.</p>
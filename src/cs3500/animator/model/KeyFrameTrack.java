@@ -0,0 +1,402 @@
+package cs3500.animator.model;
+
+import cs3500.animator.model.shape.IModelShape;
+import java.awt.Color;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * <p>The keyframes of a single shape, kept sorted by tick. Ticks are stored in a primitive array
+ * so that looking up a keyframe, or the keyframes surrounding a tick, is a binary search. How the
+ * state of each keyframe is stored is up to the concrete class.</p>
+ */
+abstract class KeyFrameTrack {
+
+  protected static final int INITIAL_CAPACITY = 4;
+
+  private final int generation; // of the model that may change this track; see copy(int)
+  private int[] ticks; // sorted, strictly increasing
+  private int size;
+
+  /**
+   * <p>Constructs an empty {@code KeyFrameTrack}.</p>
+   *
+   * @param generation generation of the model the track belongs to
+   */
+  protected KeyFrameTrack(int generation) {
+    this.generation = generation;
+    this.ticks = new int[INITIAL_CAPACITY];
+    this.size = 0;
+  }
+
+  /**
+   * <p>Constructs a {@code KeyFrameTrack} with the same ticks as the given one. The concrete
+   * class copies the states.</p>
+   *
+   * @param other      the track to copy
+   * @param generation generation of the model the copy belongs to
+   */
+  protected KeyFrameTrack(KeyFrameTrack other, int generation) {
+    this.generation = generation;
+    this.ticks = other.ticks.clone();
+    this.size = other.size;
+  }
+
+  /**
+   * <p>Return the generation of the model this track belongs to. A model only changes tracks of
+   * its current generation; it starts a new generation whenever it shares its tracks with a
+   * snapshot, and copies an older track before its first change to it.</p>
+   *
+   * @return the generation of this track
+   */
+  int generation() {
+    return this.generation;
+  }
+
+  /**
+   * <p>Return an independent copy of this track, belonging to the given generation.</p>
+   *
+   * @param generation generation of the model the copy belongs to
+   * @return a copy of this track
+   */
+  abstract KeyFrameTrack copy(int generation);
+
+  /**
+   * <p>Return the number of keyframes in this track.</p>
+   *
+   * @return the number of keyframes in this track
+   */
+  int size() {
+    return this.size;
+  }
+
+  /**
+   * <p>Return the tick of the keyframe at the given position in the track.</p>
+   *
+   * @param index position of the keyframe, 0 being the earliest
+   * @return the tick of the keyframe
+   */
+  int tickAt(int index) {
+    return this.ticks[index];
+  }
+
+  /**
+   * <p>Return the keyframe at the given position in the track.</p>
+   *
+   * @param index position of the keyframe, 0 being the earliest
+   * @return the keyframe
+   */
+  abstract IModelShape stateAt(int index);
+
+  /**
+   * <p>Return the x position of the keyframe at the given position in the track.</p>
+   *
+   * @param index position of the keyframe
+   * @return the x position of the keyframe
+   */
+  abstract double xAt(int index);
+
+  /**
+   * <p>Return the y position of the keyframe at the given position in the track.</p>
+   *
+   * @param index position of the keyframe
+   * @return the y position of the keyframe
+   */
+  abstract double yAt(int index);
+
+  /**
+   * <p>Return the width of the keyframe at the given position in the track.</p>
+   *
+   * @param index position of the keyframe
+   * @return the width of the keyframe
+   */
+  abstract double widthAt(int index);
+
+  /**
+   * <p>Return the height of the keyframe at the given position in the track.</p>
+   *
+   * @param index position of the keyframe
+   * @return the height of the keyframe
+   */
+  abstract double heightAt(int index);
+
+  /**
+   * <p>Return the color of the keyframe at the given position in the track, packed as in
+   * {@link Color#getRGB()}.</p>
+   *
+   * @param index position of the keyframe
+   * @return the packed ARGB color of the keyframe
+   */
+  abstract int argbAt(int index);
+
+  /**
+   * <p>Return the color of the keyframe at the given position in the track.</p>
+   *
+   * @param index position of the keyframe
+   * @return the color of the keyframe
+   */
+  abstract Color colorAt(int index);
+
+  /**
+   * <p>Check whether the keyframe at the given position holds the same state as the given one.
+   * Compares the same fields as {@link cs3500.animator.model.shape.ModelShape#equals}, without
+   * building a shape for the stored keyframe.</p>
+   *
+   * @param index position of the keyframe
+   * @param state the state to compare against
+   * @return whether the two states are equal
+   */
+  boolean stateEquals(int index, IModelShape state) {
+    return this.xAt(index) == state.getX()
+        && this.yAt(index) == state.getY()
+        && this.widthAt(index) == state.getWidth()
+        && this.heightAt(index) == state.getHeight()
+        && this.argbAt(index) == state.getColor().getRGB();
+  }
+
+  /**
+   * <p>Store the given state at the given position of the track's state storage.</p>
+   *
+   * @param index position to store at
+   * @param state the state to store
+   */
+  protected abstract void setState(int index, IModelShape state);
+
+  /**
+   * <p>Resize the track's state storage to the given capacity, keeping its contents up to the
+   * size of the track.</p>
+   *
+   * @param capacity new capacity of the storage
+   */
+  protected abstract void resizeStates(int capacity);
+
+  /**
+   * <p>Move {@code length} states of the track's storage from position {@code from} to position
+   * {@code to}, as in {@link System#arraycopy}.</p>
+   *
+   * @param from   first position to move from
+   * @param to     first position to move to
+   * @param length number of states to move
+   */
+  protected abstract void moveStates(int from, int to, int length);
+
+  /**
+   * <p>Release whatever is stored at the given (now unused) position of the state storage.</p>
+   *
+   * @param index position to clear
+   */
+  protected abstract void clearState(int index);
+
+  /**
+   * <p>Search for the keyframe at the given tick. Follows the contract of
+   * {@link Arrays#binarySearch(int[], int, int, int)}: returns the position of the keyframe if
+   * there is one, otherwise {@code -(insertion point) - 1}.</p>
+   *
+   * @param tick tick to search for
+   * @return the position of the keyframe, or a negative value encoding where it would go
+   */
+  int indexOf(int tick) {
+    return Arrays.binarySearch(this.ticks, 0, this.size, tick);
+  }
+
+  /**
+   * <p>Return the keyframe at the given tick, or {@code null} if there is none.</p>
+   *
+   * @param tick tick of the keyframe
+   * @return the keyframe at the given tick, or {@code null}
+   */
+  IModelShape get(int tick) {
+    int index = this.indexOf(tick);
+    return index >= 0 ? this.stateAt(index) : null;
+  }
+
+  /**
+   * <p>Return the tick of the last keyframe strictly before the given tick, or -1 if none.</p>
+   *
+   * @param tick the tick to search from
+   * @return the tick of the previous keyframe, or -1
+   */
+  int prevTick(int tick) {
+    int index = this.indexOf(tick);
+    int prev = (index >= 0 ? index : -index - 1) - 1;
+    return prev >= 0 ? this.ticks[prev] : -1;
+  }
+
+  /**
+   * <p>Return the tick of the first keyframe strictly after the given tick, or -1 if none.</p>
+   *
+   * @param tick the tick to search from
+   * @return the tick of the next keyframe, or -1
+   */
+  int nextTick(int tick) {
+    int index = this.indexOf(tick);
+    int next = index >= 0 ? index + 1 : -index - 1;
+    return next < this.size ? this.ticks[next] : -1;
+  }
+
+  /**
+   * <p>Put a keyframe in this track, replacing any existing keyframe at the same tick.</p>
+   *
+   * @param tick  tick of the keyframe
+   * @param state the keyframe
+   */
+  void put(int tick, IModelShape state) {
+    Objects.requireNonNull(state);
+    int index = this.indexOf(tick);
+    if (index >= 0) {
+      this.setState(index, state);
+      return;
+    }
+    int insertAt = -index - 1;
+    if (this.size == this.ticks.length) {
+      int capacity = Math.max(INITIAL_CAPACITY, this.ticks.length * 2);
+      this.ticks = Arrays.copyOf(this.ticks, capacity);
+      this.resizeStates(capacity);
+    }
+    System.arraycopy(this.ticks, insertAt, this.ticks, insertAt + 1, this.size - insertAt);
+    this.moveStates(insertAt, insertAt + 1, this.size - insertAt);
+    this.ticks[insertAt] = tick;
+    this.setState(insertAt, state);
+    this.size++;
+  }
+
+  /**
+   * <p>Add a keyframe after every other one in this track, without searching for its place, for
+   * loading keyframes that are already sorted. Its tick must be later than every tick in the
+   * track.</p>
+   *
+   * @param tick  tick of the keyframe
+   * @param state the keyframe
+   */
+  void append(int tick, IModelShape state) {
+    Objects.requireNonNull(state);
+    this.setState(this.appendTick(tick), state);
+  }
+
+  /**
+   * <p>Add the given tick after every other one in this track, growing the storage if it is full,
+   * and return the position its state is to be stored at.</p>
+   *
+   * @param tick tick of the keyframe, later than every tick in the track
+   * @return position of the new keyframe
+   */
+  protected int appendTick(int tick) {
+    if (this.size == this.ticks.length) {
+      this.ensureCapacity(Math.max(INITIAL_CAPACITY, this.ticks.length * 2));
+    }
+    this.ticks[this.size] = tick;
+    return this.size++;
+  }
+
+  /**
+   * <p>Grow this track's storage to hold at least the given number of keyframes, so that adding
+   * up to that many does not grow it again.</p>
+   *
+   * @param capacity number of keyframes to make room for
+   */
+  void ensureCapacity(int capacity) {
+    if (this.ticks.length < capacity) {
+      this.ticks = Arrays.copyOf(this.ticks, capacity);
+      this.resizeStates(capacity);
+    }
+  }
+
+  /**
+   * <p>Remove the keyframe at the given tick.</p>
+   *
+   * @param tick tick of the keyframe
+   * @return whether a keyframe was removed
+   */
+  boolean remove(int tick) {
+    int index = this.indexOf(tick);
+    if (index < 0) {
+      return false;
+    }
+    int tail = this.size - index - 1;
+    System.arraycopy(this.ticks, index + 1, this.ticks, index, tail);
+    this.moveStates(index + 1, index, tail);
+    this.size--;
+    this.clearState(this.size);
+    return true;
+  }
+
+  /**
+   * <p>Shrink this track's storage to exactly fit its keyframes. Useful once a track is done
+   * being built, since storage otherwise grows in doubling steps.</p>
+   */
+  void trimToSize() {
+    if (this.ticks.length > this.size) {
+      this.ticks = Arrays.copyOf(this.ticks, this.size);
+      this.resizeStates(this.size);
+    }
+  }
+
+  /**
+   * <p>Return a read-only view of this track as a map from ticks to keyframes. The view iterates
+   * in tick order, and its lookups are binary searches into this track.</p>
+   *
+   * @return a read-only map view of this track
+   */
+  Map<Integer, IModelShape> asMap() {
+    return new MapView();
+  }
+
+  /**
+   * A read-only, tick-ordered map view of the enclosing track.
+   */
+  private final class MapView extends AbstractMap<Integer, IModelShape> {
+
+    @Override
+    public IModelShape get(Object key) {
+      return key instanceof Integer ? KeyFrameTrack.this.get((Integer) key) : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+      return key instanceof Integer && KeyFrameTrack.this.indexOf((Integer) key) >= 0;
+    }
+
+    @Override
+    public int size() {
+      return KeyFrameTrack.this.size;
+    }
+
+    @Override
+    public Set<Entry<Integer, IModelShape>> entrySet() {
+      return new AbstractSet<Entry<Integer, IModelShape>>() {
+        @Override
+        public Iterator<Entry<Integer, IModelShape>> iterator() {
+          return new Iterator<Entry<Integer, IModelShape>>() {
+            private int next = 0;
+
+            @Override
+            public boolean hasNext() {
+              return this.next < KeyFrameTrack.this.size;
+            }
+
+            @Override
+            public Entry<Integer, IModelShape> next() {
+              if (!this.hasNext()) {
+                throw new NoSuchElementException();
+              }
+              int index = this.next++;
+              return new SimpleImmutableEntry<>(
+                  KeyFrameTrack.this.ticks[index], KeyFrameTrack.this.stateAt(index));
+            }
+          };
+        }
+
+        @Override
+        public int size() {
+          return KeyFrameTrack.this.size;
+        }
+      };
+    }
+  }
+}
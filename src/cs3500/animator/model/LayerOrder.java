@@ -0,0 +1,129 @@
+package cs3500.animator.model;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * <p>The order in which shapes are layered on top of each other, bottommost first. Each shape is
+ * given a numeric key, and shapes are ordered by key: moving a shape to the front gives it a key
+ * above every other, and moving it to the back gives it one below every other. Adding, removing
+ * and moving a shape to the front or back therefore take logarithmic time, however many shapes
+ * there are, rather than shifting every shape above it in a list.</p>
+ */
+final class LayerOrder {
+
+  private final TreeMap<Long, String> byKey; // the layering order, bottommost first
+  private final Map<String, Long> keys; // key of every shape
+
+  /**
+   * <p>Constructs an empty {@code LayerOrder}.</p>
+   */
+  LayerOrder() {
+    this.byKey = new TreeMap<>();
+    this.keys = new HashMap<>();
+  }
+
+  /**
+   * <p>Constructs a copy of the given {@code LayerOrder}.</p>
+   *
+   * @param other the order to copy
+   */
+  LayerOrder(LayerOrder other) {
+    this.byKey = new TreeMap<>(other.byKey);
+    this.keys = new HashMap<>(other.keys);
+  }
+
+  /**
+   * <p>Return the number of shapes in this order.</p>
+   *
+   * @return the number of shapes in this order
+   */
+  int size() {
+    return this.keys.size();
+  }
+
+  /**
+   * <p>Check whether the given shape is in this order.</p>
+   *
+   * @param id ID of a shape
+   * @return whether the shape is in this order
+   */
+  boolean contains(String id) {
+    return this.keys.containsKey(id);
+  }
+
+  /**
+   * <p>Put the given shape on top of every other shape, adding it if it is not already in this
+   * order.</p>
+   *
+   * @param id ID of the shape
+   */
+  void toFront(String id) {
+    Objects.requireNonNull(id);
+    this.remove(id);
+    this.place(id, this.byKey.isEmpty() ? 0 : this.byKey.lastKey() + 1);
+  }
+
+  /**
+   * <p>Put the given shape underneath every other shape, adding it if it is not already in this
+   * order.</p>
+   *
+   * @param id ID of the shape
+   */
+  void toBack(String id) {
+    Objects.requireNonNull(id);
+    this.remove(id);
+    this.place(id, this.byKey.isEmpty() ? 0 : this.byKey.firstKey() - 1);
+  }
+
+  /**
+   * <p>Remove the given shape from this order, if it is in it.</p>
+   *
+   * @param id ID of the shape
+   * @return whether the shape was removed
+   */
+  boolean remove(String id) {
+    Long key = this.keys.remove(id);
+    if (key == null) {
+      return false;
+    }
+    this.byKey.remove(key);
+    return true;
+  }
+
+  /**
+   * <p>Return the shapes in this order, bottommost first. The collection is a live, read-only
+   * view.</p>
+   *
+   * @return the IDs of the shapes, bottommost first
+   */
+  Collection<String> inOrder() {
+    return Collections.unmodifiableCollection(this.byKey.values());
+  }
+
+  /**
+   * <p>Return a copy of the shapes in this order, bottommost first.</p>
+   *
+   * @return a new list of the IDs of the shapes, bottommost first
+   */
+  List<String> toList() {
+    return new ArrayList<>(this.byKey.values());
+  }
+
+  /**
+   * <p>Give the given shape, which is not in this order, the given key.</p>
+   *
+   * @param id  ID of the shape
+   * @param key key above or below every other
+   */
+  private void place(String id, long key) {
+    this.byKey.put(key, id);
+    this.keys.put(id, key);
+  }
+}
@@ -0,0 +1,350 @@
+package cs3500.animator.model;
+
+import cs3500.animator.model.shape.ShapeType;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * <p>An index over the lifetimes of the shapes in an animation, where a shape's lifetime runs
+ * from its first keyframe to its last. Answers "which shapes are present at this tick" by
+ * visiting only those shapes, rather than every shape in the animation.</p>
+ *
+ * <p>Shapes are identified by their layer rank: their position in the layering order at the time
+ * the index was built (0 is the bottommost). Queries return ranks in ascending order, so shapes
+ * come out in layering order. The index is a snapshot; it must be rebuilt when the animation's
+ * shapes or layering change.</p>
+ *
+ * <p>When just one shape's keyframes change, {@link #withTrack} derives a new index from this one
+ * instead, sharing its tree: the tree still holds the shape's old lifetime, so queries skip the
+ * shapes changed since the tree was built, and check each of them directly. Once so many have
+ * changed that this costs more than it saves, the index must be rebuilt.</p>
+ */
+final class LifetimeIndex {
+
+  private static final int MIN_CHANGED = 16; // shapes that may change before rebuilding, at least
+
+  private final String[] ids; // by layer rank
+  private final Map<String, Integer> ranks; // layer rank of each shape
+  private final KeyFrameTrack[] tracks; // by layer rank
+  private final ShapeType[] types; // by layer rank
+  // centered interval tree over lifetimes as they were when it was built, null if none had any
+  private final Node root;
+  private final int[] changed; // ranks of shapes whose keyframes changed since then, ascending
+
+  /**
+   * <p>Build an index over the given shapes.</p>
+   *
+   * @param layers    shape IDs in layering order
+   * @param keyframes keyframes of every shape
+   * @param shapes    type of every shape
+   */
+  LifetimeIndex(Collection<String> layers, Map<String, KeyFrameTrack> keyframes,
+      Map<String, ShapeType> shapes) {
+    int count = layers.size();
+    this.ids = layers.toArray(new String[0]);
+    this.ranks = new HashMap<>();
+    this.tracks = new KeyFrameTrack[count];
+    this.types = new ShapeType[count];
+    this.changed = new int[0];
+
+    int[] present = new int[count]; // ranks of shapes with at least one keyframe
+    int presentCount = 0;
+    for (int rank = 0; rank < count; rank++) {
+      this.ranks.put(this.ids[rank], rank);
+      this.tracks[rank] = keyframes.get(this.ids[rank]);
+      this.types[rank] = shapes.get(this.ids[rank]);
+      if (this.tracks[rank].size() > 0) {
+        present[presentCount++] = rank;
+      }
+    }
+    this.root = this.build(Arrays.copyOf(present, presentCount));
+  }
+
+  /**
+   * <p>Constructs an index sharing the given one's tree, with the given keyframes.</p>
+   *
+   * @param source  the index to share the tree of
+   * @param tracks  keyframes of every shape, by layer rank
+   * @param changed ranks of the shapes whose keyframes changed since the tree was built
+   */
+  private LifetimeIndex(LifetimeIndex source, KeyFrameTrack[] tracks, int[] changed) {
+    this.ids = source.ids;
+    this.ranks = source.ranks;
+    this.tracks = tracks;
+    this.types = source.types;
+    this.root = source.root;
+    this.changed = changed;
+  }
+
+  /**
+   * <p>Return an index like this one, but with the given keyframes for the given shape, in time
+   * linear in the number of shapes but without rebuilding the tree. Returns {@code null} if so
+   * many shapes have changed since the tree was built that the index should be rebuilt
+   * instead.</p>
+   *
+   * @param id    ID of an indexed shape
+   * @param track the shape's keyframes now
+   * @return the updated index, or {@code null} if it should be rebuilt
+   */
+  LifetimeIndex withTrack(String id, KeyFrameTrack track) {
+    int rank = this.ranks.get(id);
+    int[] changed = this.changed;
+    int at = Arrays.binarySearch(changed, rank);
+    if (at < 0) {
+      if (changed.length >= Math.max(MIN_CHANGED, this.ids.length >> 5)) {
+        return null; // checking them all at every query would cost more than rebuilding
+      }
+      at = -at - 1;
+      changed = new int[this.changed.length + 1];
+      System.arraycopy(this.changed, 0, changed, 0, at);
+      changed[at] = rank;
+      System.arraycopy(this.changed, at, changed, at + 1, this.changed.length - at);
+    }
+    KeyFrameTrack[] tracks = this.tracks.clone();
+    tracks[rank] = track;
+    return new LifetimeIndex(this, tracks, changed);
+  }
+
+  /**
+   * <p>Check whether this index shares its tree with the given one, so that only the shapes in
+   * {@link #changedRanks()} can have changed between them, if this index was derived from the
+   * other one by {@link #withTrack}.</p>
+   *
+   * @param other another index
+   * @return whether the two share a tree
+   */
+  boolean sharesTree(LifetimeIndex other) {
+    return this.root == other.root && this.ids == other.ids;
+  }
+
+  /**
+   * <p>Return the layer ranks of the shapes whose keyframes changed since this index's tree was
+   * built, in ascending order. Must not be modified.</p>
+   *
+   * @return ranks of the changed shapes
+   */
+  int[] changedRanks() {
+    return this.changed;
+  }
+
+  /**
+   * <p>Return the number of shapes indexed, present or not.</p>
+   *
+   * @return the number of shapes indexed
+   */
+  int size() {
+    return this.ids.length;
+  }
+
+  /**
+   * <p>Return the ID of the shape with the given layer rank.</p>
+   *
+   * @param rank layer rank of the shape
+   * @return the ID of the shape
+   */
+  String idAt(int rank) {
+    return this.ids[rank];
+  }
+
+  /**
+   * <p>Return the keyframes of the shape with the given layer rank.</p>
+   *
+   * @param rank layer rank of the shape
+   * @return the keyframes of the shape
+   */
+  KeyFrameTrack trackAt(int rank) {
+    return this.tracks[rank];
+  }
+
+  /**
+   * <p>Return the type of the shape with the given layer rank.</p>
+   *
+   * @param rank layer rank of the shape
+   * @return the type of the shape
+   */
+  ShapeType typeAt(int rank) {
+    return this.types[rank];
+  }
+
+  /**
+   * <p>Return the layer ranks of every shape present at the given tick, in ascending order.</p>
+   *
+   * @param tick tick during the animation
+   * @return ranks of the shapes present at the tick, bottommost first
+   */
+  int[] query(int tick) {
+    int[] result = new int[16];
+    int found = 0;
+    Node node = this.root;
+    while (node != null) {
+      if (tick < node.center) {
+        // only lifetimes starting by the tick can contain it; they are sorted by start
+        for (int i = 0; i < node.byStart.length && node.starts[i] <= tick; i++) {
+          result = grow(result, found);
+          result[found++] = node.byStart[i];
+        }
+        node = node.left;
+      } else if (tick > node.center) {
+        // only lifetimes ending at or after the tick can contain it; they are sorted by end
+        for (int i = 0; i < node.byEnd.length && node.ends[i] >= tick; i++) {
+          result = grow(result, found);
+          result[found++] = node.byEnd[i];
+        }
+        node = node.right;
+      } else {
+        // every lifetime stored here contains the center
+        for (int rank : node.byStart) {
+          result = grow(result, found);
+          result[found++] = rank;
+        }
+        node = null;
+      }
+    }
+    if (this.changed.length > 0) {
+      // the tree has the old lifetimes of the changed shapes; check their current ones instead
+      int kept = 0;
+      for (int i = 0; i < found; i++) {
+        if (Arrays.binarySearch(this.changed, result[i]) < 0) {
+          result[kept++] = result[i];
+        }
+      }
+      found = kept;
+      for (int rank : this.changed) {
+        if (this.tracks[rank].size() > 0 && this.firstTick(rank) <= tick
+            && this.lastTick(rank) >= tick) {
+          result = grow(result, found);
+          result[found++] = rank;
+        }
+      }
+    }
+    int[] ranks = Arrays.copyOf(result, found);
+    Arrays.sort(ranks);
+    return ranks;
+  }
+
+  /**
+   * <p>Make sure the given array has room for one more element after the given count.</p>
+   *
+   * @param array the array
+   * @param count number of elements in use
+   * @return the array, or a larger copy of it
+   */
+  private static int[] grow(int[] array, int count) {
+    return count < array.length ? array : Arrays.copyOf(array, array.length * 2);
+  }
+
+  /**
+   * <p>Build the subtree holding the lifetimes of the given shapes.</p>
+   *
+   * @param ranks layer ranks of shapes, each with at least one keyframe
+   * @return the root of the subtree, or {@code null} if there are no shapes
+   */
+  private Node build(int[] ranks) {
+    if (ranks.length == 0) {
+      return null;
+    }
+    // center on the median start tick, so at least half the lifetimes are stored at or right
+    // of this node
+    int[] starts = new int[ranks.length];
+    for (int i = 0; i < ranks.length; i++) {
+      starts[i] = this.firstTick(ranks[i]);
+    }
+    Arrays.sort(starts);
+    int center = starts[starts.length / 2];
+
+    int[] left = new int[ranks.length];
+    int[] right = new int[ranks.length];
+    int[] here = new int[ranks.length];
+    int leftCount = 0;
+    int rightCount = 0;
+    int hereCount = 0;
+    for (int rank : ranks) {
+      if (this.lastTick(rank) < center) {
+        left[leftCount++] = rank;
+      } else if (this.firstTick(rank) > center) {
+        right[rightCount++] = rank;
+      } else {
+        here[hereCount++] = rank;
+      }
+    }
+    return new Node(center, Arrays.copyOf(here, hereCount),
+        this.build(Arrays.copyOf(left, leftCount)),
+        this.build(Arrays.copyOf(right, rightCount)));
+  }
+
+  /**
+   * <p>Return the tick of the first keyframe of the shape with the given layer rank.</p>
+   *
+   * @param rank layer rank of a shape with at least one keyframe
+   * @return the start of the shape's lifetime
+   */
+  private int firstTick(int rank) {
+    return this.tracks[rank].tickAt(0);
+  }
+
+  /**
+   * <p>Return the tick of the last keyframe of the shape with the given layer rank.</p>
+   *
+   * @param rank layer rank of a shape with at least one keyframe
+   * @return the end of the shape's lifetime
+   */
+  private int lastTick(int rank) {
+    return this.tracks[rank].tickAt(this.tracks[rank].size() - 1);
+  }
+
+  /**
+   * A node of the interval tree: the lifetimes containing its center tick, plus subtrees for the
+   * lifetimes entirely before and entirely after it.
+   */
+  private final class Node {
+
+    private final int center;
+    private final int[] byStart; // ranks, sorted by ascending start of lifetime
+    private final int[] starts; // starts[i] is the start of byStart[i]'s lifetime
+    private final int[] byEnd; // ranks, sorted by descending end of lifetime
+    private final int[] ends; // ends[i] is the end of byEnd[i]'s lifetime
+    private final Node left;
+    private final Node right;
+
+    /**
+     * <p>Constructs a {@code Node}.</p>
+     *
+     * @param center the center tick
+     * @param ranks  ranks of the shapes whose lifetimes contain the center tick
+     * @param left   subtree of lifetimes ending before the center tick
+     * @param right  subtree of lifetimes starting after the center tick
+     */
+    private Node(int center, int[] ranks, Node left, Node right) {
+      this.center = center;
+      this.left = left;
+      this.right = right;
+
+      // sort by packing (key, rank) pairs into longs; keys are non-negative ticks
+      long[] packed = new long[ranks.length];
+      for (int i = 0; i < ranks.length; i++) {
+        packed[i] = ((long) LifetimeIndex.this.firstTick(ranks[i]) << 32) | ranks[i];
+      }
+      Arrays.sort(packed);
+      this.byStart = new int[ranks.length];
+      this.starts = new int[ranks.length];
+      for (int i = 0; i < ranks.length; i++) {
+        this.byStart[i] = (int) packed[i];
+        this.starts[i] = (int) (packed[i] >>> 32);
+      }
+
+      for (int i = 0; i < ranks.length; i++) {
+        packed[i] = ((long) LifetimeIndex.this.lastTick(ranks[i]) << 32) | ranks[i];
+      }
+      Arrays.sort(packed);
+      this.byEnd = new int[ranks.length];
+      this.ends = new int[ranks.length];
+      for (int i = 0; i < ranks.length; i++) {
+        int from = ranks.length - 1 - i; // descending
+        this.byEnd[i] = (int) packed[from];
+        this.ends[i] = (int) (packed[from] >>> 32);
+      }
+    }
+  }
+}
@@ -0,0 +1,110 @@
+package cs3500.animator.model;
+
+import cs3500.animator.util.AnimationBuilder;
+import cs3500.animator.util.AnimationReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+
+/**
+ * <p>Checks whether motions come in an order that lets an animation be played while it is being
+ * loaded: in order of their start ticks, each ending no earlier than it starts, and each motion
+ * of a shape starting at the shape's last keyframe. Then no motion can change a frame before the
+ * start of the one before it. See {@link ConcurrentAnimatorModel.Builder}.</p>
+ */
+public final class MotionOrder {
+
+  private final Map<String, Integer> lastTicks; // tick of each shape's last keyframe so far
+  private int lastStart; // start tick of the last motion
+  private boolean ordered; // whether every motion so far was in order
+
+  /**
+   * <p>Constructs a {@code MotionOrder} before any motion.</p>
+   */
+  public MotionOrder() {
+    this.lastTicks = new HashMap<>();
+    this.lastStart = 0;
+    this.ordered = true;
+  }
+
+  /**
+   * <p>Record the next motion, and return whether every motion so far, this one included, is in
+   * order. Once one is out of order, the rest never are.</p>
+   *
+   * @param name name of the motion's shape
+   * @param t1   start tick of the motion
+   * @param t2   end tick of the motion
+   * @return whether the motions so far are in order
+   */
+  public boolean add(String name, int t1, int t2) {
+    Objects.requireNonNull(name);
+    if (!this.ordered) {
+      return false;
+    }
+    Integer last = this.lastTicks.put(name, t2);
+    if (t1 < this.lastStart || t2 < t1 || (last != null && last != t1)) {
+      this.ordered = false;
+      this.lastTicks.clear(); // no longer needed
+      return false;
+    }
+    this.lastStart = t1;
+    return true;
+  }
+
+  /**
+   * <p>Check whether every motion so far is in order.</p>
+   *
+   * @return whether the motions so far are in order
+   */
+  public boolean isOrdered() {
+    return this.ordered;
+  }
+
+  /**
+   * <p>Read the given animation input, and return whether its motions are in order. Reading stops
+   * at the first motion out of order, and nothing is built.</p>
+   *
+   * @param in the animation input
+   * @return whether the motions are in order
+   * @throws IOException      if reading fails
+   * @throws RuntimeException if the input is not a valid animation up to the first motion out of
+   *                          order
+   */
+  public static boolean isOrdered(InputStream in) throws IOException {
+    MotionOrder order = new MotionOrder();
+    AnimationBuilder<Boolean> checker = new AnimationBuilder<Boolean>() {
+      @Override
+      public Boolean build() {
+        return order.isOrdered();
+      }
+
+      @Override
+      public AnimationBuilder<Boolean> setBounds(int x, int y, int width, int height) {
+        return this;
+      }
+
+      @Override
+      public AnimationBuilder<Boolean> declareShape(String name, String type) {
+        return this;
+      }
+
+      @Override
+      public AnimationBuilder<Boolean> addMotion(String name, int t1, int x1, int y1, int w1,
+          int h1, int r1, int g1, int b1, int t2, int x2, int y2, int w2, int h2, int r2, int g2,
+          int b2) {
+        if (!order.add(name, t1, t2)) {
+          throw new CancellationException(); // no need to read any further
+        }
+        return this;
+      }
+    };
+    try {
+      return AnimationReader.parseFile(in, checker);
+    } catch (CancellationException e) {
+      return false;
+    }
+  }
+}
@@ -0,0 +1,96 @@
+package cs3500.animator.model;
+
+import cs3500.animator.model.shape.IModelShape;
+import java.awt.Color;
+import java.util.Arrays;
+
+/**
+ * <p>A {@link KeyFrameTrack} that stores each keyframe as the {@link IModelShape} it was given.
+ * Looking up a keyframe returns the stored object itself.</p>
+ */
+final class ObjectKeyFrameTrack extends KeyFrameTrack {
+
+  private IModelShape[] states; // states[i] is the keyframe at tickAt(i)
+
+  /**
+   * <p>Constructs an empty {@code ObjectKeyFrameTrack}.</p>
+   *
+   * @param generation generation of the model the track belongs to
+   */
+  ObjectKeyFrameTrack(int generation) {
+    super(generation);
+    this.states = new IModelShape[INITIAL_CAPACITY];
+  }
+
+  /**
+   * <p>Constructs a copy of the given {@code ObjectKeyFrameTrack}. Keyframes are immutable, so
+   * they are shared.</p>
+   *
+   * @param other      the track to copy
+   * @param generation generation of the model the copy belongs to
+   */
+  private ObjectKeyFrameTrack(ObjectKeyFrameTrack other, int generation) {
+    super(other, generation);
+    this.states = other.states.clone();
+  }
+
+  @Override
+  KeyFrameTrack copy(int generation) {
+    return new ObjectKeyFrameTrack(this, generation);
+  }
+
+  @Override
+  IModelShape stateAt(int index) {
+    return this.states[index];
+  }
+
+  @Override
+  double xAt(int index) {
+    return this.states[index].getX();
+  }
+
+  @Override
+  double yAt(int index) {
+    return this.states[index].getY();
+  }
+
+  @Override
+  double widthAt(int index) {
+    return this.states[index].getWidth();
+  }
+
+  @Override
+  double heightAt(int index) {
+    return this.states[index].getHeight();
+  }
+
+  @Override
+  int argbAt(int index) {
+    return this.states[index].getColor().getRGB();
+  }
+
+  @Override
+  Color colorAt(int index) {
+    return this.states[index].getColor();
+  }
+
+  @Override
+  protected void setState(int index, IModelShape state) {
+    this.states[index] = state;
+  }
+
+  @Override
+  protected void resizeStates(int capacity) {
+    this.states = Arrays.copyOf(this.states, capacity);
+  }
+
+  @Override
+  protected void moveStates(int from, int to, int length) {
+    System.arraycopy(this.states, from, this.states, to, length);
+  }
+
+  @Override
+  protected void clearState(int index) {
+    this.states[index] = null; // let the removed keyframe be collected
+  }
+}
@@ -0,0 +1,149 @@
+package cs3500.animator.model;
+
+import cs3500.animator.model.shape.IModelShape;
+import cs3500.animator.model.shape.ModelShape;
+import cs3500.animator.model.shape.ShapeType;
+import java.awt.Color;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * <p>A {@link KeyFrameTrack} that stores keyframes as parallel primitive arrays (one per
+ * attribute) instead of as objects. A keyframe costs five array slots plus its tick, rather than a
+ * shape and a color object. Looking up a keyframe builds a new {@link ModelShape} from the
+ * arrays.</p>
+ */
+final class PackedKeyFrameTrack extends KeyFrameTrack {
+
+  private final ShapeType type;
+  private double[] xs;
+  private double[] ys;
+  private double[] widths;
+  private double[] heights;
+  private int[] colors; // packed as in Color.getRGB()
+
+  /**
+   * <p>Constructs an empty {@code PackedKeyFrameTrack} for a shape of the given type.</p>
+   *
+   * @param type       type of the shape whose keyframes are stored
+   * @param generation generation of the model the track belongs to
+   */
+  PackedKeyFrameTrack(ShapeType type, int generation) {
+    super(generation);
+    this.type = Objects.requireNonNull(type);
+    this.xs = new double[INITIAL_CAPACITY];
+    this.ys = new double[INITIAL_CAPACITY];
+    this.widths = new double[INITIAL_CAPACITY];
+    this.heights = new double[INITIAL_CAPACITY];
+    this.colors = new int[INITIAL_CAPACITY];
+  }
+
+  /**
+   * <p>Constructs a copy of the given {@code PackedKeyFrameTrack}.</p>
+   *
+   * @param other      the track to copy
+   * @param generation generation of the model the copy belongs to
+   */
+  private PackedKeyFrameTrack(PackedKeyFrameTrack other, int generation) {
+    super(other, generation);
+    this.type = other.type;
+    this.xs = other.xs.clone();
+    this.ys = other.ys.clone();
+    this.widths = other.widths.clone();
+    this.heights = other.heights.clone();
+    this.colors = other.colors.clone();
+  }
+
+  @Override
+  KeyFrameTrack copy(int generation) {
+    return new PackedKeyFrameTrack(this, generation);
+  }
+
+  @Override
+  IModelShape stateAt(int index) {
+    return new ModelShape(this.type, this.xs[index], this.ys[index],
+        this.widths[index], this.heights[index], this.colorAt(index));
+  }
+
+  @Override
+  double xAt(int index) {
+    return this.xs[index];
+  }
+
+  @Override
+  double yAt(int index) {
+    return this.ys[index];
+  }
+
+  @Override
+  double widthAt(int index) {
+    return this.widths[index];
+  }
+
+  @Override
+  double heightAt(int index) {
+    return this.heights[index];
+  }
+
+  @Override
+  int argbAt(int index) {
+    return this.colors[index];
+  }
+
+  @Override
+  Color colorAt(int index) {
+    return new Color(this.colors[index], true);
+  }
+
+  /**
+   * <p>Add a keyframe with the given state after every other one in this track, as
+   * {@link #append(int, IModelShape)} does, without building a shape for it.</p>
+   *
+   * @param tick   tick of the keyframe, later than every tick in the track
+   * @param x      x position of the keyframe
+   * @param y      y position of the keyframe
+   * @param width  width of the keyframe
+   * @param height height of the keyframe
+   * @param argb   color of the keyframe, packed as in {@link Color#getRGB()}
+   */
+  void append(int tick, double x, double y, double width, double height, int argb) {
+    int index = this.appendTick(tick);
+    this.xs[index] = x;
+    this.ys[index] = y;
+    this.widths[index] = width;
+    this.heights[index] = height;
+    this.colors[index] = argb;
+  }
+
+  @Override
+  protected void setState(int index, IModelShape state) {
+    this.xs[index] = state.getX();
+    this.ys[index] = state.getY();
+    this.widths[index] = state.getWidth();
+    this.heights[index] = state.getHeight();
+    this.colors[index] = state.getColor().getRGB();
+  }
+
+  @Override
+  protected void resizeStates(int capacity) {
+    this.xs = Arrays.copyOf(this.xs, capacity);
+    this.ys = Arrays.copyOf(this.ys, capacity);
+    this.widths = Arrays.copyOf(this.widths, capacity);
+    this.heights = Arrays.copyOf(this.heights, capacity);
+    this.colors = Arrays.copyOf(this.colors, capacity);
+  }
+
+  @Override
+  protected void moveStates(int from, int to, int length) {
+    System.arraycopy(this.xs, from, this.xs, to, length);
+    System.arraycopy(this.ys, from, this.ys, to, length);
+    System.arraycopy(this.widths, from, this.widths, to, length);
+    System.arraycopy(this.heights, from, this.heights, to, length);
+    System.arraycopy(this.colors, from, this.colors, to, length);
+  }
+
+  @Override
+  protected void clearState(int index) {
+    // primitives hold no references, nothing to release
+  }
+}
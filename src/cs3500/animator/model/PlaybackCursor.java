@@ -0,0 +1,110 @@
+package cs3500.animator.model;
+
+import cs3500.animator.model.shape.IModelShape;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * <p>Computes frames of an {@link AnimatorModel} while remembering, for every shape, which pair
+ * of keyframes ("segment") its last state was interpolated from. The next frame almost always
+ * falls in the same segment or the one after it, so playing frames in order costs constant time
+ * per shape per tick, rather than a search through the shape's keyframes. Jumping to an unrelated
+ * tick, or changing the model, falls back to searching (for the shapes changed, if only their
+ * keyframes were).</p>
+ *
+ * <p>Get one with {@link AnimatorModel#newPlaybackCursor()}. A cursor is not safe for use by
+ * several threads at once.</p>
+ */
+public final class PlaybackCursor {
+
+  private final AnimatorModel model;
+  private LifetimeIndex index; // the model's index when the segments were remembered
+  // position in its track of the keyframe starting each shape's segment, by layer rank; -1 if
+  // not known
+  private int[] segments;
+
+  /**
+   * <p>Constructs a {@code PlaybackCursor} over the given model.</p>
+   *
+   * @param model the model to compute frames of
+   */
+  PlaybackCursor(AnimatorModel model) {
+    this.model = model;
+    this.index = null;
+    this.segments = new int[0];
+  }
+
+  /**
+   * <p>Return the frame of the model at the given tick, exactly as
+   * {@link AnimatorModel#getFrame(int)} would.</p>
+   *
+   * @param tick tick during the animation
+   * @return the state of every shape present at the tick, in layering order
+   * @throws IllegalArgumentException if the tick is out of range
+   */
+  public List<IModelShape> getFrame(int tick) throws IllegalArgumentException {
+    if (tick < 0 || tick > this.model.getEndTick()) {
+      throw new IllegalArgumentException("Tick is out of range!");
+    }
+    LifetimeIndex current = this.model.getLifetimes();
+    return this.getFrame(current, current.query(tick), tick);
+  }
+
+  /**
+   * <p>Return the states of the given shapes at the given tick.</p>
+   *
+   * @param current the model's current lifetime index
+   * @param present layer ranks of the shapes present at the tick, in ascending order
+   * @param tick    tick during the animation
+   * @return the state of every given shape at the tick, in the given order
+   */
+  List<IModelShape> getFrame(LifetimeIndex current, int[] present, int tick) {
+    if (current != this.index) {
+      // the model has changed since the segments were remembered
+      if (this.index != null && current.sharesTree(this.index)) {
+        // only the shapes changed since the tree was built can have changed since
+        for (int rank : current.changedRanks()) {
+          this.segments[rank] = -1;
+        }
+      } else {
+        this.segments = new int[current.size()];
+        Arrays.fill(this.segments, -1);
+      }
+      this.index = current;
+    }
+
+    List<IModelShape> frame = new ArrayList<>(present.length);
+    for (int rank : present) {
+      KeyFrameTrack track = current.trackAt(rank);
+      int segment = this.findSegment(track, this.segments[rank], tick);
+      this.segments[rank] = segment;
+      frame.add(track.tickAt(segment) == tick ? track.stateAt(segment)
+          : AnimatorModel.tween(track, current.typeAt(rank), segment, tick));
+    }
+    return frame;
+  }
+
+  /**
+   * <p>Find the segment of the given track containing the given tick: the position of the last
+   * keyframe at or before it. Tries the remembered segment and the one after it before
+   * searching.</p>
+   *
+   * @param track      keyframes of a shape present at the tick
+   * @param remembered the remembered segment, or -1 if none
+   * @param tick       the tick
+   * @return the position of the last keyframe at or before the tick
+   */
+  private int findSegment(KeyFrameTrack track, int remembered, int tick) {
+    if (remembered >= 0 && track.tickAt(remembered) <= tick) {
+      // playing in order: still in the same segment, or just crossed into the next
+      for (int segment = remembered; segment <= remembered + 1; segment++) {
+        if (segment + 1 >= track.size() || track.tickAt(segment + 1) > tick) {
+          return segment;
+        }
+      }
+    }
+    int found = track.indexOf(tick);
+    return found >= 0 ? found : -found - 2;
+  }
+}
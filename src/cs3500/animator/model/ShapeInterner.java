@@ -0,0 +1,149 @@
+package cs3500.animator.model;
+
+import cs3500.animator.model.shape.IModelShape;
+import java.awt.Color;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * <p>Hands out shared instances of colors and keyframe states, so that an animation repeating the
+ * same color or the same state many times keeps one object for each rather than one per use.
+ * Both are immutable, so sharing them is safe. Counts how many objects sharing has saved.</p>
+ *
+ * <p>Colors are kept in an open-addressing table keyed by their packed ARGB value, so looking one
+ * up allocates nothing. Not thread-safe.</p>
+ */
+final class ShapeInterner {
+
+  private static final int INITIAL_CAPACITY = 64; // a power of two
+
+  private int[] argbs; // keys of the color table
+  private Color[] colors; // values of the color table; null marks an empty slot
+  private int colorCount;
+  private final Map<IModelShape, IModelShape> states;
+  private long saved;
+
+  /**
+   * <p>Constructs an empty {@code ShapeInterner}.</p>
+   */
+  ShapeInterner() {
+    this.argbs = new int[INITIAL_CAPACITY];
+    this.colors = new Color[INITIAL_CAPACITY];
+    this.colorCount = 0;
+    this.states = new HashMap<>();
+    this.saved = 0;
+  }
+
+  /**
+   * <p>Return the shared opaque color with the given components.</p>
+   *
+   * @param red   red component, 0 to 255
+   * @param green green component, 0 to 255
+   * @param blue  blue component, 0 to 255
+   * @return the shared color
+   * @throws IllegalArgumentException if a component is out of range
+   */
+  Color color(int red, int green, int blue) throws IllegalArgumentException {
+    if ((red | green | blue) >>> 8 != 0) {
+      return new Color(red, green, blue); // throws, with the usual message
+    }
+    return this.color(0xFF000000 | (red << 16) | (green << 8) | blue, null);
+  }
+
+  /**
+   * <p>Return the shared instance of the given color.</p>
+   *
+   * @param color the color
+   * @return a color equal to the given one, possibly the same object
+   */
+  Color color(Color color) {
+    return this.color(color.getRGB(), color);
+  }
+
+  /**
+   * <p>Return the shared instance of the given state, which should use a shared color.</p>
+   *
+   * @param state the state
+   * @return a state equal to the given one, possibly the same object
+   */
+  IModelShape state(IModelShape state) {
+    IModelShape shared = this.states.putIfAbsent(state, state);
+    if (shared == null || shared == state) {
+      return state;
+    }
+    this.saved++;
+    return shared;
+  }
+
+  /**
+   * <p>Return how many objects have been saved: the number of times a shared instance was handed
+   * out in place of a different or new object.</p>
+   *
+   * @return the number of objects saved
+   */
+  long getSaved() {
+    return this.saved;
+  }
+
+  /**
+   * <p>Return the shared color with the given ARGB value, adding the given color (or a new one if
+   * it is {@code null}) if there is none yet.</p>
+   *
+   * @param argb  packed ARGB value of the color
+   * @param given the color to share if there is none yet, or {@code null}
+   * @return the shared color
+   */
+  private Color color(int argb, Color given) {
+    int mask = this.colors.length - 1;
+    int slot = hash(argb) & mask;
+    while (this.colors[slot] != null) {
+      if (this.argbs[slot] == argb) {
+        if (this.colors[slot] != given) {
+          this.saved++; // a new or given color is not kept
+        }
+        return this.colors[slot];
+      }
+      slot = (slot + 1) & mask;
+    }
+    Color color = given != null ? given : new Color(argb, true);
+    this.argbs[slot] = argb;
+    this.colors[slot] = color;
+    this.colorCount++;
+    if (this.colorCount * 2 > this.colors.length) {
+      this.grow();
+    }
+    return color;
+  }
+
+  /**
+   * <p>Double the capacity of the color table.</p>
+   */
+  private void grow() {
+    int[] oldArgbs = this.argbs;
+    Color[] oldColors = this.colors;
+    this.argbs = new int[oldArgbs.length * 2];
+    this.colors = new Color[oldColors.length * 2];
+    int mask = this.colors.length - 1;
+    for (int i = 0; i < oldColors.length; i++) {
+      if (oldColors[i] != null) {
+        int slot = hash(oldArgbs[i]) & mask;
+        while (this.colors[slot] != null) {
+          slot = (slot + 1) & mask;
+        }
+        this.argbs[slot] = oldArgbs[i];
+        this.colors[slot] = oldColors[i];
+      }
+    }
+  }
+
+  /**
+   * <p>Spread the bits of a packed color, so similar colors land in different slots.</p>
+   *
+   * @param argb packed ARGB value
+   * @return the hash of the value
+   */
+  private static int hash(int argb) {
+    int h = argb * 0x9E3779B9;
+    return h ^ (h >>> 16);
+  }
+}
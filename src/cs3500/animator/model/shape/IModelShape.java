@@ -62,6 +62,16 @@ public interface IModelShape {
    */
   String printState();
 
+  /**
+   * <p>Append the same representation as {@link #printState()} to the given builder.</p>
+   *
+   * @param out where to append this shape's attributes
+   * @return the given builder
+   */
+  default StringBuilder appendState(StringBuilder out) {
+    return out.append(this.printState());
+  }
+
   @Override
   int hashCode();
 
@@ -1,7 +1,7 @@
 package cs3500.animator.model.shape;
 
+import cs3500.animator.util.NumberFormatter;
 import java.awt.Color;
-import java.text.DecimalFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -110,18 +110,18 @@ public class ModelShape implements IModelShape {
 
   @Override
   public String printState() {
-    DecimalFormat format = new DecimalFormat("0.#"); // to remove trailing zeroes
-    String x = format.format(this.x);
-    String y = format.format(this.y);
-    String width = format.format(this.width);
-    String height = format.format(this.height);
-
-    return String.format("%s %s %s %s %d %d %d",
-        x,
-        y,
-        width,
-        height,
-        this.color.getRed(), this.color.getGreen(), this.color.getBlue());
+    return this.appendState(new StringBuilder(40)).toString();
+  }
+
+  @Override
+  public StringBuilder appendState(StringBuilder out) {
+    NumberFormatter.appendDecimal(out, this.x).append(' ');
+    NumberFormatter.appendDecimal(out, this.y).append(' ');
+    NumberFormatter.appendDecimal(out, this.width).append(' ');
+    NumberFormatter.appendDecimal(out, this.height).append(' ');
+    return out.append(this.color.getRed()).append(' ')
+        .append(this.color.getGreen()).append(' ')
+        .append(this.color.getBlue());
   }
 
   @Override
@@ -1,13 +1,37 @@
 package cs3500.animator.util;
 
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
 import java.util.Objects;
-import java.util.Scanner;
-import java.util.regex.Pattern;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.GZIPInputStream;
 
 /**
  * A helper to read animation data and construct an animation from it.
  */
 public class AnimationReader {
+
+  private static final int BUFFER_SIZE = 1 << 16;
+
+  /**
+   * <p>How to split the input into tokens. Both read the same grammar, and fail on bad input with
+   * the same messages.</p>
+   */
+  public enum Tokenizer {
+    SCANNER, // a java.util.Scanner, splitting at a regular expression
+    STREAMING // a hand-written tokenizer reading integers straight out of its buffer; faster
+  }
+
   /**
    * A factory for producing new animations, given a source of shapes and a
    * builder for constructing animations.
@@ -32,11 +56,204 @@ public class AnimationReader {
    * @return
    */
   public static <Doc> Doc parseFile(Readable readable, AnimationBuilder<Doc> builder) {
+    return parseFile(readable, builder, Tokenizer.STREAMING);
+  }
+
+  /**
+   * <p>Produce an animation from the given source, as {@link #parseFile(Readable,
+   * AnimationBuilder)} does, splitting the input into tokens with the given tokenizer.</p>
+   *
+   * @param readable  The source of data for the animation
+   * @param builder   A builder for helping to construct a new animation
+   * @param tokenizer How to split the input into tokens
+   * @param <Doc>     The main model interface type describing animations
+   * @return the animation
+   */
+  public static <Doc> Doc parseFile(Readable readable, AnimationBuilder<Doc> builder,
+      Tokenizer tokenizer) {
     Objects.requireNonNull(readable, "Must have non-null readable source");
     Objects.requireNonNull(builder, "Must provide a non-null AnimationBuilder");
-    Scanner s = new Scanner(readable);
-    // Split at whitespace, and ignore # comment lines
-    s.useDelimiter(Pattern.compile("(\\p{Space}+|#.*)+")); 
+    TokenSource s = tokens(readable, tokenizer);
+    readAll(s, builder);
+    return builder.build();
+  }
+
+  /**
+   * <p>Produce an animation from the given stream, as {@link #parseFile(Readable,
+   * AnimationBuilder)} does. The stream may be gzip-compressed, and may hold the animation in the
+   * binary format of {@link BinaryAnimationReader}, both of which are detected from its first
+   * bytes.</p>
+   *
+   * @param in      The source of data for the animation, plain, gzip-compressed or binary
+   * @param builder A builder for helping to construct a new animation
+   * @param <Doc>   The main model interface type describing animations
+   * @return the animation
+   * @throws IOException if the stream cannot be read, or is not valid gzip or binary data
+   */
+  public static <Doc> Doc parseFile(InputStream in, AnimationBuilder<Doc> builder)
+      throws IOException {
+    return parseFile(in, builder, Tokenizer.STREAMING);
+  }
+
+  /**
+   * <p>Produce an animation from the given stream, as {@link #parseFile(InputStream,
+   * AnimationBuilder)} does, splitting the input into tokens with the given tokenizer.</p>
+   *
+   * @param in        The source of data for the animation, plain, gzip-compressed or binary
+   * @param builder   A builder for helping to construct a new animation
+   * @param tokenizer How to split the input into tokens
+   * @param <Doc>     The main model interface type describing animations
+   * @return the animation
+   * @throws IOException if the stream cannot be read, or is not valid gzip or binary data
+   */
+  public static <Doc> Doc parseFile(InputStream in, AnimationBuilder<Doc> builder,
+      Tokenizer tokenizer) throws IOException {
+    Objects.requireNonNull(in, "Must have non-null input stream");
+    Objects.requireNonNull(builder, "Must provide a non-null AnimationBuilder");
+    InputStream data = open(in);
+    if (BinaryAnimationReader.isBinary(data)) {
+      return BinaryAnimationReader.parseFile(data, builder);
+    }
+    TokenSource s = tokens(new InputStreamReader(data), tokenizer);
+    try {
+      readAll(s, builder);
+    } catch (IllegalStateException e) {
+      // input cut short by a failed read is reported as the failure, not as bad input
+      if (s.ioException() != null) {
+        throw s.ioException();
+      }
+      throw e;
+    }
+    if (s.ioException() != null) {
+      throw s.ioException(); // the tokens treat a failed read as the end of the input
+    }
+    return builder.build();
+  }
+
+  /**
+   * <p>Produce an animation from the given file, splitting it into tokens in parallel on the
+   * given pool: the file is memory-mapped and cut into chunks at line separators, and the tokens
+   * of each chunk are handed to the builder in file order, so the animation is the same as
+   * {@link #parseFile(InputStream, AnimationBuilder)} produces from the file.</p>
+   *
+   * <p>Errors in the input are reported as that method reports them, but with the number of the
+   * line they were found on in front of the message ({@code "Line 12: ..."}), except for those
+   * the builder only finds once it builds the animation (as a
+   * {@link cs3500.animator.model.ColumnarBuilder} finds most conflicting keyframes), which are
+   * thrown as they are. A gzip-compressed
+   * or binary file, or one in a charset that cannot be cut into chunks, is read on this
+   * thread.</p>
+   *
+   * @param file    The file holding the animation, plain, gzip-compressed or binary
+   * @param builder A builder for helping to construct a new animation
+   * @param pool    The pool to split the file into tokens on
+   * @param <Doc>   The main model interface type describing animations
+   * @return the animation
+   * @throws IOException if the file cannot be read, or is not valid gzip or binary data
+   */
+  public static <Doc> Doc parseFile(Path file, AnimationBuilder<Doc> builder, ForkJoinPool pool)
+      throws IOException {
+    Objects.requireNonNull(file, "Must have non-null file");
+    Objects.requireNonNull(builder, "Must provide a non-null AnimationBuilder");
+    Objects.requireNonNull(pool, "Must provide a non-null ForkJoinPool");
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      Charset charset = Charset.defaultCharset(); // as InputStreamReader reads the stream
+      if (!isText(channel) || !ChunkedTokenSource.canSplit(charset)) {
+        return parseFile(Channels.newInputStream(channel), builder);
+      }
+      ChunkedTokenSource s = new ChunkedTokenSource(channel, charset, pool);
+      try {
+        readAll(s, builder);
+      } catch (UncheckedIOException e) {
+        throw e.getCause();
+      } catch (IllegalStateException e) {
+        throw new IllegalStateException(atLine(s, e), e);
+      } catch (IllegalArgumentException e) {
+        throw new IllegalArgumentException(atLine(s, e), e);
+      } finally {
+        s.cancel();
+      }
+    }
+    return builder.build();
+  }
+
+  /**
+   * <p>Return the message of the given exception, with the number of the line the given tokens
+   * were read up to in front of it.</p>
+   *
+   * @param s the tokens
+   * @param e the exception thrown while reading them
+   * @return the message, with the line number
+   */
+  private static String atLine(ChunkedTokenSource s, RuntimeException e) {
+    return String.format("Line %d: %s", s.line(), e.getMessage());
+  }
+
+  /**
+   * <p>Return whether the given file holds text: whether it starts neither like gzip data nor like
+   * a binary animation does. Leaves its position where it was.</p>
+   *
+   * @param channel the file
+   * @return whether the file holds text
+   * @throws IOException if the file cannot be read
+   */
+  private static boolean isText(FileChannel channel) throws IOException {
+    ByteBuffer start = ByteBuffer.allocate(BinaryAnimationReader.MAGIC.length);
+    while (start.hasRemaining() && channel.read(start, start.position()) > 0) {
+      // keep reading until the bytes are in, or the file ends
+    }
+    boolean gzip = start.position() >= 2
+        && ((start.get(0) & 0xff) | ((start.get(1) & 0xff) << 8)) == GZIPInputStream.GZIP_MAGIC;
+    boolean binary = !start.hasRemaining()
+        && Arrays.equals(start.array(), BinaryAnimationReader.MAGIC);
+    return !gzip && !binary;
+  }
+
+  /**
+   * <p>Return a buffered stream of the data in the given stream, decompressing it if it starts
+   * like gzip data does. The returned stream supports {@link InputStream#mark(int)}.</p>
+   *
+   * @param in the stream, plain or gzip-compressed
+   * @return the (decompressed) data in the stream
+   * @throws IOException if the stream cannot be read, or is not valid gzip data
+   */
+  private static InputStream open(InputStream in) throws IOException {
+    InputStream buffered = new BufferedInputStream(in, BUFFER_SIZE);
+    buffered.mark(2);
+    int first = buffered.read();
+    int second = buffered.read();
+    buffered.reset();
+    boolean gzip = (first | (second << 8)) == GZIPInputStream.GZIP_MAGIC;
+    return gzip ? new BufferedInputStream(new GZIPInputStream(buffered, BUFFER_SIZE), BUFFER_SIZE)
+        : buffered;
+  }
+
+  /**
+   * <p>Return the tokens of the given input, split by the given tokenizer.</p>
+   *
+   * @param readable  the input
+   * @param tokenizer how to split the input into tokens
+   * @return the tokens of the input
+   */
+  private static TokenSource tokens(Readable readable, Tokenizer tokenizer) {
+    switch (Objects.requireNonNull(tokenizer, "Must provide a non-null Tokenizer")) {
+      case SCANNER:
+        return new ScannerTokenSource(readable);
+      case STREAMING:
+        return new StreamingTokenSource(readable);
+      default:
+        throw new IllegalArgumentException("Unknown tokenizer!");
+    }
+  }
+
+  /**
+   * <p>Read every line of the input, passing each to the builder.</p>
+   *
+   * @param s       tokens of the input
+   * @param builder A builder for helping to construct a new animation
+   * @param <Doc>   The main model interface type describing animations
+   */
+  private static <Doc> void readAll(TokenSource s, AnimationBuilder<Doc> builder) {
     while (s.hasNext()) {
       String word = s.next();
       switch (word) {
@@ -53,10 +270,9 @@ public class AnimationReader {
           throw new IllegalStateException("Unexpected keyword: " + word + s.nextLine());
       }
     }
-    return builder.build();
   }
 
-  private static <Doc> void readCanvas(Scanner s, AnimationBuilder<Doc> builder) {
+  private static <Doc> void readCanvas(TokenSource s, AnimationBuilder<Doc> builder) {
     int[] vals = new int[4];
     String[] fieldNames = {"left", "top", "width", "height"};
     for (int i = 0; i < 4; i++) {
@@ -65,7 +281,7 @@ public class AnimationReader {
     builder.setBounds(vals[0], vals[1], vals[2], vals[3]);
   }
 
-  private static <Doc> void readShape(Scanner s, AnimationBuilder<Doc> builder) {
+  private static <Doc> void readShape(TokenSource s, AnimationBuilder<Doc> builder) {
     String name;
     String type;
     if (s.hasNext()) {
@@ -81,7 +297,7 @@ public class AnimationReader {
     builder.declareShape(name, type);
   }
 
-  private static <Doc> void readMotion(Scanner s, AnimationBuilder<Doc> builder) {
+  private static <Doc> void readMotion(TokenSource s, AnimationBuilder<Doc> builder) {
     String[] fieldNames = new String[]{
       "initial time",
       "initial x-coordinate", "initial y-coordinate",
@@ -107,7 +323,7 @@ public class AnimationReader {
             vals[8], vals[9], vals[10], vals[11], vals[12], vals[13], vals[14], vals[15]);
   }
   
-  private static int getInt(Scanner s, String label, String fieldName) {
+  private static int getInt(TokenSource s, String label, String fieldName) {
     if (s.hasNextInt()) {
       return s.nextInt();
     } else if (s.hasNext()) {
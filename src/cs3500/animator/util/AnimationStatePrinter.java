@@ -4,13 +4,13 @@ import cs3500.animator.model.IReadOnlyAnimatorModel;
 import cs3500.animator.model.shape.IModelShape;
 import cs3500.animator.model.shape.ShapeType;
 import java.io.IOException;
-import java.text.DecimalFormat;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Utility class for creating a string representation of the state of an animator model.
@@ -28,15 +28,44 @@ public class AnimationStatePrinter {
    */
   public static void print(IReadOnlyAnimatorModel<IModelShape> model, Appendable out, double tempo)
       throws IOException, IllegalArgumentException {
+    print(model, out, tempo, null);
+  }
+
+  /**
+   * <p>Append the state of the given model to {@code out}, printing shapes in parallel on the
+   * given pool. The output is the same as {@link #print(IReadOnlyAnimatorModel, Appendable,
+   * double)}'s.</p>
+   *
+   * @param model the model to print, which must not change while printing
+   * @param out   where to print the output to
+   * @param tempo speed of the animation, in ticks
+   * @param pool  the pool to print on, or {@code null} to print on the calling thread
+   * @throws IllegalArgumentException if tempo is not positive
+   * @throws IOException              if failed to write to the output
+   */
+  public static void print(IReadOnlyAnimatorModel<IModelShape> model, Appendable out, double tempo,
+      ForkJoinPool pool) throws IOException, IllegalArgumentException {
     Objects.requireNonNull(model);
     Objects.requireNonNull(out);
     if (tempo <= 0) {
       throw new IllegalArgumentException("Tempo must be positive!");
     }
     List<String> ids = model.getShapeIds();
+    if (pool != null) {
+      ParallelRenderer.render(ids, pool, (chunk, buffer) -> {
+        for (String id : chunk) {
+          appendShape(model, id, model.getShapeType(id), buffer, tempo);
+          buffer.append("\n");
+        }
+      }, out);
+      return;
+    }
+    StringBuilder buffer = new StringBuilder(); // reused for each shape, then appended at once
     for (String id : ids) {
-      appendShape(model, id, model.getShapeType(id), out, tempo);
-      out.append("\n");
+      buffer.setLength(0);
+      appendShape(model, id, model.getShapeType(id), buffer, tempo);
+      buffer.append("\n");
+      out.append(buffer);
     }
   }
 
@@ -47,10 +76,9 @@ public class AnimationStatePrinter {
    * @param shapeId the id of the given shape
    * @param type    the type of the given shape
    * @throws IllegalArgumentException if tempo is not positive
-   * @throws IOException              if failed to write to the output
    */
   private static void appendShape(IReadOnlyAnimatorModel<IModelShape> model, String shapeId,
-      ShapeType type, Appendable out, double tempo) throws IOException, IllegalArgumentException {
+      ShapeType type, StringBuilder out, double tempo) throws IllegalArgumentException {
     Objects.requireNonNull(model);
     Objects.requireNonNull(out);
     if (tempo <= 0) {
@@ -104,27 +132,18 @@ public class AnimationStatePrinter {
    * @param state2  state of shape at end of motion
    * @param tempo   speed of animation, in ticks per second
    * @throws IllegalArgumentException if tempo is not positive
-   * @throws IOException              if appending to out fails
    */
-  private static void appendMotion(Appendable out, String shapeId, int tick1, int tick2,
-      IModelShape state1, IModelShape state2, double tempo)
-      throws IOException, IllegalArgumentException {
+  private static void appendMotion(StringBuilder out, String shapeId, int tick1, int tick2,
+      IModelShape state1, IModelShape state2, double tempo) throws IllegalArgumentException {
     double time1 = ticksToSeconds(tick1, tempo);
     double time2 = ticksToSeconds(tick2, tempo);
-    DecimalFormat format = new DecimalFormat("0.#");
-    String time1Str = format.format(time1);
-    String time2Str = format.format(time2);
 
-    out.append("motion").append(" ")
-        .append(shapeId).append(" ")
-        .append(time1Str)
-        .append(" ")
-        .append(state1.printState())
-        .append(" ")
-        .append(time2Str)
-        .append(" ")
-        .append(state2.printState())
-        .append("\n");
+    out.append("motion").append(' ')
+        .append(shapeId).append(' ');
+    NumberFormatter.appendDecimal(out, time1).append(' ');
+    state1.appendState(out).append(' ');
+    NumberFormatter.appendDecimal(out, time2).append(' ');
+    state2.appendState(out).append('\n');
   }
 
   /**
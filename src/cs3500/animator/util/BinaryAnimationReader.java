@@ -0,0 +1,171 @@
+package cs3500.animator.util;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * <p>Reads an animation in the binary format described in {@link BinaryAnimationWriter}. Each
+ * shape's keyframes are read in a single block and split into columns of ints in bulk, rather
+ * than number by number.</p>
+ */
+public final class BinaryAnimationReader {
+
+  /**
+   * The bytes every file in the format starts with. The first is not ASCII, so no text animation
+   * starts with them.
+   */
+  static final byte[] MAGIC = {(byte) 0x89, 'A', 'N', 'I'};
+  /**
+   * The version of the format that is written, and the only one that can be read.
+   */
+  static final int VERSION = 1;
+  /**
+   * The number of columns of each shape's keyframes: ticks, x, y, width, height and color.
+   */
+  static final int COLUMNS = 6;
+
+  private static final int BUFFER_SIZE = 1 << 16;
+
+  private BinaryAnimationReader() {
+    // no instances
+  }
+
+  /**
+   * <p>Return whether the given stream starts like an animation in the binary format does,
+   * leaving it where it was.</p>
+   *
+   * @param in the stream, which must support {@link InputStream#mark(int)}
+   * @return whether the stream holds a binary animation
+   * @throws IOException if the stream cannot be read
+   */
+  public static boolean isBinary(InputStream in) throws IOException {
+    byte[] start = new byte[MAGIC.length];
+    in.mark(start.length);
+    int read = 0;
+    while (read < start.length) {
+      int n = in.read(start, read, start.length - read);
+      if (n < 0) {
+        break;
+      }
+      read += n;
+    }
+    in.reset();
+    return Arrays.equals(start, MAGIC);
+  }
+
+  /**
+   * <p>Produce an animation from the given stream, in the binary format. Declares every shape,
+   * in layer order, and then adds the motions between each shape's consecutive keyframes (or,
+   * for a shape with a single keyframe, a motion from it to itself), as reading the same
+   * animation in the text format does.</p>
+   *
+   * @param in      The source of data for the animation
+   * @param builder A builder for helping to construct a new animation
+   * @param <Doc>   The main model interface type describing animations
+   * @return the animation
+   * @throws IOException if the stream cannot be read, ends early, or does not hold an animation
+   *                     in a version of the format that can be read
+   */
+  public static <Doc> Doc parseFile(InputStream in, AnimationBuilder<Doc> builder)
+      throws IOException {
+    Objects.requireNonNull(in, "Must have non-null input stream");
+    Objects.requireNonNull(builder, "Must provide a non-null AnimationBuilder");
+    DataInputStream data = new DataInputStream(new BufferedInputStream(in, BUFFER_SIZE));
+    byte[] magic = new byte[MAGIC.length];
+    data.readFully(magic);
+    if (!Arrays.equals(magic, MAGIC)) {
+      throw new IOException("Not a binary animation!");
+    }
+    int version = data.readInt();
+    if (version != VERSION) {
+      throw new IOException("Unsupported binary animation version: " + version);
+    }
+    builder.setBounds(data.readInt(), data.readInt(), data.readInt(), data.readInt());
+
+    int shapes = count(data.readInt());
+    String[] names = new String[shapes];
+    int[] counts = new int[shapes];
+    int maxCount = 0;
+    for (int i = 0; i < shapes; i++) {
+      names[i] = data.readUTF();
+      builder.declareShape(names[i], data.readUTF());
+      counts[i] = count(data.readInt());
+      maxCount = Math.max(maxCount, counts[i]);
+    }
+
+    int[][] columns = new int[COLUMNS][maxCount];
+    for (int i = 0; i < shapes; i++) {
+      int count = counts[i];
+      byte[] track = new byte[count * COLUMNS * Integer.BYTES];
+      data.readFully(track);
+      IntBuffer ints = ByteBuffer.wrap(track).asIntBuffer();
+      for (int[] column : columns) {
+        ints.get(column, 0, count);
+      }
+      addMotions(names[i], columns, count, builder);
+    }
+    return builder.build();
+  }
+
+  /**
+   * <p>Add the motions between the given keyframes of the shape with the given name.</p>
+   *
+   * @param name    name of the shape
+   * @param columns the shape's keyframes, as columns of ticks, x, y, width, height and color
+   * @param count   the number of keyframes
+   * @param builder A builder for helping to construct a new animation
+   * @param <Doc>   The main model interface type describing animations
+   */
+  private static <Doc> void addMotions(String name, int[][] columns, int count,
+      AnimationBuilder<Doc> builder) {
+    if (count == 1) {
+      addMotion(name, columns, 0, 0, builder); // a single keyframe moves to itself
+    }
+    for (int i = 0; i + 1 < count; i++) {
+      addMotion(name, columns, i, i + 1, builder);
+    }
+  }
+
+  /**
+   * <p>Add the motion between the given two keyframes of the shape with the given name.</p>
+   *
+   * @param name    name of the shape
+   * @param columns the shape's keyframes, as columns of ticks, x, y, width, height and color
+   * @param i       index of the keyframe the motion starts at
+   * @param j       index of the keyframe the motion ends at
+   * @param builder A builder for helping to construct a new animation
+   * @param <Doc>   The main model interface type describing animations
+   */
+  private static <Doc> void addMotion(String name, int[][] columns, int i, int j,
+      AnimationBuilder<Doc> builder) {
+    int[] t = columns[0];
+    int[] x = columns[1];
+    int[] y = columns[2];
+    int[] w = columns[3];
+    int[] h = columns[4];
+    int[] rgb = columns[5];
+    builder.addMotion(name,
+        t[i], x[i], y[i], w[i], h[i], rgb[i] >> 16 & 0xFF, rgb[i] >> 8 & 0xFF, rgb[i] & 0xFF,
+        t[j], x[j], y[j], w[j], h[j], rgb[j] >> 16 & 0xFF, rgb[j] >> 8 & 0xFF, rgb[j] & 0xFF);
+  }
+
+  /**
+   * <p>Check a count read from the stream.</p>
+   *
+   * @param count the count
+   * @return the count
+   * @throws IOException if the count cannot be right
+   */
+  private static int count(int count) throws IOException {
+    if (count < 0 || count > Integer.MAX_VALUE / (COLUMNS * Integer.BYTES)) {
+      throw new IOException("Corrupt binary animation!");
+    }
+    return count;
+  }
+}
@@ -0,0 +1,349 @@
+package cs3500.animator.util;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.InputMismatchException;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * <p>The tokens of a file, split into tokens in parallel. The file is cut into chunks at line
+ * separators, each chunk is memory-mapped, decoded and split into tokens by a
+ * {@link StreamingTokenSource} on a pool, and the tokens are then handed out in file order. Only
+ * a few chunks are split ahead of the one being read, so the tokens of a large file are never
+ * all in memory at once.</p>
+ *
+ * <p>Since no token spans a line separator, the tokens are the same as a single
+ * {@link StreamingTokenSource} would find, as long as the file's charset encodes {@code \n} as
+ * the single byte that no other character contains (see {@link #canSplit(Charset)}). A failed
+ * read is thrown as an {@link UncheckedIOException}.</p>
+ */
+final class ChunkedTokenSource implements TokenSource {
+
+  private static final int CHUNKS_PER_THREAD = 4; // so a slow chunk does not hold up the rest
+  private static final int AHEAD_PER_THREAD = 2; // chunks split at once, for each thread
+  private static final long MIN_CHUNK_SIZE = 1 << 16;
+  private static final long MAX_CHUNK_SIZE = 1 << 20; // its tokens take a few times as much
+  private static final int SCAN_SIZE = 1 << 12; // bytes read at a time looking for a \n
+
+  /**
+   * The tokens of one chunk, and where they are.
+   */
+  private static final class Chunk {
+
+    private final long start; // position of the chunk in the file
+    private final int length;
+    private int count;
+    private int[] values; // the value of each integer token
+    private String[] words; // the text of each token, or null for a plainly written integer
+    private boolean[] ints; // whether each token with text is an integer too
+    private int[] lines; // the line of each token, counting from the start of the chunk
+    private int lineCount; // line separators in the chunk
+
+    private Chunk(long start, int length) {
+      this.start = start;
+      this.length = length;
+      int capacity = Math.max(16, length / 3); // most tokens are short numbers
+      this.values = new int[capacity];
+      this.words = new String[capacity];
+      this.ints = new boolean[capacity];
+      this.lines = new int[capacity];
+    }
+
+    private void add(int line, int value, String word, boolean isInt) {
+      if (this.count == this.values.length) {
+        int capacity = this.count * 2;
+        this.values = Arrays.copyOf(this.values, capacity);
+        this.words = Arrays.copyOf(this.words, capacity);
+        this.ints = Arrays.copyOf(this.ints, capacity);
+        this.lines = Arrays.copyOf(this.lines, capacity);
+      }
+      this.values[this.count] = value;
+      this.words[this.count] = word;
+      this.ints[this.count] = isInt;
+      this.lines[this.count] = line;
+      this.count++;
+    }
+  }
+
+  private final FileChannel channel;
+  private final long size;
+  private final Charset charset;
+  private final ForkJoinPool pool;
+  private final long chunkSize;
+  private final int ahead; // chunks to split at once
+  private final Queue<ForkJoinTask<Chunk>> pending;
+  private long nextStart; // where the next chunk to submit starts in the file
+
+  private Chunk chunk; // the chunk being read, or null before the first
+  private int index; // index of the next token in the chunk
+  private int firstLine; // line of the start of the chunk in the file
+  private int line; // line of the last token read or looked at
+
+  /**
+   * <p>Constructs the tokens of the given file.</p>
+   *
+   * @param channel the file, open for reading; not closed by this
+   * @param charset the file's charset, which must be one {@link #canSplit(Charset)} says can be
+   *                split into chunks
+   * @param pool    the pool to split the chunks on
+   * @throws IOException if the size of the file cannot be read
+   */
+  ChunkedTokenSource(FileChannel channel, Charset charset, ForkJoinPool pool)
+      throws IOException {
+    this.channel = channel;
+    this.size = channel.size();
+    this.charset = charset;
+    this.pool = pool;
+    this.chunkSize = Math.max(MIN_CHUNK_SIZE,
+        Math.min(MAX_CHUNK_SIZE, this.size / (pool.getParallelism() * CHUNKS_PER_THREAD)));
+    this.ahead = pool.getParallelism() * AHEAD_PER_THREAD;
+    this.pending = new ArrayDeque<>();
+    this.nextStart = 0;
+    this.chunk = null;
+    this.index = 0;
+    this.firstLine = 1;
+    this.line = 1;
+  }
+
+  /**
+   * <p>Return whether text in the given charset can be split at the byte of {@code \n} without
+   * splitting a character: whether the charset encodes every character as a single byte, or is
+   * UTF-8.</p>
+   *
+   * @param charset the charset
+   * @return whether text in the charset can be split into chunks
+   */
+  static boolean canSplit(Charset charset) {
+    return StandardCharsets.UTF_8.equals(charset)
+        || (charset.canEncode() && charset.newEncoder().maxBytesPerChar() == 1
+        && charset.encode("\n").get() == '\n');
+  }
+
+  @Override
+  public boolean hasNext() {
+    if (!this.findToken()) {
+      return false;
+    }
+    this.line = this.firstLine + this.chunk.lines[this.index];
+    return true;
+  }
+
+  @Override
+  public String next() throws NoSuchElementException {
+    if (!this.hasNext()) {
+      throw new NoSuchElementException();
+    }
+    String word = this.chunk.words[this.index];
+    if (word == null) {
+      word = Integer.toString(this.chunk.values[this.index]);
+    }
+    this.index++;
+    return word;
+  }
+
+  @Override
+  public boolean hasNextInt() {
+    return this.hasNext()
+        && (this.chunk.words[this.index] == null || this.chunk.ints[this.index]);
+  }
+
+  @Override
+  public int nextInt() throws InputMismatchException, NoSuchElementException {
+    if (!this.hasNext()) {
+      throw new NoSuchElementException();
+    }
+    if (!this.hasNextInt()) {
+      throw new InputMismatchException();
+    }
+    return this.chunk.values[this.index++];
+  }
+
+  /**
+   * <p>Read the rest of the current line, as a single {@link StreamingTokenSource} would. Splits
+   * the current chunk into tokens again to find where the last token read ends, so it is meant
+   * for reporting errors rather than for reading input.</p>
+   *
+   * @return the rest of the line
+   * @throws NoSuchElementException if there is no more input
+   */
+  @Override
+  public String nextLine() throws NoSuchElementException {
+    if (this.chunk == null && !this.findToken()) {
+      throw new NoSuchElementException("No line found"); // an empty file
+    }
+    StreamingTokenSource tokens = this.tokens(this.chunk);
+    for (int i = 0; i < this.index; i++) {
+      tokens.next();
+    }
+    String rest = tokens.nextLine();
+    // tokens on the rest of the line are not read
+    int lastLine = tokens.line() - 2;
+    while (this.index < this.chunk.count && this.chunk.lines[this.index] <= lastLine) {
+      this.index++;
+    }
+    return rest;
+  }
+
+  @Override
+  public IOException ioException() {
+    return null; // failed reads are thrown
+  }
+
+  /**
+   * <p>Return the number of the line of the last token read or looked at, counting from 1.</p>
+   *
+   * @return the current line number
+   */
+  int line() {
+    return this.line;
+  }
+
+  /**
+   * <p>Stop splitting chunks that are not needed anymore, after reading has failed.</p>
+   */
+  void cancel() {
+    for (ForkJoinTask<Chunk> task : this.pending) {
+      task.cancel(false);
+    }
+    this.pending.clear();
+  }
+
+  /**
+   * <p>Move to the chunk holding the next token, if there is one.</p>
+   *
+   * @return whether there is another token
+   */
+  private boolean findToken() {
+    if (this.chunk == null) {
+      this.submitChunks();
+    } else if (this.index < this.chunk.count) {
+      return true;
+    }
+    while (!this.pending.isEmpty()) {
+      Chunk next;
+      try {
+        next = this.pending.remove().join();
+      } catch (UncheckedIOException e) {
+        this.cancel();
+        throw e;
+      }
+      if (this.chunk != null) {
+        this.firstLine += this.chunk.lineCount;
+      }
+      this.chunk = next;
+      this.index = 0;
+      this.submitChunks();
+      if (next.count > 0) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * <p>Start splitting more chunks, up to the number allowed at once.</p>
+   */
+  private void submitChunks() {
+    while (this.pending.size() < this.ahead && this.nextStart < this.size) {
+      long start = this.nextStart;
+      long end = this.findChunkEnd(start);
+      this.nextStart = end;
+      Chunk next = new Chunk(start, (int) (end - start));
+      this.pending.add(this.pool.submit(() -> this.split(next)));
+    }
+  }
+
+  /**
+   * <p>Find where the chunk starting at the given position ends: just after the first
+   * {@code \n} at least a chunk's size in, or at the end of the file.</p>
+   *
+   * @param start where the chunk starts
+   * @return where the chunk ends
+   */
+  private long findChunkEnd(long start) {
+    long position = start + this.chunkSize;
+    ByteBuffer bytes = ByteBuffer.allocate(SCAN_SIZE);
+    try {
+      while (position < this.size) {
+        bytes.clear();
+        int read = this.channel.read(bytes, position);
+        if (read < 0) {
+          break;
+        }
+        for (int i = 0; i < read; i++) {
+          if (bytes.get(i) == '\n') {
+            return Math.min(this.size, position + i + 1);
+          }
+        }
+        position += read;
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return this.size;
+  }
+
+  /**
+   * <p>Map, decode and split the given chunk into tokens.</p>
+   *
+   * @param chunk the chunk
+   * @return the chunk, with its tokens
+   */
+  private Chunk split(Chunk chunk) {
+    StreamingTokenSource tokens = this.tokens(chunk);
+    while (tokens.hasNext()) {
+      int tokenLine = tokens.line() - 1;
+      if (tokens.hasNextPlainInt()) {
+        chunk.add(tokenLine, tokens.nextInt(), null, true);
+      } else if (tokens.hasNextInt()) {
+        // keep the text too, to hand it out as it was written
+        String word = tokens.next();
+        chunk.add(tokenLine, new StreamingTokenSource(CharBuffer.wrap(word)).nextInt(), word,
+            true);
+      } else {
+        chunk.add(tokenLine, 0, tokens.next(), false);
+      }
+    }
+    if (tokens.ioException() != null) {
+      throw new UncheckedIOException(tokens.ioException());
+    }
+    chunk.lineCount = tokens.line() - 1;
+    return chunk;
+  }
+
+  /**
+   * <p>Map and decode the given chunk, replacing bytes that are not valid in the charset as an
+   * {@link java.io.InputStreamReader} does, and return its tokens.</p>
+   *
+   * @param chunk the chunk
+   * @return the tokens of the chunk
+   */
+  private StreamingTokenSource tokens(Chunk chunk) {
+    try {
+      ByteBuffer mapped = this.channel.map(FileChannel.MapMode.READ_ONLY, chunk.start,
+          chunk.length);
+      // decoders are much faster reading an array than reading mapped memory byte by byte
+      byte[] bytes = new byte[chunk.length];
+      mapped.get(bytes);
+      CharBuffer text = this.charset.newDecoder()
+          .onMalformedInput(CodingErrorAction.REPLACE)
+          .onUnmappableCharacter(CodingErrorAction.REPLACE)
+          .decode(ByteBuffer.wrap(bytes)); // always backed by an array
+      return new StreamingTokenSource(text.array(), text.arrayOffset() + text.position(),
+          text.arrayOffset() + text.limit());
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
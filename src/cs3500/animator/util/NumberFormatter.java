@@ -0,0 +1,127 @@
+package cs3500.animator.util;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.text.DecimalFormat;
+
+/**
+ * <p>Utility class for writing numbers in the textual output of an animation without creating a
+ * formatter or an intermediate string for each one.</p>
+ *
+ * <p>Decimals are written exactly as {@code new DecimalFormat("0.#")} writes them in an English
+ * locale: rounded half-even to at most one decimal place, using the exact binary value of the
+ * double, with a minus sign for any negative value that rounds to zero.</p>
+ */
+public final class NumberFormatter {
+
+  // from here on, a double has no fraction, and is written with only its significant digits
+  private static final double LARGE = 9007199254740992.0; // 2^53
+  // how close ten times the fraction must be to a half for rounding to need exact arithmetic
+  private static final double TIE_TOLERANCE = 1e-6;
+
+  private NumberFormatter() {
+    // no instances
+  }
+
+  /**
+   * <p>Append the given decimal to the given builder, in the style of
+   * {@code DecimalFormat("0.#")}.</p>
+   *
+   * @param out   where to append the number
+   * @param value the number
+   * @return the given builder
+   */
+  public static StringBuilder appendDecimal(StringBuilder out, double value) {
+    if (Double.isNaN(value) || Double.isInfinite(value)) {
+      return out.append(new DecimalFormat("0.#").format(value)); // as rare as it is odd
+    }
+    double abs = Math.abs(value);
+    if (abs >= LARGE) {
+      if (value < 0) {
+        out.append('-');
+      }
+      return out.append(new BigDecimal(Double.toString(abs)).toBigInteger());
+    }
+    long whole = (long) abs; // exact: abs is below 2^53
+    double tenths = (abs - whole) * 10; // abs - whole is exact; only this product rounds
+    long floor = (long) tenths;
+    double aboveHalf = tenths - floor - 0.5;
+    if (Math.abs(aboveHalf) < TIE_TOLERANCE) {
+      return appendExact(out, value); // too close to a tie to trust the rounded product
+    }
+    int digit = (int) (aboveHalf > 0 ? floor + 1 : floor);
+    if (digit == 10) {
+      whole++;
+      digit = 0;
+    }
+    if (value < 0 || (value == 0 && 1 / value < 0)) {
+      out.append('-');
+    }
+    out.append(whole);
+    if (digit != 0) {
+      out.append('.').append((char) ('0' + digit));
+    }
+    return out;
+  }
+
+  /**
+   * <p>Append the given decimal to the given output, in the style of
+   * {@code DecimalFormat("0.#")}.</p>
+   *
+   * @param out   where to append the number
+   * @param value the number
+   * @throws IOException if appending to out fails
+   */
+  public static void appendDecimal(Appendable out, double value) throws IOException {
+    if (out instanceof StringBuilder) {
+      appendDecimal((StringBuilder) out, value);
+    } else {
+      out.append(appendDecimal(new StringBuilder(24), value));
+    }
+  }
+
+  /**
+   * <p>Append the given integer to the given output.</p>
+   *
+   * @param out   where to append the number
+   * @param value the number
+   * @throws IOException if appending to out fails
+   */
+  public static void appendInt(Appendable out, int value) throws IOException {
+    if (out instanceof StringBuilder) {
+      ((StringBuilder) out).append(value);
+    } else {
+      out.append(Integer.toString(value));
+    }
+  }
+
+  /**
+   * <p>Return the given decimal in the style of {@code DecimalFormat("0.#")}.</p>
+   *
+   * @param value the number
+   * @return the number as a string
+   */
+  public static String formatDecimal(double value) {
+    return appendDecimal(new StringBuilder(24), value).toString();
+  }
+
+  /**
+   * <p>Append the given decimal using exact arithmetic, for values too close to a rounding tie
+   * for double arithmetic.</p>
+   *
+   * @param out   where to append the number
+   * @param value the number
+   * @return the given builder
+   */
+  private static StringBuilder appendExact(StringBuilder out, double value) {
+    if (value < 0 || (value == 0 && 1 / value < 0)) {
+      out.append('-');
+    }
+    BigDecimal rounded = new BigDecimal(Math.abs(value)).setScale(1, RoundingMode.HALF_EVEN);
+    if (rounded.remainder(BigDecimal.ONE).signum() == 0) {
+      return out.append(rounded.toBigInteger());
+    }
+    return out.append(rounded.toPlainString());
+  }
+}
@@ -0,0 +1,88 @@
+package cs3500.animator.util;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * <p>Utility class for rendering the shapes of an animation in parallel. Shapes are split into
+ * contiguous chunks, each chunk is rendered into its own buffer on a pool, and the buffers are
+ * written out strictly in order, each as soon as it and those before it are done. The output is
+ * the same as rendering every shape in order on one thread, as long as rendering one shape does
+ * not depend on rendering another.</p>
+ */
+public final class ParallelRenderer {
+
+  private static final int CHUNKS_PER_THREAD = 4; // so a slow chunk does not hold up the rest
+
+  /**
+   * Renders some of the shapes of an animation.
+   */
+  public interface ChunkRenderer {
+
+    /**
+     * <p>Render the shapes with the given IDs, in the given order, into the given buffer. Called
+     * on several threads at once, for different chunks.</p>
+     *
+     * @param ids the IDs of the shapes to render
+     * @param out where to render them
+     * @throws IOException if rendering fails
+     */
+    void render(List<String> ids, StringBuilder out) throws IOException;
+  }
+
+  private ParallelRenderer() {
+    // no instances
+  }
+
+  /**
+   * <p>Render the shapes with the given IDs in parallel on the given pool, and write the results
+   * to {@code out} in the order of the IDs.</p>
+   *
+   * @param ids      the IDs of the shapes to render, in output order
+   * @param pool     the pool to render on
+   * @param renderer renders a chunk of shapes
+   * @param out      where to write the output
+   * @throws IOException if rendering or writing fails
+   */
+  public static void render(List<String> ids, ForkJoinPool pool, ChunkRenderer renderer,
+      Appendable out) throws IOException {
+    Objects.requireNonNull(ids);
+    Objects.requireNonNull(pool);
+    Objects.requireNonNull(renderer);
+    Objects.requireNonNull(out);
+    int chunks = Math.min(ids.size(), pool.getParallelism() * CHUNKS_PER_THREAD);
+    List<ForkJoinTask<StringBuilder>> tasks = new ArrayList<>(chunks);
+    for (int chunk = 0; chunk < chunks; chunk++) {
+      List<String> chunkIds =
+          ids.subList(ids.size() * chunk / chunks, ids.size() * (chunk + 1) / chunks);
+      tasks.add(pool.submit(() -> {
+        StringBuilder buffer = new StringBuilder();
+        try {
+          renderer.render(chunkIds, buffer);
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+        return buffer;
+      }));
+    }
+    try {
+      for (int chunk = 0; chunk < tasks.size(); chunk++) {
+        out.append(tasks.get(chunk).join());
+        tasks.set(chunk, null); // let the written buffer go
+      }
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    } finally {
+      for (ForkJoinTask<StringBuilder> task : tasks) {
+        if (task != null) {
+          task.cancel(false); // after a failure, skip chunks not yet started
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,56 @@
+package cs3500.animator.util;
+
+import java.io.IOException;
+import java.util.Scanner;
+import java.util.regex.Pattern;
+
+/**
+ * <p>Tokens read with a {@link Scanner}, splitting at whitespace and skipping # comments.</p>
+ */
+final class ScannerTokenSource implements TokenSource {
+
+  // Split at whitespace, and ignore # comment lines
+  private static final Pattern DELIMITER = Pattern.compile("(\\p{Space}+|#.*)+");
+
+  private final Scanner scanner;
+
+  /**
+   * <p>Constructs the tokens of the given input.</p>
+   *
+   * @param readable the input
+   */
+  ScannerTokenSource(Readable readable) {
+    this.scanner = new Scanner(readable);
+    this.scanner.useDelimiter(DELIMITER);
+  }
+
+  @Override
+  public boolean hasNext() {
+    return this.scanner.hasNext();
+  }
+
+  @Override
+  public String next() {
+    return this.scanner.next();
+  }
+
+  @Override
+  public boolean hasNextInt() {
+    return this.scanner.hasNextInt();
+  }
+
+  @Override
+  public int nextInt() {
+    return this.scanner.nextInt();
+  }
+
+  @Override
+  public String nextLine() {
+    return this.scanner.nextLine();
+  }
+
+  @Override
+  public IOException ioException() {
+    return this.scanner.ioException();
+  }
+}
@@ -0,0 +1,343 @@
+package cs3500.animator.util;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.CharBuffer;
+import java.util.InputMismatchException;
+import java.util.NoSuchElementException;
+
+/**
+ * <p>Tokens read straight out of a character buffer, splitting them exactly where
+ * {@link ScannerTokenSource} does: at the whitespace characters of {@code \p{Space}}, and at a
+ * {@code #}, which starts a comment running to the end of its line. Plain decimal integers are
+ * parsed in place, without creating a string; any other token is checked with a
+ * {@link ScannerTokenSource} of its own, so integers are recognized exactly as the scanner
+ * recognizes them.</p>
+ *
+ * <p>Also keeps count of lines, ended by {@code \n}, {@code \r} or {@code \r\n}, as
+ * {@link java.io.LineNumberReader} counts them.</p>
+ */
+final class StreamingTokenSource implements TokenSource {
+
+  private static final int BUFFER_SIZE = 1 << 16;
+  private static final int MAX_FAST_DIGITS = 18; // any number of this many digits fits in a long
+
+  private final Readable in;
+  private char[] buffer;
+  private int pos; // start of the unread input in the buffer
+  private int limit; // end of the input in the buffer
+  private boolean eof;
+  private IOException ioException;
+  private int lines; // line separators read so far
+  private boolean afterReturn; // whether the last character read was \r
+
+  // the next token, once found: its bounds in the buffer, with tokenEnd -1 until then
+  private int tokenStart;
+  private int tokenEnd;
+  // whether the next token is an integer (null until checked), and if so its value, and whether
+  // it is written as Integer.toString writes it
+  private Boolean tokenIsInt;
+  private int tokenValue;
+  private boolean tokenIsPlain;
+
+  /**
+   * <p>Constructs the tokens of the given input.</p>
+   *
+   * @param in the input
+   */
+  StreamingTokenSource(Readable in) {
+    this(in, new char[BUFFER_SIZE], 0, 0);
+  }
+
+  /**
+   * <p>Constructs the tokens of the given part of an array of text, reading it in place.</p>
+   *
+   * @param text  the text, which must not be changed while reading
+   * @param start where the part starts
+   * @param end   where the part ends
+   */
+  StreamingTokenSource(char[] text, int start, int end) {
+    this(null, text, start, end);
+  }
+
+  private StreamingTokenSource(Readable in, char[] buffer, int pos, int limit) {
+    this.in = in;
+    this.buffer = buffer;
+    this.pos = pos;
+    this.limit = limit;
+    this.eof = in == null; // text read in place is all there already
+    this.ioException = null;
+    this.lines = 0;
+    this.afterReturn = false;
+    this.tokenEnd = -1;
+  }
+
+  @Override
+  public boolean hasNext() {
+    return this.findToken();
+  }
+
+  @Override
+  public String next() throws NoSuchElementException {
+    if (!this.findToken()) {
+      throw new NoSuchElementException();
+    }
+    String token = new String(this.buffer, this.tokenStart, this.tokenEnd - this.tokenStart);
+    this.consumeToken();
+    return token;
+  }
+
+  @Override
+  public boolean hasNextInt() {
+    if (!this.findToken()) {
+      return false;
+    }
+    if (this.tokenIsInt == null) {
+      this.parseToken();
+    }
+    return this.tokenIsInt;
+  }
+
+  @Override
+  public int nextInt() throws InputMismatchException, NoSuchElementException {
+    if (!this.findToken()) {
+      throw new NoSuchElementException();
+    }
+    if (!this.hasNextInt()) {
+      throw new InputMismatchException();
+    }
+    int value = this.tokenValue;
+    this.consumeToken();
+    return value;
+  }
+
+  /**
+   * <p>Return whether the next token is an integer written exactly as
+   * {@link Integer#toString(int)} would write it, so that it need not be kept as text.</p>
+   *
+   * @return whether the next token is a plainly written integer
+   */
+  boolean hasNextPlainInt() {
+    return this.hasNextInt() && this.tokenIsPlain;
+  }
+
+  /**
+   * <p>Return the number of the line the next token is on, once it has been looked for with
+   * {@link #hasNext()}, or else of the line the input has been read up to. Lines are numbered
+   * from 1.</p>
+   *
+   * @return the current line number
+   */
+  int line() {
+    return this.lines + 1;
+  }
+
+  @Override
+  public String nextLine() throws NoSuchElementException {
+    this.tokenEnd = -1; // a token found past the end of this line is found again later
+    if (this.pos == this.limit && !this.fill()) {
+      throw new NoSuchElementException("No line found");
+    }
+    StringBuilder line = new StringBuilder();
+    while (this.pos < this.limit || this.fill()) {
+      char c = this.buffer[this.pos++];
+      if (c == '\r') {
+        if ((this.pos < this.limit || this.fill()) && this.buffer[this.pos] == '\n') {
+          this.pos++; // \r\n is a single line separator
+        }
+        this.lines++;
+        break;
+      } else if (c == '\n') {
+        this.lines++;
+        break;
+      } else if (isLineSeparator(c)) {
+        break;
+      }
+      line.append(c);
+    }
+    return line.toString();
+  }
+
+  @Override
+  public IOException ioException() {
+    return this.ioException;
+  }
+
+  /**
+   * <p>Find the next token, skipping whitespace and comments, and make sure all of it is in the
+   * buffer.</p>
+   *
+   * @return whether there is another token
+   */
+  private boolean findToken() {
+    if (this.tokenEnd >= 0) {
+      return true;
+    }
+    while (true) {
+      if (this.pos == this.limit && !this.fill()) {
+        return false;
+      }
+      char c = this.buffer[this.pos];
+      if (c == '#') {
+        this.skipComment();
+        this.afterReturn = false;
+      } else if (isSpace(c)) {
+        if (c == '\r' || (c == '\n' && !this.afterReturn)) {
+          this.lines++;
+        }
+        this.afterReturn = c == '\r';
+        this.pos++;
+      } else {
+        break;
+      }
+    }
+    int end = this.pos;
+    while (true) {
+      if (end == this.limit) {
+        int offset = this.pos;
+        boolean more = this.fill();
+        end -= offset - this.pos; // the token moved to the start of the buffer
+        if (!more) {
+          break;
+        }
+        continue;
+      }
+      char c = this.buffer[end];
+      if (c == '#' || isSpace(c)) {
+        break;
+      }
+      end++;
+    }
+    this.afterReturn = false;
+    this.tokenStart = this.pos;
+    this.tokenEnd = end;
+    this.tokenIsInt = null;
+    return true;
+  }
+
+  /**
+   * <p>Skip a comment, from its {@code #} up to (not including) the end of its line.</p>
+   */
+  private void skipComment() {
+    while (this.pos < this.limit || this.fill()) {
+      if (isLineSeparator(this.buffer[this.pos])) {
+        return;
+      }
+      this.pos++;
+    }
+  }
+
+  /**
+   * <p>Move past the token that was found.</p>
+   */
+  private void consumeToken() {
+    this.pos = this.tokenEnd;
+    this.tokenEnd = -1;
+  }
+
+  /**
+   * <p>Decide whether the token that was found is an integer, and if so find its value.</p>
+   */
+  private void parseToken() {
+    int i = this.tokenStart;
+    char first = this.buffer[i];
+    boolean negative = false;
+    if (first == '-' || first == '+') {
+      negative = first == '-';
+      i++;
+    }
+    int digits = this.tokenEnd - i;
+    if (digits > 0 && digits <= MAX_FAST_DIGITS) {
+      long value = 0;
+      for (; i < this.tokenEnd; i++) {
+        char c = this.buffer[i];
+        if (c < '0' || c > '9') {
+          break;
+        }
+        value = value * 10 + (c - '0');
+      }
+      if (i == this.tokenEnd) {
+        value = negative ? -value : value;
+        this.tokenIsInt = value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE;
+        this.tokenValue = (int) value;
+        // no sign but a minus, and no leading zeros
+        this.tokenIsPlain = first != '+' && (digits == 1 || this.buffer[i - digits] != '0')
+            && !(negative && value == 0);
+        return;
+      }
+    }
+    this.tokenIsPlain = false;
+    if ((first >= 'a' && first <= 'z') || (first >= 'A' && first <= 'Z')) {
+      this.tokenIsInt = false; // no locale writes a number starting with a letter
+      return;
+    }
+    // not a plain decimal number, but the scanner may still read it as one (say, as 1,000)
+    TokenSource scanner = new ScannerTokenSource(new StringReader(
+        new String(this.buffer, this.tokenStart, this.tokenEnd - this.tokenStart)));
+    this.tokenIsInt = scanner.hasNextInt();
+    this.tokenValue = this.tokenIsInt ? scanner.nextInt() : 0;
+  }
+
+  /**
+   * <p>Read more of the input into the buffer, first moving the unread part to its start and
+   * growing it if the unread part fills it.</p>
+   *
+   * @return whether any more input was read
+   */
+  private boolean fill() {
+    if (this.eof) {
+      return false;
+    }
+    int unread = this.limit - this.pos;
+    if (unread == this.buffer.length) {
+      char[] larger = new char[this.buffer.length * 2]; // a very long token
+      System.arraycopy(this.buffer, this.pos, larger, 0, unread);
+      this.buffer = larger;
+    } else if (this.pos > 0) {
+      System.arraycopy(this.buffer, this.pos, this.buffer, 0, unread);
+    }
+    this.pos = 0;
+    this.limit = unread;
+    try {
+      int read = 0;
+      while (read == 0) {
+        read = this.in instanceof Reader
+            ? ((Reader) this.in).read(this.buffer, this.limit, this.buffer.length - this.limit)
+            : this.in.read(CharBuffer.wrap(this.buffer, this.limit,
+                this.buffer.length - this.limit));
+      }
+      if (read < 0) {
+        this.eof = true;
+        return false;
+      }
+      this.limit += read;
+      return true;
+    } catch (IOException e) {
+      // as with the scanner, a failed read ends the input
+      this.ioException = e;
+      this.eof = true;
+      return false;
+    }
+  }
+
+  /**
+   * <p>Return whether the given character is whitespace, as in {@code \p{Space}}.</p>
+   *
+   * @param c the character
+   * @return whether c is whitespace
+   */
+  private static boolean isSpace(char c) {
+    return c == ' ' || (c >= '\t' && c <= '\r'); // tab, newline, vertical tab, form feed, return
+  }
+
+  /**
+   * <p>Return whether the given character ends a line, as the scanner sees it.</p>
+   *
+   * @param c the character
+   * @return whether c ends a line
+   */
+  private static boolean isLineSeparator(char c) {
+    return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+  }
+}
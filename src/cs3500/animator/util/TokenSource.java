@@ -0,0 +1,61 @@
+package cs3500.animator.util;
+
+import java.io.IOException;
+import java.util.InputMismatchException;
+import java.util.NoSuchElementException;
+
+/**
+ * <p>The tokens of an animation file, as {@link AnimationReader} reads them: words separated by
+ * whitespace, with everything from a {@code #} to the end of its line left out.</p>
+ */
+interface TokenSource {
+
+  /**
+   * <p>Return whether there is another token.</p>
+   *
+   * @return whether there is another token
+   */
+  boolean hasNext();
+
+  /**
+   * <p>Read the next token.</p>
+   *
+   * @return the next token
+   * @throws NoSuchElementException if there are no more tokens
+   */
+  String next() throws NoSuchElementException;
+
+  /**
+   * <p>Return whether the next token is an integer, as {@link java.util.Scanner#hasNextInt()}
+   * decides.</p>
+   *
+   * @return whether the next token is an integer
+   */
+  boolean hasNextInt();
+
+  /**
+   * <p>Read the next token as an integer.</p>
+   *
+   * @return the next token's value
+   * @throws InputMismatchException if the next token is not an integer
+   * @throws NoSuchElementException if there are no more tokens
+   */
+  int nextInt() throws InputMismatchException, NoSuchElementException;
+
+  /**
+   * <p>Read the rest of the current line, just after the last token read, leaving out the line
+   * separator.</p>
+   *
+   * @return the rest of the line
+   * @throws NoSuchElementException if there is no more input
+   */
+  String nextLine() throws NoSuchElementException;
+
+  /**
+   * <p>Return the exception thrown by the last failed read of the input, if any. A failed read
+   * ends the input.</p>
+   *
+   * @return the exception, or {@code null} if no read has failed
+   */
+  IOException ioException();
+}
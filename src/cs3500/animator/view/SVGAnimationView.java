@@ -3,10 +3,19 @@ package cs3500.animator.view;
 import cs3500.animator.model.IReadOnlyAnimatorModel;
 import cs3500.animator.model.shape.IModelShape;
 import cs3500.animator.model.shape.ShapeType;
+import cs3500.animator.util.ParallelRenderer;
+import cs3500.animator.view.svg.SVGPlusSymbol;
 import cs3500.animator.view.svg.SVGShape;
 import cs3500.animator.view.svg.SVGShapeFactory;
+import cs3500.animator.view.svg.SVGWriter;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * <p>An SVG renderer for the easy animator. This view produces a textual output of the animation
@@ -14,6 +23,23 @@ import java.util.List;
  */
 public class SVGAnimationView extends AbstractTextualAnimationView {
 
+  /**
+   * <p>Which {@code <animate>} elements to leave out of the output. Leaving out an animation
+   * whose starting and ending values are equal does not change how the animation looks, since
+   * each animation holds its ending value until the next one starts.</p>
+   */
+  public enum Skip {
+    NONE, // write every animation
+    STATIC_SHAPES, // leave out all animations of shapes that never change
+    UNCHANGED // leave out every animation of an attribute whose value does not change
+  }
+
+  private Skip skip;
+  private long skipped;
+  private boolean merge;
+  private boolean plusSymbols;
+  private ForkJoinPool pool; // null to render on the calling thread
+
   /**
    * <p>Constructs an SVG view for the easy animator.</p>
    *
@@ -25,23 +51,107 @@ public class SVGAnimationView extends AbstractTextualAnimationView {
   public SVGAnimationView(IReadOnlyAnimatorModel<IModelShape> model, Appendable out, double tempo)
       throws IllegalArgumentException {
     super(model, out, tempo);
+    this.skip = Skip.NONE;
+    this.skipped = 0;
+    this.merge = false;
+    this.plusSymbols = false;
+    this.pool = null;
+  }
+
+  /**
+   * <p>Render shapes in parallel on the given pool, or stop rendering in parallel if the pool is
+   * {@code null}. The output is the same either way: each shape is rendered into its own part of
+   * the output, and the parts are written in layer order. The model must not be changed while
+   * rendering.</p>
+   *
+   * @param pool the pool to render on, or {@code null} to render on the calling thread
+   */
+  public void setParallelRendering(ForkJoinPool pool) {
+    this.pool = pool;
+  }
+
+  /**
+   * <p>Set whether to animate each attribute of a shape with a single {@code <animate>} element
+   * through its value at every keyframe (using {@code values} and {@code keyTimes}), rather than
+   * with one element for each pair of consecutive keyframes. Both play back the same; merging
+   * makes for much smaller output. Off by default.</p>
+   *
+   * @param merge whether to merge each attribute's animations into one
+   */
+  public void setMergeAnimations(boolean merge) {
+    this.merge = merge;
+  }
+
+  /**
+   * <p>Set whether to draw plus signs as instances of an outline defined once in the document,
+   * each placed and sized like a rectangle, rather than as polygons whose every point is animated.
+   * Both play back the same, up to rounding; the shared outline makes for much smaller output for
+   * animations with many plus signs. Off by default.</p>
+   *
+   * @param plusSymbols whether to draw plus signs using a shared outline
+   */
+  public void setPlusSymbols(boolean plusSymbols) {
+    this.plusSymbols = plusSymbols;
+  }
+
+  /**
+   * <p>Set which animations to leave out when rendering. Writes every animation by default.</p>
+   *
+   * @param skip which animations to leave out
+   * @throws NullPointerException if skip is null
+   */
+  public void setSkip(Skip skip) throws NullPointerException {
+    this.skip = Objects.requireNonNull(skip);
+  }
+
+  /**
+   * <p>Return how many {@code <animate>} elements were left out of the last render.</p>
+   *
+   * @return the number of elements left out
+   */
+  public long getSkippedCount() {
+    return this.skipped;
   }
 
   @Override
   public void render() throws IOException {
-    this.out.append("<svg")
+    // numbers are written straight into one buffer, which is passed on to out in large chunks
+    SVGWriter writer = new SVGWriter(this.out);
+    boolean definePlus = this.plusSymbols && this.model.getShapes().containsValue(ShapeType.PLUS);
+    writer.append("<svg")
         .append(" viewbox=\"")
-        .append(String.valueOf(this.model.getX())).append(" ")
-        .append(String.valueOf(this.model.getY())).append(" ")
-        .append(String.valueOf(this.model.getWidth())).append(" ")
-        .append(String.valueOf(this.model.getHeight())).append("\"")
-        .append(" xmlns=\"").append("http://www.w3.org/2000/svg").append("\"")
-        .append(">").append("\n");
+        .appendInt(this.model.getX()).append(" ")
+        .appendInt(this.model.getY()).append(" ")
+        .appendInt(this.model.getWidth()).append(" ")
+        .appendInt(this.model.getHeight()).append("\"")
+        .append(" xmlns=\"").append("http://www.w3.org/2000/svg").append("\"");
+    if (definePlus) {
+      writer.append(" xmlns:xlink=\"").append("http://www.w3.org/1999/xlink").append("\"");
+    }
+    writer.append(">").append("\n");
+    if (definePlus) {
+      SVGPlusSymbol.appendDefinition(writer);
+    }
     List<String> ids = this.model.getShapeIds();
-    for (String id : ids) {
-      this.appendShape(id);
+    if (this.pool == null) {
+      long skippedCount = 0;
+      for (String id : ids) {
+        skippedCount += this.appendShape(id, writer);
+      }
+      this.skipped = skippedCount;
+    } else {
+      AtomicLong skippedCount = new AtomicLong();
+      ParallelRenderer.render(ids, this.pool, (chunk, buffer) -> {
+        SVGWriter chunkWriter = new SVGWriter(buffer);
+        for (String id : chunk) {
+          skippedCount.addAndGet(this.appendShape(id, chunkWriter));
+        }
+        chunkWriter.flush();
+      }, writer);
+      this.skipped = skippedCount.get();
     }
-    this.out.append("</svg>");
+    writer.append("</svg>");
+    writer.flush();
   }
 
   /**
@@ -50,17 +160,21 @@ public class SVGAnimationView extends AbstractTextualAnimationView {
    * over the course of the animation.</p>
    *
    * @param shapeId ID of shape to output
+   * @param out     where to write the output to
+   * @return the number of animations left out
    * @throws IOException if output fails
    */
-  private void appendShape(String shapeId) throws IOException {
+  private long appendShape(String shapeId, SVGWriter out) throws IOException {
     int firstTick = this.model.findNextKeyFrame(-1, shapeId);
     if (firstTick == -1) {
       // if the shape has no keyframes, don't print anything
-      return;
+      return 0;
     }
     IModelShape initialState = this.model.getKeyFrames(shapeId).get(firstTick);
     ShapeType shapeType = initialState.getType();
-    SVGShape svgShape = SVGShapeFactory.create(shapeType);
+    SVGShape svgShape = SVGShapeFactory.create(shapeType, this.plusSymbols);
+    svgShape.setSkipUnchanged(this.skip == Skip.UNCHANGED
+        || (this.skip == Skip.STATIC_SHAPES && this.isStatic(shapeId, initialState)));
 
     // print the initial state (opening tag) of the shape
     svgShape.appendInitialState(shapeId, initialState, out);
@@ -70,6 +184,11 @@ public class SVGAnimationView extends AbstractTextualAnimationView {
     double firstTime = this.ticksToSeconds(firstTick);
     svgShape.appendVisibility(firstTime, true, out);
 
+    if (this.merge) {
+      // animate everything at once, leaving only the last keyframe for the loop below
+      currTick = this.appendMergedAnimate(shapeId, svgShape, out);
+    }
+
     // then enumerate all the animations performed on the shape for each keyframe
     while (currTick != -1) {
       int nextTick = this.model.findNextKeyFrame(currTick, shapeId);
@@ -89,6 +208,51 @@ public class SVGAnimationView extends AbstractTextualAnimationView {
     }
 
     svgShape.appendClosingTag(out);
+    return svgShape.getSkippedCount();
+  }
+
+  /**
+   * <p>Outputs a single animation of each attribute of the given shape through all its
+   * keyframes.</p>
+   *
+   * @param shapeId  ID of shape to output
+   * @param svgShape the shape's SVG representation
+   * @param out      where to write the output to
+   * @return the last keyframe tick of the shape
+   * @throws IOException if output fails
+   */
+  private int appendMergedAnimate(String shapeId, SVGShape svgShape, SVGWriter out)
+      throws IOException {
+    Map<Integer, IModelShape> keyframes = this.model.getKeyFrames(shapeId);
+    List<Integer> ticks = new ArrayList<>(keyframes.keySet());
+    Collections.sort(ticks);
+    int last = ticks.get(ticks.size() - 1);
+    if (ticks.size() > 1) {
+      List<IModelShape> states = new ArrayList<>(ticks.size());
+      double[] times = new double[ticks.size()];
+      for (int i = 0; i < times.length; i++) {
+        states.add(keyframes.get(ticks.get(i)));
+        times[i] = this.ticksToSeconds(ticks.get(i));
+      }
+      svgShape.appendMergedAnimate(states, times, out);
+    }
+    return last;
+  }
+
+  /**
+   * <p>Check whether the shape with the given ID is in the same state at every keyframe.</p>
+   *
+   * @param shapeId      ID of the shape
+   * @param initialState state of the shape at its first keyframe
+   * @return whether the shape never changes
+   */
+  private boolean isStatic(String shapeId, IModelShape initialState) {
+    for (IModelShape state : this.model.getKeyFrames(shapeId).values()) {
+      if (!state.equals(initialState)) {
+        return false;
+      }
+    }
+    return true;
   }
 
 }
@@ -4,6 +4,7 @@ import cs3500.animator.model.IReadOnlyAnimatorModel;
 import cs3500.animator.model.shape.IModelShape;
 import cs3500.animator.util.AnimationStatePrinter;
 import java.io.IOException;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * <p>A textual view for the easy animator. This view produces a textual output of
@@ -11,6 +12,8 @@ import java.io.IOException;
  */
 public class TextualAnimationView extends AbstractTextualAnimationView {
 
+  private ForkJoinPool pool; // null to render on the calling thread
+
   /**
    * <p>Constructs a textual view for the easy animator.</p>
    *
@@ -22,6 +25,18 @@ public class TextualAnimationView extends AbstractTextualAnimationView {
   public TextualAnimationView(IReadOnlyAnimatorModel<IModelShape> model, Appendable out,
       double tempo) throws IllegalArgumentException {
     super(model, out, tempo);
+    this.pool = null;
+  }
+
+  /**
+   * <p>Render shapes in parallel on the given pool, or stop rendering in parallel if the pool is
+   * {@code null}. The output is the same either way. The model must not be changed while
+   * rendering.</p>
+   *
+   * @param pool the pool to render on, or {@code null} to render on the calling thread
+   */
+  public void setParallelRendering(ForkJoinPool pool) {
+    this.pool = pool;
   }
 
   @Override
@@ -31,7 +46,7 @@ public class TextualAnimationView extends AbstractTextualAnimationView {
         .append(String.format(
             "canvas %d %d %d %d", model.getX(), model.getY(), model.getWidth(), model.getHeight()))
         .append("\n");
-    AnimationStatePrinter.print(model, out, tempo);
+    AnimationStatePrinter.print(model, out, tempo, this.pool);
   }
 
 }
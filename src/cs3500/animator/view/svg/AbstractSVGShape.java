@@ -1,34 +1,67 @@
 package cs3500.animator.view.svg;
 
 import cs3500.animator.model.shape.IModelShape;
+import java.awt.Color;
 import java.io.IOException;
+import java.util.List;
 import java.util.Objects;
+import java.util.function.ToDoubleFunction;
 
 public abstract class AbstractSVGShape implements SVGShape {
 
   protected final String svgShapeType;
+  private boolean skipUnchanged;
+  private int skipped;
 
   public AbstractSVGShape(String svgShapeType) {
     this.svgShapeType = Objects.requireNonNull(svgShapeType);
+    this.skipUnchanged = false;
+    this.skipped = 0;
+  }
+
+  @Override
+  public void setSkipUnchanged(boolean skip) {
+    this.skipUnchanged = skip;
+  }
+
+  @Override
+  public int getSkippedCount() {
+    return this.skipped;
+  }
+
+  /**
+   * <p>Check whether an animation between the given values should be left out, counting it if
+   * so.</p>
+   *
+   * @param unchanged whether the starting and ending values are equal
+   * @return whether to leave the animation out
+   */
+  protected boolean skip(boolean unchanged) {
+    if (unchanged && this.skipUnchanged) {
+      this.skipped++;
+      return true;
+    }
+    return false;
   }
 
   @Override
   public void appendInitialState(String shapeId, IModelShape initialState, Appendable out)
       throws IOException {
-    out.append("<").append(svgShapeType)
+    SVGWriter writer = SVGWriter.of(out);
+    Color color = initialState.getColor();
+    writer.append("<").append(svgShapeType)
         .append(" id=\"").append(shapeId).append("\"")
-        .append(" x=\"").append(String.valueOf(initialState.getX())).append("\"")
-        .append(" y=\"").append(String.valueOf(initialState.getY())).append("\"")
-        .append(" width=\"").append(String.valueOf(initialState.getWidth())).append("\"")
-        .append(" height=\"").append(String.valueOf(initialState.getHeight())).append("\"")
-        .append(" fill=").append("\"rgb(")
-        .append(String.valueOf(initialState.getColor().getRed())).append(",")
-        .append(String.valueOf(initialState.getColor().getGreen())).append(",")
-        .append(String.valueOf(initialState.getColor().getBlue()))
-        .append(")\"")
+        .append(" x=\"").appendDouble(initialState.getX()).append("\"")
+        .append(" y=\"").appendDouble(initialState.getY()).append("\"")
+        .append(" width=\"").appendDouble(initialState.getWidth()).append("\"")
+        .append(" height=\"").appendDouble(initialState.getHeight()).append("\"")
+        .append(" fill=").append("\"")
+        .appendRgb(color.getRed(), color.getGreen(), color.getBlue())
+        .append("\"")
         .append(" visibility=\"hidden\"") // shapes start out as hidden until their first keyframe
         .append(">")
         .append("\n");
+    done(writer, out);
   }
 
   @Override
@@ -47,21 +80,14 @@ public abstract class AbstractSVGShape implements SVGShape {
    */
   protected void appendAnimate(String attributeName, String startVal, String endVal,
       double startTime, double endTime, Appendable out) throws IOException {
-    double duration = endTime - startTime;
-
-    out.append("\t<animate attributeName=")
-        .append("\"").append(attributeName).append("\"")
-        .append(" from=\"")
-        .append(startVal).append("\"")
-        .append(" to=\"")
-        .append(endVal).append("\"")
-        .append(" begin=\"")
-        .append(String.valueOf(startTime)).append("s\"")
-        .append(" dur=\"")
-        .append(String.valueOf(duration)).append("s\"")
-        .append(" fill=\"freeze\"")
-        .append("/>")
-        .append("\n");
+    if (this.skip(startVal.equals(endVal))) {
+      return;
+    }
+    SVGWriter writer = SVGWriter.of(out);
+    beginAnimate(attributeName, writer).append(startVal);
+    writer.append("\" to=\"").append(endVal);
+    endAnimate(startTime, endTime, writer);
+    done(writer, out);
   }
 
   /**
@@ -77,9 +103,185 @@ public abstract class AbstractSVGShape implements SVGShape {
    */
   protected void appendAnimate(String attributeName, double startVal, double endVal,
       double startTime, double endTime, Appendable out) throws IOException {
-    String startValStr = String.valueOf(startVal);
-    String endValStr = String.valueOf(endVal);
-    this.appendAnimate(attributeName, startValStr, endValStr, startTime, endTime, out);
+    if (this.skip(startVal == endVal)) {
+      return;
+    }
+    SVGWriter writer = SVGWriter.of(out);
+    beginAnimate(attributeName, writer).appendDouble(startVal);
+    writer.append("\" to=\"").appendDouble(endVal);
+    endAnimate(startTime, endTime, writer);
+    done(writer, out);
+  }
+
+  /**
+   * <p>Outputs the {@code <animate>} tag for the fill color of the shape.</p>
+   *
+   * @param startColor starting color of the shape
+   * @param endColor   ending color of the shape
+   * @param startTime  time at which starting color occurs, in seconds
+   * @param endTime    time at which ending color occurs, in seconds
+   * @throws IOException if output fails
+   */
+  protected void appendAnimateFill(Color startColor, Color endColor,
+      double startTime, double endTime, Appendable out) throws IOException {
+    if (this.skip(startColor.equals(endColor))) {
+      return;
+    }
+    SVGWriter writer = SVGWriter.of(out);
+    beginAnimate("fill", writer)
+        .appendRgb(startColor.getRed(), startColor.getGreen(), startColor.getBlue());
+    writer.append("\" to=\"")
+        .appendRgb(endColor.getRed(), endColor.getGreen(), endColor.getBlue());
+    endAnimate(startTime, endTime, writer);
+    done(writer, out);
+  }
+
+  /**
+   * <p>Writes the value of an attribute at one keyframe of a multi-value animation.</p>
+   */
+  protected interface ValueWriter {
+
+    /**
+     * <p>Write the value of the attribute at the keyframe with the given index.</p>
+     *
+     * @param index  index of the keyframe
+     * @param writer where to write the value to
+     * @throws IOException if output fails
+     */
+    void write(int index, SVGWriter writer) throws IOException;
+  }
+
+  /**
+   * <p>Outputs a single {@code <animate>} tag taking the given attribute through a value at each
+   * keyframe, interpolating linearly in between.</p>
+   *
+   * @param attributeName name of the attribute that is being animated
+   * @param unchanged     whether the attribute has the same value at every keyframe
+   * @param values        writes the value of the attribute at each keyframe
+   * @param times         time of each keyframe, in seconds
+   * @throws IOException if output fails
+   */
+  protected void appendAnimateValues(String attributeName, boolean unchanged, ValueWriter values,
+      double[] times, Appendable out) throws IOException {
+    if (this.skip(unchanged)) {
+      return;
+    }
+    int last = times.length - 1;
+    double duration = times[last] - times[0];
+    SVGWriter writer = SVGWriter.of(out);
+    writer.append("\t<animate attributeName=")
+        .append("\"").append(attributeName).append("\"")
+        .append(" values=\"");
+    for (int i = 0; i <= last; i++) {
+      if (i > 0) {
+        writer.append(';');
+      }
+      values.write(i, writer);
+    }
+    writer.append("\" keyTimes=\"0");
+    for (int i = 1; i < last; i++) {
+      writer.append(';').appendDouble((times[i] - times[0]) / duration);
+    }
+    writer.append(";1\"")
+        .append(" begin=\"").appendDouble(times[0]).append("s\"")
+        .append(" dur=\"").appendDouble(duration).append("s\"")
+        .append(" calcMode=\"linear\" fill=\"freeze\"/>\n");
+    done(writer, out);
+  }
+
+  /**
+   * <p>Outputs a single {@code <animate>} tag taking the given attribute, represented as a
+   * double, through its value in each of the given states.</p>
+   *
+   * @param attributeName name of the attribute that is being animated
+   * @param states        state of the shape at each keyframe
+   * @param attribute     the attribute's value in a state
+   * @param times         time of each keyframe, in seconds
+   * @throws IOException if output fails
+   */
+  protected void appendAnimateValues(String attributeName, List<IModelShape> states,
+      ToDoubleFunction<IModelShape> attribute, double[] times, Appendable out)
+      throws IOException {
+    double[] values = new double[states.size()];
+    boolean unchanged = true;
+    for (int i = 0; i < values.length; i++) {
+      values[i] = attribute.applyAsDouble(states.get(i));
+      unchanged &= values[i] == values[0];
+    }
+    this.appendAnimateValues(attributeName, unchanged,
+        (index, writer) -> writer.appendDouble(values[index]), times, out);
+  }
+
+  /**
+   * <p>Outputs a single {@code <animate>} tag taking the fill color of the shape through its
+   * color in each of the given states.</p>
+   *
+   * @param states state of the shape at each keyframe
+   * @param times  time of each keyframe, in seconds
+   * @throws IOException if output fails
+   */
+  protected void appendAnimateFillValues(List<IModelShape> states, double[] times,
+      Appendable out) throws IOException {
+    Color first = states.get(0).getColor();
+    boolean unchanged = true;
+    for (IModelShape state : states) {
+      unchanged &= state.getColor().equals(first);
+    }
+    this.appendAnimateValues("fill", unchanged, (index, writer) -> {
+      Color color = states.get(index).getColor();
+      writer.appendRgb(color.getRed(), color.getGreen(), color.getBlue());
+    }, times, out);
+  }
+
+  /**
+   * <p>Outputs the start of an {@code <animate>} tag, up to its starting value.</p>
+   *
+   * @param attributeName name of the attribute that is being animated
+   * @param writer        where to write the output to
+   * @return the given writer
+   * @throws IOException if output fails
+   */
+  protected static SVGWriter beginAnimate(String attributeName, SVGWriter writer)
+      throws IOException {
+    return writer.append("\t<animate attributeName=")
+        .append("\"").append(attributeName).append("\"")
+        .append(" from=\"");
+  }
+
+  /**
+   * <p>Outputs the end of an {@code <animate>} tag, after its ending value.</p>
+   *
+   * @param startTime time at which starting value occurs, in seconds
+   * @param endTime   time at which ending value occurs, in seconds
+   * @param writer    where to write the output to
+   * @throws IOException if output fails
+   */
+  protected static void endAnimate(double startTime, double endTime, SVGWriter writer)
+      throws IOException {
+    double duration = endTime - startTime;
+
+    writer.append("\"")
+        .append(" begin=\"")
+        .appendDouble(startTime).append("s\"")
+        .append(" dur=\"")
+        .appendDouble(duration).append("s\"")
+        .append(" fill=\"freeze\"")
+        .append("/>")
+        .append("\n");
+  }
+
+  /**
+   * <p>Finish writing through the given writer: pass on its output if it was made just to write
+   * to the given output.</p>
+   *
+   * @param writer the writer used
+   * @param out    the output given to write to
+   * @throws IOException if output fails
+   */
+  protected static void done(SVGWriter writer, Appendable out) throws IOException {
+    if (writer != out) {
+      writer.flush();
+    }
   }
 
   @Override
@@ -87,12 +289,14 @@ public abstract class AbstractSVGShape implements SVGShape {
       throws IOException {
     String visibilityStr = visible ? "visible" : "hidden";
 
-    out.append("\t<set attributeName=")
+    SVGWriter writer = SVGWriter.of(out);
+    writer.append("\t<set attributeName=")
         .append("\"").append("visibility").append("\"")
         .append(" to=\"").append(visibilityStr).append("\"")
-        .append(" begin=\"").append(String.valueOf(startTime)).append("s\"")
+        .append(" begin=\"").appendDouble(startTime).append("s\"")
         .append(" dur=\"").append("1ms").append("\"")
         .append(" fill=\"freeze\"/>\n");
+    done(writer, out);
   }
 
   @Override
@@ -1,8 +1,8 @@
 package cs3500.animator.view.svg;
 
 import cs3500.animator.model.shape.IModelShape;
-import java.awt.Color;
 import java.io.IOException;
+import java.util.List;
 
 public class SVGEllipse extends AbstractSVGShape {
 
@@ -18,12 +18,17 @@ public class SVGEllipse extends AbstractSVGShape {
     this.appendAnimate("rx", start.getWidth(), end.getWidth(), startTime, endTime, out);
     this.appendAnimate("ry", start.getHeight(), end.getHeight(), startTime, endTime, out);
 
-    Color startColor = start.getColor();
-    Color endColor = end.getColor();
-    String startColorStr = String
-        .format("rgb(%d,%d,%d)", startColor.getRed(), startColor.getGreen(), startColor.getBlue());
-    String endColorStr = String
-        .format("rgb(%d,%d,%d)", endColor.getRed(), endColor.getGreen(), endColor.getBlue());
-    this.appendAnimate("fill", startColorStr, endColorStr, startTime, endTime, out);
+    this.appendAnimateFill(start.getColor(), end.getColor(), startTime, endTime, out);
+  }
+
+  @Override
+  public void appendMergedAnimate(List<IModelShape> states, double[] times, Appendable out)
+      throws IOException {
+    this.appendAnimateValues("cx", states, IModelShape::getX, times, out);
+    this.appendAnimateValues("cy", states, IModelShape::getY, times, out);
+    this.appendAnimateValues("rx", states, IModelShape::getWidth, times, out);
+    this.appendAnimateValues("ry", states, IModelShape::getHeight, times, out);
+
+    this.appendAnimateFillValues(states, times, out);
   }
 }
@@ -1,73 +1,103 @@
 package cs3500.animator.view.svg;
 
 import cs3500.animator.model.shape.IModelShape;
-import java.awt.Color;
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
 
 /**
  * <p>Class to represent an SVG Plus Sign.</p>
  */
 public class SVGPlus extends AbstractSVGShape {
 
+  private static final int NPOINTS = 13;
+
+  // reused for every animation of this shape
+  private final int[] startXPoints;
+  private final int[] startYPoints;
+  private final int[] endXPoints;
+  private final int[] endYPoints;
+
   /**
    * <p> Constructs an SVG Polygon Shape.</p>
    */
   public SVGPlus() {
     super("polygon");
+    this.startXPoints = new int[NPOINTS];
+    this.startYPoints = new int[NPOINTS];
+    this.endXPoints = new int[NPOINTS];
+    this.endYPoints = new int[NPOINTS];
   }
 
   @Override
   public void appendAnimate(IModelShape start, IModelShape end, double startTime, double endTime,
       Appendable out) throws IOException {
-    int npoints = 13;
-    int[] startXPoints = this.calculateXPoints(start, npoints);
-    int[] startYPoints = this.calculateYPoints(start, npoints);
-    int[] endXPoints = this.calculateXPoints(end, npoints);
-    int[] endYPoints = this.calculateYPoints(end, npoints);
-
-    String startState = this.stringifyPoints(startXPoints, startYPoints);
-    String endState = this.stringifyPoints(endXPoints, endYPoints);
-    this.appendAnimate("points", startState, endState, startTime, endTime, out);
-
-    Color startColor = start.getColor();
-    Color endColor = end.getColor();
-    String startColorStr = String
-        .format("rgb(%d,%d,%d)", startColor.getRed(), startColor.getGreen(), startColor.getBlue());
-    String endColorStr = String
-        .format("rgb(%d,%d,%d)", endColor.getRed(), endColor.getGreen(), endColor.getBlue());
-    this.appendAnimate("fill", startColorStr, endColorStr, startTime, endTime, out);
+    this.calculateXPoints(start, this.startXPoints);
+    this.calculateYPoints(start, this.startYPoints);
+    this.calculateXPoints(end, this.endXPoints);
+    this.calculateYPoints(end, this.endYPoints);
+
+    if (!this.skip(Arrays.equals(this.startXPoints, this.endXPoints)
+        && Arrays.equals(this.startYPoints, this.endYPoints))) {
+      SVGWriter writer = SVGWriter.of(out);
+      beginAnimate("points", writer);
+      this.appendPoints(this.startXPoints, this.startYPoints, writer);
+      writer.append("\" to=\"");
+      this.appendPoints(this.endXPoints, this.endYPoints, writer);
+      endAnimate(startTime, endTime, writer);
+      done(writer, out);
+    }
+
+    this.appendAnimateFill(start.getColor(), end.getColor(), startTime, endTime, out);
+  }
+
+  @Override
+  public void appendMergedAnimate(List<IModelShape> states, double[] times, Appendable out)
+      throws IOException {
+    this.calculateXPoints(states.get(0), this.startXPoints);
+    this.calculateYPoints(states.get(0), this.startYPoints);
+    boolean unchanged = true;
+    for (IModelShape state : states) {
+      this.calculateXPoints(state, this.endXPoints);
+      this.calculateYPoints(state, this.endYPoints);
+      unchanged &= Arrays.equals(this.startXPoints, this.endXPoints)
+          && Arrays.equals(this.startYPoints, this.endYPoints);
+    }
+    this.appendAnimateValues("points", unchanged, (index, writer) -> {
+      this.calculateXPoints(states.get(index), this.endXPoints);
+      this.calculateYPoints(states.get(index), this.endYPoints);
+      this.appendPoints(this.endXPoints, this.endYPoints, writer);
+    }, times, out);
+
+    this.appendAnimateFillValues(states, times, out);
   }
 
   /**
-   * <p>Get an SVG-compliant string representing the points in this polygon.</p>
+   * <p>Write an SVG-compliant list of the points in this polygon.</p>
    * @param xPoints the xpoints of the polygon
    * @param yPoints the ypoints of the polygon
-   * @return a string representing the points in this polygon
+   * @param writer  where to write the points to
+   * @throws IOException if output fails
    */
-  private String stringifyPoints(int[] xPoints, int[] yPoints) {
+  private void appendPoints(int[] xPoints, int[] yPoints, SVGWriter writer) throws IOException {
     if (xPoints.length != yPoints.length) {
       throw new IllegalArgumentException("Points arrays must be of the same length!");
     }
-    StringBuilder sb = new StringBuilder();
-
     for (int i = 0; i < xPoints.length; i++) {
-      sb.append(xPoints[i]).append(",").append(yPoints[i]);
+      writer.appendInt(xPoints[i]).append(',').appendInt(yPoints[i]);
       if (i < xPoints.length - 1) {
-        sb.append(", ");
+        writer.append(", ");
       }
     }
-    return sb.toString();
   }
 
   /**
-   * <p>Returns an integer array of the x-points for the polygon.</p>
+   * <p>Fills in the x-points for the polygon.</p>
    *
    * @param state   the state of the polygon
-   * @param npoints the number of points in the polygon
-   * @return the array of x-points
+   * @param xPoints the array of x-points to fill
    */
-  private int[] calculateXPoints(IModelShape state, int npoints) {
-    int[] xPoints = new int[npoints];
+  private void calculateXPoints(IModelShape state, int[] xPoints) {
     int x = (int) state.getX();
     int width = (int) state.getWidth();
 
@@ -84,20 +114,15 @@ public class SVGPlus extends AbstractSVGShape {
     xPoints[10] = x;
     xPoints[11] = x + width / 3;
     xPoints[12] = x + width / 3;
-
-    return xPoints;
   }
 
   /**
-   * <p>Returns an integer array of the y-points for the polygon.</p>
+   * <p>Fills in the y-points for the polygon.</p>
    *
    * @param state   the state of the polygon
-   * @param npoints the number of points in the polygon
-   * @return the array of y-points
+   * @param yPoints the array of y-points to fill
    */
-  private int[] calculateYPoints(IModelShape state, int npoints) {
-
-    int[] yPoints = new int[npoints];
+  private void calculateYPoints(IModelShape state, int[] yPoints) {
     int y = (int) state.getY();
     int height = (int) state.getHeight();
 
@@ -114,9 +139,6 @@ public class SVGPlus extends AbstractSVGShape {
     yPoints[10] = y + height / 3;
     yPoints[11] = y + height / 3;
     yPoints[12] = y;
-
-    return yPoints;
-
   }
 
 }
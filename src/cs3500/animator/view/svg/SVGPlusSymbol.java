@@ -0,0 +1,68 @@
+package cs3500.animator.view.svg;
+
+import cs3500.animator.model.shape.IModelShape;
+import java.awt.Color;
+import java.io.IOException;
+
+/**
+ * <p>Class to represent an SVG Plus Sign as an instance of a plus outline defined once for the
+ * whole document (see {@link #appendDefinition(Appendable)}). Each instance is placed, sized and
+ * colored like a rectangle, so it is animated with a few numbers rather than with every point of
+ * its outline.</p>
+ *
+ * <p>The outline is stretched to the shape's exact width and height, where {@link SVGPlus} rounds
+ * each point to a whole number, so a plus may be drawn a fraction of a unit differently.</p>
+ */
+public class SVGPlusSymbol extends SVGRect {
+
+  /**
+   * ID of the plus outline's definition in the document.
+   */
+  public static final String SYMBOL_ID = "easy-animator-plus";
+
+  /**
+   * <p>Constructs an SVG Plus Sign using the shared outline.</p>
+   */
+  public SVGPlusSymbol() {
+    super("use");
+  }
+
+  /**
+   * <p>Appends the definition of the plus outline that every instance uses. Must be written once,
+   * inside the {@code <svg>} element, before any instance. The root element must declare the
+   * {@code xlink} namespace.</p>
+   *
+   * @param out where to write the output to
+   * @throws IOException if cannot write to appendable
+   */
+  public static void appendDefinition(Appendable out) throws IOException {
+    // a plus on a 3 by 3 grid, stretched to fill each instance's box; it takes the instance's fill
+    out.append("<defs>\n")
+        .append("<symbol id=\"").append(SYMBOL_ID).append("\"")
+        .append(" viewBox=\"0 0 3 3\" preserveAspectRatio=\"none\">\n")
+        .append("<polygon points=\"1,0 2,0 2,1 3,1 3,2 2,2 2,3 1,3 1,2 0,2 0,1 1,1 1,0\"/>\n")
+        .append("</symbol>\n")
+        .append("</defs>\n");
+  }
+
+  @Override
+  public void appendInitialState(String shapeId, IModelShape initialState, Appendable out)
+      throws IOException {
+    SVGWriter writer = SVGWriter.of(out);
+    Color color = initialState.getColor();
+    writer.append("<").append(svgShapeType)
+        .append(" id=\"").append(shapeId).append("\"")
+        .append(" xlink:href=\"#").append(SYMBOL_ID).append("\"")
+        .append(" x=\"").appendDouble(initialState.getX()).append("\"")
+        .append(" y=\"").appendDouble(initialState.getY()).append("\"")
+        .append(" width=\"").appendDouble(initialState.getWidth()).append("\"")
+        .append(" height=\"").appendDouble(initialState.getHeight()).append("\"")
+        .append(" fill=").append("\"")
+        .appendRgb(color.getRed(), color.getGreen(), color.getBlue())
+        .append("\"")
+        .append(" visibility=\"hidden\"") // shapes start out as hidden until their first keyframe
+        .append(">")
+        .append("\n");
+    done(writer, out);
+  }
+}
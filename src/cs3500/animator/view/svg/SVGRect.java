@@ -1,13 +1,22 @@
 package cs3500.animator.view.svg;
 
 import cs3500.animator.model.shape.IModelShape;
-import java.awt.Color;
 import java.io.IOException;
+import java.util.List;
 
 public class SVGRect extends AbstractSVGShape {
 
   public SVGRect() {
-    super("rect");
+    this("rect");
+  }
+
+  /**
+   * <p>Constructs an SVG shape animated like a rectangle: by its position, size and fill.</p>
+   *
+   * @param svgShapeType name of the SVG element
+   */
+  protected SVGRect(String svgShapeType) {
+    super(svgShapeType);
   }
 
   @Override
@@ -18,13 +27,18 @@ public class SVGRect extends AbstractSVGShape {
     this.appendAnimate("width", start.getWidth(), end.getWidth(), startTime, endTime, out);
     this.appendAnimate("height", start.getHeight(), end.getHeight(), startTime, endTime, out);
 
-    Color startColor = start.getColor();
-    Color endColor = end.getColor();
-    String startColorStr = String
-        .format("rgb(%d,%d,%d)", startColor.getRed(), startColor.getGreen(), startColor.getBlue());
-    String endColorStr = String
-        .format("rgb(%d,%d,%d)", endColor.getRed(), endColor.getGreen(), endColor.getBlue());
-    this.appendAnimate("fill", startColorStr, endColorStr, startTime, endTime, out);
+    this.appendAnimateFill(start.getColor(), end.getColor(), startTime, endTime, out);
+  }
+
+  @Override
+  public void appendMergedAnimate(List<IModelShape> states, double[] times, Appendable out)
+      throws IOException {
+    this.appendAnimateValues("x", states, IModelShape::getX, times, out);
+    this.appendAnimateValues("y", states, IModelShape::getY, times, out);
+    this.appendAnimateValues("width", states, IModelShape::getWidth, times, out);
+    this.appendAnimateValues("height", states, IModelShape::getHeight, times, out);
+
+    this.appendAnimateFillValues(states, times, out);
   }
 
 }
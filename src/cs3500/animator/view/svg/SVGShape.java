@@ -2,6 +2,7 @@ package cs3500.animator.view.svg;
 
 import cs3500.animator.model.shape.IModelShape;
 import java.io.IOException;
+import java.util.List;
 
 /**
  * <p>Interface to represent an SVG shape.</p>
@@ -29,6 +30,17 @@ public interface SVGShape {
   void appendAnimate(IModelShape start, IModelShape end, double startTime, double endTime,
       Appendable out) throws IOException;
 
+  /**
+   * <p>Appends the animation of the shape through all the given states to the Appendable, as a
+   * single multi-value animation of each attribute.</p>
+   * @param states the states of the shape at its keyframes, in order; at least two
+   * @param times the time of each keyframe, in seconds, strictly increasing
+   * @param out where to write the output to
+   * @throws IOException if cannot write to appendable
+   */
+  void appendMergedAnimate(List<IModelShape> states, double[] times, Appendable out)
+      throws IOException;
+
   /**
    * <p>Append a set visibility to the Appendable.</p>
    * @param startTime the start time
@@ -45,4 +57,17 @@ public interface SVGShape {
    */
   void appendClosingTag(Appendable out) throws IOException;
 
+  /**
+   * <p>Set whether to leave out animations of attributes whose starting and ending values are
+   * equal, which change nothing. Off by default.</p>
+   * @param skip whether to leave out animations that change nothing
+   */
+  void setSkipUnchanged(boolean skip);
+
+  /**
+   * <p>Return how many animations have been left out so far.</p>
+   * @return the number of animation elements not written
+   */
+  int getSkippedCount();
+
 }
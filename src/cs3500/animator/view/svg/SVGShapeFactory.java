@@ -13,13 +13,24 @@ public class SVGShapeFactory {
    * @return a new Shape of type shapeType.
    */
   public static SVGShape create(ShapeType shapeType) {
+    return create(shapeType, false);
+  }
+
+  /**
+   * <p>Creates a new instance of the shapeType, drawing plus signs as instances of a shared
+   * outline if asked to (see {@link SVGPlusSymbol}).</p>
+   * @param shapeType   the type of shape
+   * @param plusSymbols whether to draw plus signs using the shared outline
+   * @return a new Shape of type shapeType.
+   */
+  public static SVGShape create(ShapeType shapeType, boolean plusSymbols) {
     switch (shapeType) {
       case RECTANGLE:
         return new SVGRect();
       case ELLIPSE:
         return new SVGEllipse();
       case PLUS:
-        return new SVGPlus();
+        return plusSymbols ? new SVGPlusSymbol() : new SVGPlus();
       default:
         throw new IllegalArgumentException("Unknown shape type!");
     }
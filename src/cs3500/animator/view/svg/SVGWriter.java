@@ -0,0 +1,237 @@
+package cs3500.animator.view.svg;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.CharBuffer;
+import java.util.Objects;
+
+/**
+ * <p>A buffered output for SVG text. Numbers are written straight into a reusable character
+ * buffer, without creating a string for each one, and the buffer is passed on to the underlying
+ * output in large chunks. Call {@link #flush()} when done writing.</p>
+ *
+ * <p>Doubles are written exactly as {@link String#valueOf(double)} writes them. Not
+ * thread-safe.</p>
+ */
+public final class SVGWriter implements Appendable {
+
+  private static final int BUFFER_SIZE = 1 << 16;
+  private static final int SMALL_BUFFER_SIZE = 256; // for a writer used for a single element
+  // doubles from 1e-3 up to this, with at most three decimals, are written without toString,
+  // as long as their digits fit in an int
+  private static final double FAST_LIMIT = 1e7;
+  private static final double[] POWERS_OF_TEN = {1, 10, 100, 1000};
+
+  private final Appendable out;
+  private final char[] buffer;
+  private int length;
+
+  /**
+   * <p>Constructs an {@code SVGWriter} writing to the given output.</p>
+   *
+   * @param out where to write the output to
+   * @throws NullPointerException if out is null
+   */
+  public SVGWriter(Appendable out) throws NullPointerException {
+    this(out, BUFFER_SIZE);
+  }
+
+  /**
+   * <p>Constructs an {@code SVGWriter} writing to the given output in chunks of the given
+   * size.</p>
+   *
+   * @param out        where to write the output to
+   * @param bufferSize size of the buffer, in characters; at least 32
+   * @throws NullPointerException if out is null
+   */
+  private SVGWriter(Appendable out, int bufferSize) throws NullPointerException {
+    this.out = Objects.requireNonNull(out);
+    this.buffer = new char[bufferSize];
+    this.length = 0;
+  }
+
+  /**
+   * <p>Return an {@code SVGWriter} for the given output: the output itself if it is one, or else
+   * a new one, with a small buffer, writing to it.</p>
+   *
+   * @param out where to write the output to
+   * @return an {@code SVGWriter} writing to out
+   */
+  public static SVGWriter of(Appendable out) {
+    return out instanceof SVGWriter ? (SVGWriter) out : new SVGWriter(out, SMALL_BUFFER_SIZE);
+  }
+
+  @Override
+  public SVGWriter append(CharSequence csq) throws IOException {
+    CharSequence text = csq == null ? "null" : csq;
+    int n = text.length();
+    if (n > this.buffer.length - this.length) {
+      this.flush();
+      if (n > this.buffer.length) {
+        this.out.append(text); // too long to buffer, so pass it on whole
+        return this;
+      }
+    }
+    if (text instanceof String) {
+      ((String) text).getChars(0, n, this.buffer, this.length);
+    } else if (text instanceof StringBuilder) {
+      ((StringBuilder) text).getChars(0, n, this.buffer, this.length);
+    } else {
+      for (int i = 0; i < n; i++) {
+        this.buffer[this.length + i] = text.charAt(i);
+      }
+    }
+    this.length += n;
+    return this;
+  }
+
+  @Override
+  public SVGWriter append(CharSequence csq, int start, int end) throws IOException {
+    return this.append(String.valueOf(csq).substring(start, end));
+  }
+
+  @Override
+  public SVGWriter append(char c) throws IOException {
+    if (this.length == this.buffer.length) {
+      this.flush();
+    }
+    this.buffer[this.length++] = c;
+    return this;
+  }
+
+  /**
+   * <p>Append the given integer, in decimal.</p>
+   *
+   * @param value the number
+   * @return this writer
+   * @throws IOException if passing on the buffer fails
+   */
+  public SVGWriter appendInt(int value) throws IOException {
+    if (value == Integer.MIN_VALUE) {
+      return this.append(Integer.toString(value)); // has no positive counterpart
+    }
+    this.reserve(11);
+    if (value < 0) {
+      this.buffer[this.length++] = '-';
+    }
+    this.appendDigits(Math.abs(value), 0);
+    return this;
+  }
+
+  /**
+   * <p>Append the given double, as {@link String#valueOf(double)} would.</p>
+   *
+   * @param value the number
+   * @return this writer
+   * @throws IOException if passing on the buffer fails
+   */
+  public SVGWriter appendDouble(double value) throws IOException {
+    double abs = Math.abs(value);
+    if (abs == 0 || (abs >= 1e-3 && abs < FAST_LIMIT)) {
+      // find the fewest decimals that give back the same double; that is what toString prints
+      for (int decimals = 0; decimals < POWERS_OF_TEN.length; decimals++) {
+        double power = POWERS_OF_TEN[decimals];
+        double scaled = Math.rint(abs * power);
+        if (scaled / power == abs && scaled <= Integer.MAX_VALUE) {
+          this.reserve(24);
+          if (value < 0 || (value == 0 && 1 / value < 0)) {
+            this.buffer[this.length++] = '-';
+          }
+          if (decimals == 0) {
+            this.appendDigits((int) scaled * 10, 1); // toString always has a decimal
+          } else {
+            this.appendDigits((int) scaled, decimals);
+          }
+          return this;
+        }
+      }
+    }
+    return this.append(Double.toString(value));
+  }
+
+  /**
+   * <p>Append the given color as an SVG {@code rgb(r,g,b)} value.</p>
+   *
+   * @param red   red component
+   * @param green green component
+   * @param blue  blue component
+   * @return this writer
+   * @throws IOException if passing on the buffer fails
+   */
+  public SVGWriter appendRgb(int red, int green, int blue) throws IOException {
+    return this.append("rgb(").appendInt(red).append(',').appendInt(green).append(',')
+        .appendInt(blue).append(')');
+  }
+
+  /**
+   * <p>Pass on everything written so far to the underlying output.</p>
+   *
+   * @throws IOException if writing to the underlying output fails
+   */
+  public void flush() throws IOException {
+    if (this.length == 0) {
+      return;
+    }
+    if (this.out instanceof StringBuilder) {
+      ((StringBuilder) this.out).append(this.buffer, 0, this.length);
+    } else if (this.out instanceof Writer) {
+      ((Writer) this.out).write(this.buffer, 0, this.length);
+    } else {
+      this.out.append(CharBuffer.wrap(this.buffer, 0, this.length));
+    }
+    this.length = 0;
+  }
+
+  /**
+   * <p>Make room for at least the given number of characters in the buffer.</p>
+   *
+   * @param chars number of characters
+   * @throws IOException if passing on the buffer fails
+   */
+  private void reserve(int chars) throws IOException {
+    if (this.buffer.length - this.length < chars) {
+      this.flush();
+    }
+  }
+
+  /**
+   * <p>Write the given non-negative number into the buffer as a decimal with the given number of
+   * digits after the point, or as an integer if there are none.</p>
+   *
+   * @param value    the digits of the number
+   * @param decimals how many of its digits come after the point
+   */
+  private void appendDigits(int value, int decimals) {
+    int rest = value;
+    int digits = Math.max(digitCount(rest), decimals + 1); // at least one digit before the point
+    int pos = this.length + digits + (decimals > 0 ? 1 : 0);
+    this.length = pos;
+    for (int i = 0; i < decimals; i++) {
+      int quotient = rest / 10;
+      this.buffer[--pos] = (char) ('0' + rest - quotient * 10);
+      rest = quotient;
+    }
+    if (decimals > 0) {
+      this.buffer[--pos] = '.';
+    }
+    do {
+      int quotient = rest / 10;
+      this.buffer[--pos] = (char) ('0' + rest - quotient * 10);
+      rest = quotient;
+    } while (rest > 0);
+  }
+
+  /**
+   * <p>Return the number of decimal digits in the given non-negative number.</p>
+   *
+   * @param value the number
+   * @return how many digits it has
+   */
+  private static int digitCount(int value) {
+    int digits = 1;
+    for (int limit = 10; digits < 10 && value >= limit; limit *= 10) {
+      digits++;
+    }
+    return digits;
+  }
+}
@@ -0,0 +1,206 @@
+package benchmark;
+
+import cs3500.animator.model.AnimatorModel;
+import cs3500.animator.model.ConcurrentAnimatorModel;
+import cs3500.animator.model.IAnimatorModel;
+import cs3500.animator.model.shape.IModelShape;
+import cs3500.animator.model.shape.ShapeType;
+import cs3500.animator.util.AnimationReader;
+import java.awt.Color;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>Measures how many frames per second several threads can read from one animation while
+ * another thread changes it every millisecond, using a {@link ConcurrentAnimatorModel} and using
+ * an {@link AnimatorModel} behind a single lock, for 1, 2, 4... readers up to the number of cores
+ * (at least 4). Reports how read throughput scales with the number of readers, relative to one
+ * reader, and how long each change takes the writer.</p>
+ *
+ * <p>Usage: {@code ConcurrentModelBenchmark [file|shapes [seconds]]}, defaulting to the bigbang
+ * input for two seconds per run. Given a number instead of a file, generates an animation of that
+ * many shapes, each with a short lifetime, so that the cost of a change to a large animation
+ * shows.</p>
+ */
+public class ConcurrentModelBenchmark {
+
+  /**
+   * The operations the benchmark uses, on either kind of model.
+   */
+  private interface Target {
+
+    List<IModelShape> getFrame(int tick);
+
+    void addKeyFrame(int tick, String id);
+
+    void removeKeyFrame(int tick, String id);
+  }
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param args animation file, and seconds per run
+   * @throws IOException if the file cannot be read
+   * @throws InterruptedException if interrupted while waiting for a run
+   */
+  public static void main(String[] args) throws IOException, InterruptedException {
+    String file = args.length > 0 ? args[0] : "resources/bigbang.txt";
+    long millis = 1000L * (args.length > 1 ? Integer.parseInt(args[1]) : 2);
+    int cores = Runtime.getRuntime().availableProcessors();
+
+    IAnimatorModel<IModelShape> plain;
+    if (file.matches("[0-9]+")) {
+      plain = generate(Integer.parseInt(file));
+      System.out.printf("%s shapes, %d cores%n", file, cores);
+    } else {
+      try (Reader in = new FileReader(file)) {
+        plain = AnimationReader.parseFile(in, AnimatorModel.getBuilder());
+      }
+      System.out.printf("%s, %d cores%n", file, cores);
+    }
+    Object lock = new Object();
+    Target locked = new Target() {
+      @Override
+      public List<IModelShape> getFrame(int tick) {
+        synchronized (lock) {
+          return plain.getFrame(tick);
+        }
+      }
+
+      @Override
+      public void addKeyFrame(int tick, String id) {
+        synchronized (lock) {
+          plain.addKeyFrame(tick, id, 0, 0, 1, 1, Color.BLACK);
+        }
+      }
+
+      @Override
+      public void removeKeyFrame(int tick, String id) {
+        synchronized (lock) {
+          plain.removeKeyFrame(tick, id);
+        }
+      }
+    };
+
+    ConcurrentAnimatorModel concurrent = new ConcurrentAnimatorModel();
+    for (String id : plain.getShapeIds()) {
+      concurrent.addShape(id, plain.getShapeType(id));
+      for (Map.Entry<Integer, IModelShape> keyframe : plain.getKeyFrames(id).entrySet()) {
+        IModelShape state = keyframe.getValue();
+        concurrent.addKeyFrame(keyframe.getKey(), id, state.getX(), state.getY(),
+            state.getWidth(), state.getHeight(), state.getColor());
+      }
+    }
+    Target lockFree = new Target() {
+      @Override
+      public List<IModelShape> getFrame(int tick) {
+        return concurrent.getFrame(tick);
+      }
+
+      @Override
+      public void addKeyFrame(int tick, String id) {
+        concurrent.addKeyFrame(tick, id, 0, 0, 1, 1, Color.BLACK);
+      }
+
+      @Override
+      public void removeKeyFrame(int tick, String id) {
+        concurrent.removeKeyFrame(tick, id);
+      }
+    };
+
+    int endTick = plain.getEndTick();
+    String shape = plain.getShapeIds().get(0);
+    run(locked, 1, endTick, shape, millis); // warm up
+    run(lockFree, 1, endTick, shape, millis);
+    double lockedBase = 0;
+    double lockFreeBase = 0;
+    for (int threads = 1; threads <= Math.max(4, cores); threads *= 2) {
+      double[] lockedRun = run(locked, threads, endTick, shape, millis);
+      double[] lockFreeRun = run(lockFree, threads, endTick, shape, millis);
+      if (threads == 1) {
+        lockedBase = lockedRun[0];
+        lockFreeBase = lockFreeRun[0];
+      }
+      System.out.printf("%2d readers: synchronized %,9.0f frames/s (x%.2f, %,6.1f us/write), "
+              + "concurrent %,9.0f frames/s (x%.2f, %,6.1f us/write)%n", threads,
+          lockedRun[0], lockedRun[0] / lockedBase, lockedRun[1],
+          lockFreeRun[0], lockFreeRun[0] / lockFreeBase, lockFreeRun[1]);
+    }
+  }
+
+  /**
+   * <p>Generate an animation of the given number of shapes, each present for 100 ticks, starting
+   * at staggered ticks.</p>
+   *
+   * @param shapes number of shapes
+   * @return the animation
+   */
+  private static IAnimatorModel<IModelShape> generate(int shapes) {
+    IAnimatorModel<IModelShape> model = new AnimatorModel();
+    for (int s = 0; s < shapes; s++) {
+      String id = "S" + s;
+      int start = s % 1000;
+      model.addShape(id, ShapeType.RECTANGLE);
+      model.addKeyFrame(start, id, s % 500, 0, 10, 10, Color.RED);
+      model.addKeyFrame(start + 100, id, s % 500, 500, 10, 10, Color.BLUE);
+    }
+    return model;
+  }
+
+  /**
+   * <p>Run the given number of reader threads, each getting frames at successive ticks, while
+   * this thread adds and removes a keyframe every millisecond.</p>
+   *
+   * @param target  the model
+   * @param threads number of reader threads
+   * @param endTick last tick of the animation
+   * @param shape   ID of a shape to change
+   * @param millis  how long to run for
+   * @return frames read per second, over all readers, and microseconds per change
+   * @throws InterruptedException if interrupted while waiting for the readers
+   */
+  private static double[] run(Target target, int threads, int endTick, String shape,
+      long millis) throws InterruptedException {
+    AtomicBoolean done = new AtomicBoolean(false);
+    AtomicLong frames = new AtomicLong();
+    List<Thread> readers = new ArrayList<>();
+    for (int r = 0; r < threads; r++) {
+      int offset = r * endTick / threads;
+      Thread reader = new Thread(() -> {
+        long count = 0;
+        for (int i = 0; !done.get(); i++) {
+          target.getFrame((offset + i) % endTick);
+          count++;
+        }
+        frames.addAndGet(count);
+      });
+      readers.add(reader);
+      reader.start();
+    }
+    long start = System.nanoTime();
+    int tick = endTick + 1; // after every existing keyframe, so it can always be removed
+    long writing = 0;
+    long writes = 0;
+    while (System.nanoTime() - start < millis * 1_000_000) {
+      long before = System.nanoTime();
+      target.addKeyFrame(tick, shape);
+      writing += System.nanoTime() - before;
+      Thread.sleep(1);
+      before = System.nanoTime();
+      target.removeKeyFrame(tick, shape);
+      writing += System.nanoTime() - before;
+      writes += 2;
+    }
+    done.set(true);
+    for (Thread reader : readers) {
+      reader.join();
+    }
+    return new double[]{frames.get() * 1e9 / (System.nanoTime() - start), writing / 1e3 / writes};
+  }
+}
@@ -0,0 +1,69 @@
+package benchmark;
+
+import cs3500.animator.model.AnimatorModel;
+import cs3500.animator.model.IAnimatorModel;
+import cs3500.animator.model.shape.IModelShape;
+import cs3500.animator.util.AnimationReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * <p>Measures the heap retained by an {@link AnimatorModel} loaded from an animation file, once
+ * with keyframes stored as objects and once with keyframes stored as primitive arrays.</p>
+ *
+ * <p>Usage: {@code KeyFrameStorageBenchmark [file...]}, defaulting to the bigbang inputs.</p>
+ */
+public class KeyFrameStorageBenchmark {
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param args animation files to load
+   * @throws IOException if a file cannot be read
+   */
+  public static void main(String[] args) throws IOException {
+    String[] files = args.length > 0 ? args
+        : new String[]{"resources/bigbang.txt", "resources/bigbangplus.txt"};
+    for (String file : files) {
+      long objects = retainedBytes(file, false);
+      long packed = retainedBytes(file, true);
+      System.out.printf("%s: objects %,d bytes, compact %,d bytes (%.1f%% less)%n",
+          file, objects, packed, 100.0 * (objects - packed) / objects);
+    }
+  }
+
+  /**
+   * <p>Load the given file and return roughly how many bytes the resulting model keeps alive.</p>
+   *
+   * @param file    animation file to load
+   * @param compact whether to store keyframes as primitive arrays
+   * @return the growth in used heap caused by keeping the model
+   * @throws IOException if the file cannot be read
+   */
+  private static long retainedBytes(String file, boolean compact) throws IOException {
+    long before = usedHeap();
+    IAnimatorModel<IModelShape> model;
+    try (Reader in = new FileReader(file)) {
+      model = AnimationReader.parseFile(in, AnimatorModel.getBuilder(compact));
+    }
+    long after = usedHeap();
+    if (model.getEndTick() < -1) {
+      throw new IllegalStateException(); // keeps the model reachable until measured
+    }
+    return after - before;
+  }
+
+  /**
+   * <p>Return the used heap after encouraging the collector to run.</p>
+   *
+   * @return the number of bytes of heap in use
+   */
+  private static long usedHeap() {
+    Runtime runtime = Runtime.getRuntime();
+    for (int i = 0; i < 4; i++) {
+      System.gc();
+    }
+    return runtime.totalMemory() - runtime.freeMemory();
+  }
+}
@@ -0,0 +1,101 @@
+package benchmark;
+
+import cs3500.animator.model.AnimatorModel;
+import cs3500.animator.model.shape.ShapeType;
+import java.awt.Color;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * <p>Measures how long {@link AnimatorModel#getFrame(int)} takes sequentially and in parallel,
+ * for frames of increasing numbers of shapes, to find the frame size above which computing in
+ * parallel pays off on this machine. That size is a good threshold for
+ * {@link AnimatorModel#setParallelFrames(ForkJoinPool, int)}.</p>
+ *
+ * <p>Usage: {@code ParallelFrameBenchmark [shapes...]}, defaulting to 250 to 64000 shapes.</p>
+ */
+public class ParallelFrameBenchmark {
+
+  private static final int TICKS = 200;
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param args frame sizes to measure, in shapes
+   */
+  public static void main(String[] args) {
+    int[] sizes = {250, 500, 1000, 2000, 4000, 8000, 16000, 32000, 64000};
+    if (args.length > 0) {
+      sizes = new int[args.length];
+      for (int i = 0; i < args.length; i++) {
+        sizes[i] = Integer.parseInt(args[i]);
+      }
+    }
+    ForkJoinPool pool = ForkJoinPool.commonPool();
+    System.out.printf("%d cores, parallelism %d%n",
+        Runtime.getRuntime().availableProcessors(), pool.getParallelism());
+
+    int crossover = -1;
+    for (int size : sizes) {
+      AnimatorModel model = makeModel(size);
+      double sequential = microsPerFrame(model);
+      // split into one piece per worker, but never below a few hundred shapes
+      model.setParallelFrames(pool, Math.max(256, size / (pool.getParallelism() * 4)));
+      double parallel = microsPerFrame(model);
+      model.setParallelFrames(null, 1);
+      System.out.printf("%,7d shapes: sequential %,10.1f us/frame, parallel %,10.1f us/frame%n",
+          size, sequential, parallel);
+      if (crossover < 0 && parallel < sequential) {
+        crossover = size;
+      }
+    }
+    System.out.println(crossover < 0 ? "parallel never faster at these sizes"
+        : "parallel faster from " + crossover + " shapes");
+  }
+
+  /**
+   * <p>Make a model of the given number of shapes, all present and moving for the whole
+   * animation, with a keyframe every 10 ticks.</p>
+   *
+   * @param shapes number of shapes
+   * @return a new model
+   */
+  private static AnimatorModel makeModel(int shapes) {
+    AnimatorModel model = new AnimatorModel();
+    for (int s = 0; s < shapes; s++) {
+      String id = "S" + s;
+      model.addShape(id, ShapeType.RECTANGLE);
+      for (int tick = 0; tick <= TICKS; tick += 10) {
+        model.addKeyFrame(tick, id, (s + tick) % 800, (s * 7 + tick) % 600, 10 + tick % 30,
+            10 + s % 30, new Color((s + tick) % 256, s % 256, tick % 256));
+      }
+    }
+    return model;
+  }
+
+  /**
+   * <p>Return the average time taken to compute a frame of the given model, after warming
+   * up.</p>
+   *
+   * @param model the model
+   * @return the average time per frame, in microseconds
+   */
+  private static double microsPerFrame(AnimatorModel model) {
+    long checksum = 0;
+    for (int rep = 0; rep < 3; rep++) { // warm up
+      for (int tick = 0; tick <= TICKS; tick++) {
+        checksum += model.getFrame(tick).size();
+      }
+    }
+    long start = System.nanoTime();
+    for (int rep = 0; rep < 3; rep++) {
+      for (int tick = 0; tick <= TICKS; tick++) {
+        checksum += model.getFrame(tick).size();
+      }
+    }
+    long elapsed = System.nanoTime() - start;
+    if (checksum < 0) {
+      throw new IllegalStateException(); // keeps the frames from being optimized away
+    }
+    return elapsed / 1000.0 / (3 * (TICKS + 1));
+  }
+}
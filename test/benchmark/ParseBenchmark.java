@@ -0,0 +1,142 @@
+package benchmark;
+
+import cs3500.animator.model.AnimatorModel;
+import cs3500.animator.model.ColumnarBuilder;
+import cs3500.animator.util.AnimationBuilder;
+import cs3500.animator.util.AnimationReader;
+import cs3500.animator.util.AnimationReader.Tokenizer;
+import cs3500.animator.util.BinaryAnimationReader;
+import cs3500.animator.util.BinaryAnimationWriter;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * <p>Compares how fast {@link AnimationReader} reads an animation with each of its tokenizers, in
+ * megabytes of input per second: once into a builder that only adds up what it is given (so
+ * mostly the cost of tokenizing is measured), once into an {@link AnimatorModel}, and once into
+ * one built by a {@link ColumnarBuilder}. The input
+ * is read into memory first, except for the mapped runs, which map the file and split it into
+ * tokens in parallel on the common pool. Last, the same animation is read from the binary format
+ * (written to memory first), with its rate given in megabytes of the text input, so that it can be
+ * compared with the others.</p>
+ *
+ * <p>Usage: {@code ParseBenchmark [file [runs]]}, defaulting to the bigbang input and 10 runs of
+ * each.</p>
+ */
+public class ParseBenchmark {
+
+  /**
+   * A builder that only adds up the numbers it is given.
+   */
+  private static class SummingBuilder implements AnimationBuilder<Long> {
+
+    private long sum;
+
+    @Override
+    public Long build() {
+      return this.sum;
+    }
+
+    @Override
+    public AnimationBuilder<Long> setBounds(int x, int y, int width, int height) {
+      this.sum += x + y + width + height;
+      return this;
+    }
+
+    @Override
+    public AnimationBuilder<Long> declareShape(String name, String type) {
+      this.sum += name.length() + type.length();
+      return this;
+    }
+
+    @Override
+    public AnimationBuilder<Long> addMotion(String name, int t1, int x1, int y1, int w1, int h1,
+        int r1, int g1, int b1, int t2, int x2, int y2, int w2, int h2, int r2, int g2, int b2) {
+      this.sum += name.length() + t1 + x1 + y1 + w1 + h1 + r1 + g1 + b1
+          + t2 + x2 + y2 + w2 + h2 + r2 + g2 + b2;
+      return this;
+    }
+  }
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param args animation file, and number of runs
+   * @throws IOException if the file cannot be read
+   */
+  public static void main(String[] args) throws IOException {
+    String file = args.length > 0 ? args[0] : "resources/bigbang.txt";
+    int runs = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+    Path path = Paths.get(file);
+    String input = new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+    double megabytes = input.length() / 1e6;
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    BinaryAnimationWriter.write(
+        AnimationReader.parseFile(new StringReader(input), AnimatorModel.getBuilder()), bytes);
+    byte[] binary = bytes.toByteArray();
+
+    for (int round = 0; round < 3; round++) { // the first rounds warm up
+      StringBuilder line = new StringBuilder(file).append(':');
+      for (Tokenizer tokenizer : Tokenizer.values()) {
+        long start = System.nanoTime();
+        for (int i = 0; i < runs; i++) {
+          AnimationReader.parseFile(new StringReader(input), new SummingBuilder(), tokenizer);
+        }
+        double tokenizeRate = megabytes * runs / ((System.nanoTime() - start) / 1e9);
+
+        start = System.nanoTime();
+        for (int i = 0; i < runs; i++) {
+          AnimationReader.parseFile(new StringReader(input), AnimatorModel.getBuilder(), tokenizer);
+        }
+        double modelRate = megabytes * runs / ((System.nanoTime() - start) / 1e9);
+
+        start = System.nanoTime();
+        for (int i = 0; i < runs; i++) {
+          AnimationReader.parseFile(new StringReader(input), new ColumnarBuilder(), tokenizer);
+        }
+        double columnarRate = megabytes * runs / ((System.nanoTime() - start) / 1e9);
+
+        line.append(String.format(" %s %,.1f MB/s (%,.1f MB/s into a model, %,.1f MB/s columnar);",
+            tokenizer, tokenizeRate, modelRate, columnarRate));
+      }
+      long start = System.nanoTime();
+      for (int i = 0; i < runs; i++) {
+        AnimationReader.parseFile(path, new SummingBuilder(), ForkJoinPool.commonPool());
+      }
+      double tokenizeRate = megabytes * runs / ((System.nanoTime() - start) / 1e9);
+
+      start = System.nanoTime();
+      for (int i = 0; i < runs; i++) {
+        AnimationReader.parseFile(path, AnimatorModel.getBuilder(), ForkJoinPool.commonPool());
+      }
+      double modelRate = megabytes * runs / ((System.nanoTime() - start) / 1e9);
+
+      line.append(String.format(" mapped (%d threads) %,.1f MB/s (%,.1f MB/s into a model);",
+          ForkJoinPool.commonPool().getParallelism(), tokenizeRate, modelRate));
+
+      start = System.nanoTime();
+      for (int i = 0; i < runs; i++) {
+        BinaryAnimationReader.parseFile(new ByteArrayInputStream(binary), new SummingBuilder());
+      }
+      tokenizeRate = megabytes * runs / ((System.nanoTime() - start) / 1e9);
+
+      start = System.nanoTime();
+      for (int i = 0; i < runs; i++) {
+        BinaryAnimationReader.parseFile(new ByteArrayInputStream(binary),
+            AnimatorModel.getBuilder());
+      }
+      modelRate = megabytes * runs / ((System.nanoTime() - start) / 1e9);
+
+      line.append(String.format(" binary (%,d bytes) %,.1f MB/s (%,.1f MB/s into a model)",
+          binary.length, tokenizeRate, modelRate));
+      System.out.println(line);
+    }
+  }
+}
@@ -0,0 +1,99 @@
+package benchmark;
+
+import cs3500.animator.model.AnimatorModel;
+import cs3500.animator.model.IAnimatorModel;
+import cs3500.animator.model.shape.IModelShape;
+import cs3500.animator.util.AnimationReader;
+import cs3500.animator.view.SVGAnimationView;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * <p>Measures how fast {@link SVGAnimationView} writes an animation, in megabytes of SVG per
+ * second, both into a {@link StringBuilder} and into a {@link Writer} that discards what it is
+ * given (so only the cost of producing the text is measured), and into the same writer rendering
+ * shapes in parallel on the common pool.</p>
+ *
+ * <p>Usage: {@code SVGThroughputBenchmark [file [runs]]}, defaulting to the bigbangplus input and
+ * 20 runs of each.</p>
+ */
+public class SVGThroughputBenchmark {
+
+  /**
+   * A writer that only counts the characters it is given.
+   */
+  private static class CountingWriter extends Writer {
+
+    private long count;
+
+    @Override
+    public void write(char[] cbuf, int off, int len) {
+      this.count += len;
+    }
+
+    @Override
+    public void write(String str, int off, int len) {
+      this.count += len;
+    }
+
+    @Override
+    public void flush() {
+      // nothing to flush
+    }
+
+    @Override
+    public void close() {
+      // nothing to close
+    }
+  }
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param args animation file, and number of runs
+   * @throws IOException if the file cannot be read
+   */
+  public static void main(String[] args) throws IOException {
+    String file = args.length > 0 ? args[0] : "resources/bigbangplus.txt";
+    int runs = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+    IAnimatorModel<IModelShape> model;
+    try (Reader in = new FileReader(file)) {
+      model = AnimationReader.parseFile(in, AnimatorModel.getBuilder());
+    }
+
+    for (int round = 0; round < 3; round++) { // the first rounds warm up
+      long chars = 0;
+      long start = System.nanoTime();
+      for (int i = 0; i < runs; i++) {
+        StringBuilder out = new StringBuilder();
+        new SVGAnimationView(model, out, 20).render();
+        chars += out.length();
+      }
+      double builderRate = chars / ((System.nanoTime() - start) / 1e9) / 1e6;
+
+      CountingWriter counter = new CountingWriter();
+      start = System.nanoTime();
+      for (int i = 0; i < runs; i++) {
+        new SVGAnimationView(model, counter, 20).render();
+      }
+      double writerRate = counter.count / ((System.nanoTime() - start) / 1e9) / 1e6;
+
+      counter = new CountingWriter();
+      start = System.nanoTime();
+      for (int i = 0; i < runs; i++) {
+        SVGAnimationView view = new SVGAnimationView(model, counter, 20);
+        view.setParallelRendering(ForkJoinPool.commonPool());
+        view.render();
+      }
+      double parallelRate = counter.count / ((System.nanoTime() - start) / 1e9) / 1e6;
+
+      System.out.printf("%s: %,.1f MB of SVG per render; StringBuilder %,.1f MB/s, "
+              + "Writer %,.1f MB/s, Writer in parallel (%d threads) %,.1f MB/s%n",
+          file, chars / 1e6 / runs, builderRate, writerRate,
+          ForkJoinPool.commonPool().getParallelism(), parallelRate);
+    }
+  }
+}
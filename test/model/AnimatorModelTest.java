@@ -15,8 +15,11 @@ import cs3500.animator.model.shape.ModelShape;
 import cs3500.animator.model.shape.ShapeType;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Random;
 import org.junit.Test;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
 
 /**
  * Tests for {@link AnimatorModel}.
@@ -362,6 +365,33 @@ public class AnimatorModelTest {
     model.sendToBack("T");
   }
 
+  @Test
+  public void reorderManyShapes() {
+    IAnimatorModel<IModelShape> model = this.getModel();
+    List<String> expected = new ArrayList<>();
+    for (int i = 0; i < 50; i++) {
+      model.addShape("S" + i, ShapeType.RECTANGLE);
+      expected.add("S" + i);
+    }
+    // same moves on the model and on a plain list
+    for (int i = 0; i < 200; i++) {
+      String id = "S" + (i * 37 % 50);
+      expected.remove(id);
+      if (i % 3 == 0) {
+        model.sendToBack(id);
+        expected.add(0, id);
+      } else if (i % 3 == 1) {
+        model.bringToFront(id);
+        expected.add(id);
+      } else {
+        model.removeShape(id);
+        model.addShape(id, ShapeType.ELLIPSE);
+        expected.add(id);
+      }
+    }
+    assertEquals(expected, model.getShapeIds());
+  }
+
   @Test
   public void removeOneShape() {
     IAnimatorModel<IModelShape> model = this.getSimpleModel();
@@ -601,6 +631,180 @@ public class AnimatorModelTest {
     assertEquals(80, model.findNextKeyFrame(70, "C"));
   }
 
+  @Test
+  public void findKeyFramesAddedOutOfOrder() {
+    IAnimatorModel<IModelShape> model = this.getModel();
+    model.addShape("R", ShapeType.RECTANGLE);
+    model.addKeyFrame(30, "R", 0, 0, 10, 10, Color.RED);
+    model.addKeyFrame(5, "R", 0, 0, 10, 10, Color.RED);
+    model.addKeyFrame(17, "R", 0, 0, 10, 10, Color.RED);
+    assertEquals(5, model.findNextKeyFrame(-1, "R"));
+    assertEquals(17, model.findNextKeyFrame(5, "R"));
+    assertEquals(17, model.findPrevKeyFrame(30, "R"));
+    assertEquals(5, model.findPrevKeyFrame(17, "R"));
+    assertEquals(17, model.findPrevKeyFrame(20, "R"));
+    assertEquals(30, model.findNextKeyFrame(20, "R"));
+    assertEquals(new ArrayList<>(Arrays.asList(5, 17, 30)),
+        new ArrayList<>(model.getKeyFrames("R").keySet()));
+  }
+
+  @Test
+  public void findKeyFramesAfterRemoval() {
+    IAnimatorModel<IModelShape> model = this.getSimpleModel();
+    model.removeKeyFrame(50, "R");
+    assertEquals(51, model.findNextKeyFrame(10, "R"));
+    assertEquals(10, model.findPrevKeyFrame(51, "R"));
+    assertEquals(5, model.getKeyFrames("R").size());
+  }
+
+  @Test
+  public void getFrameOnlyShapesPresent() {
+    IAnimatorModel<IModelShape> model = this.getModel();
+    // shape i is present from tick i to tick 2i + 3, so lifetimes overlap in many ways
+    for (int i = 0; i < 40; i++) {
+      model.addShape("S" + i, ShapeType.RECTANGLE);
+      model.addKeyFrame(i, "S" + i, i, 0, 10, 10, Color.RED);
+      model.addKeyFrame(2 * i + 3, "S" + i, i, 0, 10, 10, Color.RED);
+    }
+    model.addShape("empty", ShapeType.ELLIPSE); // never present
+
+    for (int tick = 0; tick <= model.getEndTick(); tick++) {
+      // each shape's x position (give or take interpolation error) identifies it
+      List<Long> expected = new ArrayList<>();
+      for (int i = 0; i < 40; i++) {
+        if (tick >= i && tick <= 2 * i + 3) {
+          expected.add((long) i);
+        }
+      }
+      List<Long> actual = new ArrayList<>();
+      for (IModelShape shape : model.getFrame(tick)) {
+        actual.add(Math.round(shape.getX()));
+      }
+      assertEquals(expected, actual);
+    }
+  }
+
+  @Test
+  public void getFrames() {
+    IAnimatorModel<IModelShape> model = this.getSimpleModel();
+    model.getNextFrame();
+    List<List<IModelShape>> expected = new ArrayList<>();
+    for (int tick = 5; tick <= 80; tick++) {
+      expected.add(model.getFrame(tick));
+    }
+    assertEquals(expected, model.getFrames(5, 80).collect(Collectors.toList()));
+    assertEquals(expected, model.getFrames(5, 80).parallel().collect(Collectors.toList()));
+    assertEquals(Collections.singletonList(model.getFrame(100)),
+        model.getFrames(100, 100).collect(Collectors.toList()));
+    // playback position is untouched
+    assertEquals(model.getFrame(1), model.getNextFrame());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void getFramesBackwards() {
+    this.getSimpleModel().getFrames(10, 9);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void getFramesPastEnd() {
+    this.getSimpleModel().getFrames(0, 101);
+  }
+
+  @Test
+  public void getFrameInParallel() {
+    AnimatorModel model = new AnimatorModel();
+    for (int i = 0; i < 300; i++) {
+      model.addShape("S" + i, i % 2 == 0 ? ShapeType.RECTANGLE : ShapeType.ELLIPSE);
+      model.addKeyFrame(i % 7, "S" + i, i, 0, 10, 10, Color.RED);
+      model.addKeyFrame(20 + i % 5, "S" + i, 0, i, 20, 5, new Color(i % 256, 0, 100));
+    }
+    List<List<IModelShape>> expected = new ArrayList<>();
+    for (int tick = 0; tick <= model.getEndTick(); tick++) {
+      expected.add(model.getFrame(tick));
+    }
+
+    ForkJoinPool pool = new ForkJoinPool(4);
+    model.setParallelFrames(pool, 16);
+    for (int tick = 0; tick <= model.getEndTick(); tick++) {
+      assertEquals(expected.get(tick), model.getFrame(tick));
+      assertEquals(expected.get(tick), model.getNextFrame());
+    }
+    pool.shutdown();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void setParallelFramesZeroThreshold() {
+    new AnimatorModel().setParallelFrames(ForkJoinPool.commonPool(), 0);
+  }
+
+  @Test
+  public void getFrameAfterChangingShapes() {
+    IAnimatorModel<IModelShape> model = this.getSimpleModel();
+    assertEquals(1, model.getFrame(3).size());
+
+    // lengthen C's lifetime back to tick 2, then put it underneath R
+    model.addKeyFrame(2, "C", 440, 70, 120, 60, Color.BLUE);
+    model.sendToBack("C");
+    assertEquals(Arrays.asList(
+        new ModelShape(ShapeType.ELLIPSE, 440, 70, 120, 60, Color.BLUE),
+        new ModelShape(ShapeType.RECTANGLE, 200, 200, 50, 100, Color.RED)),
+        model.getFrame(3));
+
+    model.removeShape("R");
+    assertEquals(Collections.singletonList(
+        new ModelShape(ShapeType.ELLIPSE, 440, 70, 120, 60, Color.BLUE)), model.getFrame(3));
+    model.removeKeyFrame(2, "C");
+    assertEquals(Collections.emptyList(), model.getFrame(3));
+  }
+
+  /**
+   * <p>Return a new plain model with the same shapes and keyframes as the given one, in the same
+   * layering order.</p>
+   *
+   * @param model the model to copy
+   * @return the copy
+   */
+  private static IAnimatorModel<IModelShape> copyOf(IAnimatorModel<IModelShape> model) {
+    IAnimatorModel<IModelShape> copy = new AnimatorModel();
+    for (String id : model.getShapeIds()) {
+      copy.addShape(id, model.getShapeType(id));
+      for (Map.Entry<Integer, IModelShape> keyframe : model.getKeyFrames(id).entrySet()) {
+        IModelShape state = keyframe.getValue();
+        copy.addKeyFrame(keyframe.getKey(), id, state.getX(), state.getY(), state.getWidth(),
+            state.getHeight(), state.getColor());
+      }
+    }
+    return copy;
+  }
+
+  @Test
+  public void getFrameBetweenKeyFrameEdits() {
+    IAnimatorModel<IModelShape> model = this.getModel();
+    for (int s = 0; s < 40; s++) {
+      model.addShape("S" + s, ShapeType.RECTANGLE);
+      model.addKeyFrame(s, "S" + s, s, 0, 10, 10, Color.RED);
+      model.addKeyFrame(s + 20, "S" + s, s, 50, 10, 10, Color.BLUE);
+    }
+    // lengthen, shorten and empty lifetimes, one shape at a time, reading frames in between;
+    // enough shapes change that the index of lifetimes is also rebuilt along the way
+    Random random = new Random(6);
+    for (int edit = 0; edit < 300; edit++) {
+      String id = "S" + random.nextInt(40);
+      Map<Integer, IModelShape> keyframes = model.getKeyFrames(id);
+      if (keyframes.size() > 0 && random.nextBoolean()) {
+        List<Integer> ticks = new ArrayList<>(keyframes.keySet());
+        model.removeKeyFrame(ticks.get(random.nextInt(ticks.size())), id);
+      } else {
+        int tick = random.nextInt(80);
+        if (!keyframes.containsKey(tick)) {
+          model.addKeyFrame(tick, id, tick, tick, 10, 10, Color.GREEN);
+        }
+      }
+      int tick = random.nextInt(model.getEndTick() + 1);
+      assertEquals("edit " + edit, copyOf(model).getFrame(tick), model.getFrame(tick));
+    }
+  }
+
   @Test(expected = IllegalArgumentException.class)
   public void setBoundsZeroWidth() {
     this.getSimpleModel().setBounds(0, 0, 0, 600);
@@ -0,0 +1,183 @@
+package model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import cs3500.animator.model.AnimatorModel;
+import cs3500.animator.model.BakedTimeline;
+import cs3500.animator.model.IAnimatorModel;
+import cs3500.animator.model.shape.IModelShape;
+import cs3500.animator.model.shape.ShapeType;
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.Test;
+
+/**
+ * Tests for {@link BakedTimeline}.
+ */
+public class BakedTimelineTest {
+
+  /**
+   * <p>Factory method. Generates a model of a rectangle, an ellipse, and a shape with no
+   * keyframes.</p>
+   *
+   * @return a new model
+   */
+  private IAnimatorModel<IModelShape> getModel() {
+    IAnimatorModel<IModelShape> model = new AnimatorModel();
+    model.setBounds(10, 20, 300, 400);
+    model.addShape("R", ShapeType.RECTANGLE);
+    model.addKeyFrame(1, "R", 200, 200, 50, 100, Color.RED);
+    model.addKeyFrame(10, "R", 200, 200, 50, 100, Color.RED);
+    model.addKeyFrame(50, "R", 300, 300, 50, 100, Color.RED);
+    model.addShape("C", ShapeType.ELLIPSE);
+    model.addKeyFrame(6, "C", 440, 70, 120, 60, Color.BLUE);
+    model.addKeyFrame(20, "C", 440, 70, 120, 60, Color.BLUE);
+    model.addKeyFrame(70, "C", 440, 370, 120, 60, new Color(0, 170, 85));
+    model.addShape("E", ShapeType.PLUS); // never visible
+    return model;
+  }
+
+  /**
+   * <p>Assert that two frames hold the same shapes, allowing for the precision lost by storing
+   * positions and sizes as floats.</p>
+   *
+   * @param expected the expected frame
+   * @param actual   the actual frame
+   */
+  private void assertFramesClose(List<IModelShape> expected, List<IModelShape> actual) {
+    assertEquals(expected.size(), actual.size());
+    for (int i = 0; i < expected.size(); i++) {
+      IModelShape e = expected.get(i);
+      IModelShape a = actual.get(i);
+      assertEquals(e.getType(), a.getType());
+      assertEquals(e.getX(), a.getX(), 0.001);
+      assertEquals(e.getY(), a.getY(), 0.001);
+      assertEquals(e.getWidth(), a.getWidth(), 0.001);
+      assertEquals(e.getHeight(), a.getHeight(), 0.001);
+      assertEquals(e.getColor(), a.getColor());
+    }
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void testBakeNull() {
+    BakedTimeline.bake(null);
+  }
+
+  @Test
+  public void testFramesMatchModel() {
+    IAnimatorModel<IModelShape> model = this.getModel();
+    BakedTimeline baked = BakedTimeline.bake(model);
+    for (int tick = 0; tick <= model.getEndTick(); tick++) {
+      this.assertFramesClose(model.getFrame(tick), baked.getFrame(tick));
+    }
+  }
+
+  @Test
+  public void testGetFrames() {
+    BakedTimeline baked = BakedTimeline.bake(this.getModel());
+    List<List<IModelShape>> frames = baked.getFrames(2, baked.getEndTick())
+        .collect(Collectors.toList());
+    assertEquals(baked.getEndTick() - 1, frames.size());
+    for (int i = 0; i < frames.size(); i++) {
+      assertEquals(baked.getFrame(i + 2), frames.get(i));
+    }
+  }
+
+  @Test
+  public void testPlaybackMatchesModel() {
+    IAnimatorModel<IModelShape> model = this.getModel();
+    BakedTimeline baked = BakedTimeline.bake(model);
+    while (model.hasNextFrame()) {
+      assertTrue(baked.hasNextFrame());
+      this.assertFramesClose(model.getNextFrame(), baked.getNextFrame());
+    }
+    assertFalse(baked.hasNextFrame());
+    baked.reset();
+    model.reset();
+    this.assertFramesClose(model.getNextKeyFrame(), baked.getNextKeyFrame());
+    assertEquals(model.hasNextFrame(), baked.hasNextFrame());
+  }
+
+  @Test
+  public void testUnaffectedByLaterChanges() {
+    IAnimatorModel<IModelShape> model = this.getModel();
+    BakedTimeline baked = BakedTimeline.bake(model);
+    String before = baked.toString();
+    model.removeShape("C");
+    model.addKeyFrame(60, "R", 0, 0, 1, 1, Color.BLACK);
+    assertEquals(70, baked.getEndTick());
+    assertEquals(2, baked.getFrame(30).size());
+    assertEquals(before, baked.toString());
+  }
+
+  @Test
+  public void testObservers() {
+    IAnimatorModel<IModelShape> model = this.getModel();
+    BakedTimeline baked = BakedTimeline.bake(model);
+    assertEquals(model.toString(), baked.toString());
+    assertEquals(new ArrayList<>(Arrays.asList("R", "C", "E")), baked.getShapeIds());
+    assertEquals(model.getShapes(), baked.getShapes());
+    assertEquals(ShapeType.ELLIPSE, baked.getShapeType("C"));
+    assertEquals(model.getKeyFrames("C"), baked.getKeyFrames("C"));
+    assertEquals(10, baked.findPrevKeyFrame(50, "R"));
+    assertEquals(-1, baked.findNextKeyFrame(50, "R"));
+    assertEquals(20, baked.findNextKeyFrame(6, "C"));
+    assertEquals(10, baked.getX());
+    assertEquals(20, baked.getY());
+    assertEquals(300, baked.getWidth());
+    assertEquals(400, baked.getHeight());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testGetFrameOutOfRange() {
+    BakedTimeline.bake(this.getModel()).getFrame(71);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testGetKeyFramesInvalidId() {
+    BakedTimeline.bake(this.getModel()).getKeyFrames("A");
+  }
+
+  @Test
+  public void testTooLargeToBake() {
+    int limit = Integer.MAX_VALUE / 4;
+    // one shape present over more ticks than fit, over ticks too late to fit, and over so many
+    // ticks that counting them overflows an int
+    int[][] lifetimes = {{0, limit}, {limit + 1, limit + 1}, {0, Integer.MAX_VALUE}};
+    for (int[] lifetime : lifetimes) {
+      IAnimatorModel<IModelShape> model = new AnimatorModel();
+      model.addShape("R", ShapeType.RECTANGLE);
+      model.addKeyFrame(lifetime[0], "R", 0, 0, 1, 1, Color.RED);
+      model.addKeyFrame(lifetime[1], "R", 0, 0, 1, 1, Color.RED);
+      try {
+        BakedTimeline.bake(model);
+        fail("Expected " + Arrays.toString(lifetime) + " to be too large to bake");
+      } catch (IllegalArgumentException e) {
+        assertEquals("Animation is too large to bake!", e.getMessage());
+      }
+    }
+  }
+
+  @Test
+  public void testReportsCost() {
+    BakedTimeline baked = BakedTimeline.bake(this.getModel());
+    // R is present for ticks 1 to 50, C for ticks 6 to 70
+    assertEquals(50 + 65, baked.getBakedStateCount());
+    assertTrue(baked.getBakedBytes() > 24L * baked.getBakedStateCount());
+    assertTrue(baked.getBakeTimeNanos() > 0);
+  }
+
+  @Test
+  public void testEmptyModel() {
+    BakedTimeline baked = BakedTimeline.bake(new AnimatorModel());
+    assertEquals(-1, baked.getEndTick());
+    assertFalse(baked.hasNextFrame());
+    assertEquals(0, baked.getBakedStateCount());
+  }
+}
@@ -0,0 +1,137 @@
+package model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import cs3500.animator.model.AnimatorModel;
+import cs3500.animator.model.ColumnarBuilder;
+import cs3500.animator.model.IAnimatorModel;
+import cs3500.animator.model.shape.IModelShape;
+import cs3500.animator.util.AnimationBuilder;
+import cs3500.animator.util.AnimationReader;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.util.Map;
+import org.junit.Test;
+
+/**
+ * Tests for {@link ColumnarBuilder}: it builds the same models as {@link AnimatorModel.Builder},
+ * and fails on the same input with the same errors.
+ */
+public class ColumnarBuilderTest {
+
+  /**
+   * <p>Read the given input with the given builder, and describe the resulting model, or the
+   * exception thrown.</p>
+   */
+  private static String parse(String input, AnimationBuilder<IAnimatorModel<IModelShape>> builder) {
+    try {
+      return AnimationReader.parseFile(new StringReader(input), builder).toString();
+    } catch (RuntimeException e) {
+      return e.getClass().getName() + ": " + e.getMessage();
+    }
+  }
+
+  /**
+   * <p>Check that both builders read the given input the same way, in both storage modes,
+   * returning the result.</p>
+   */
+  private static String parseBoth(String input) {
+    String expected = parse(input, AnimatorModel.getBuilder());
+    assertEquals(expected, parse(input, new ColumnarBuilder()));
+    assertEquals(expected, parse(input, new ColumnarBuilder(true)));
+    return expected;
+  }
+
+  @Test
+  public void sameModels() throws IOException {
+    for (String file : new String[]{"bigbang.txt", "bigbangplus.txt", "pong.txt",
+        "rainbow-plus.txt", "snowman.txt"}) {
+      IAnimatorModel<IModelShape> expected;
+      IAnimatorModel<IModelShape> actual;
+      try (InputStream in = new FileInputStream("resources/" + file)) {
+        expected = AnimationReader.parseFile(in, AnimatorModel.getBuilder());
+      }
+      try (InputStream in = new FileInputStream("resources/" + file)) {
+        actual = AnimationReader.parseFile(in, new ColumnarBuilder());
+      }
+      assertEquals(file, expected.toString(), actual.toString());
+      assertEquals(file, expected.getShapeIds(), actual.getShapeIds());
+      assertEquals(file, expected.getEndTick(), actual.getEndTick());
+    }
+  }
+
+  @Test
+  public void motionsOutOfOrder() {
+    // motions listed backwards, and repeated, still make the same keyframes
+    String input = "canvas 0 0 100 100\n"
+        + "shape R rectangle\n"
+        + "shape C ellipse\n"
+        + "motion R 20 5 5 1 1 0 0 0   30 6 6 1 1 0 0 0\n"
+        + "motion C 0 0 0 2 2 9 9 9   0 0 0 2 2 9 9 9\n"
+        + "motion R 10 4 4 1 1 0 0 0   20 5 5 1 1 0 0 0\n"
+        + "motion R 0 3 3 1 1 0 0 0   10 4 4 1 1 0 0 0\n"
+        + "motion R 10 4 4 1 1 0 0 0   20 5 5 1 1 0 0 0\n";
+    assertEquals(parse(input, AnimatorModel.getBuilder()), parseBoth(input));
+  }
+
+  @Test
+  public void shapesWithoutKeyFrames() {
+    parseBoth("canvas 0 0 100 100\nshape R rectangle\nshape C ellipse\n"
+        + "motion C 1 0 0 2 2 9 9 9   5 0 0 2 2 9 9 9\nshape P plus\n");
+  }
+
+  @Test
+  public void sameErrors() {
+    String shapes = "canvas 0 0 100 100\nshape R rectangle\nshape C ellipse\n";
+    String motion = "motion R 10 4 4 1 1 0 0 0   20 5 5 1 1 0 0 0\n";
+    // conflicts with the end of the last motion, the start of its own, or any other keyframe
+    assertEquals("java.lang.IllegalArgumentException: "
+            + "New keyframe conflicts with existing keyframe!",
+        parseBoth(shapes + motion + "motion R 20 6 5 1 1 0 0 0   30 5 5 1 1 0 0 0\n"));
+    parseBoth(shapes + "motion R 5 0 0 1 1 0 0 0   5 0 0 1 1 0 0 1\n");
+    parseBoth(shapes + motion + "motion R 0 0 0 1 1 0 0 0   10 4 4 1 1 0 0 1\n");
+    parseBoth(shapes + motion + "motion C 0 0 0 1 1 0 0 0   5 4 4 1 1 0 0 1\n"
+        + "motion R 0 0 0 1 1 0 0 0   20 5 6 1 1 0 0 0\n");
+    // other bad motions
+    assertEquals("java.lang.IllegalArgumentException: Shape with the given ID does not exist!",
+        parseBoth(shapes + "motion Q 0 0 0 1 1 0 0 0   5 4 4 1 1 0 0 1\n"));
+    assertEquals("java.lang.IllegalArgumentException: Tick cannot be negative!",
+        parseBoth(shapes + "motion R -1 0 0 1 1 0 0 0   5 4 4 1 1 0 0 1\n"));
+    assertEquals("java.lang.IllegalArgumentException: Dimensions cannot be negative!",
+        parseBoth(shapes + "motion R 1 0 0 -5 10 0 0 0   5 4 4 1 1 0 0 0\n"));
+    parseBoth(shapes + "motion R 1 0 0 5 10 0 0 0   5 4 4 1 -1 0 0 0\n");
+    parseBoth(shapes + motion + "motion R 20 6 5 -1 1 0 0 0   30 5 5 1 1 0 0 0\n");
+    parseBoth(shapes + "motion R -1 0 0 -5 1 0 0 0   5 4 4 1 1 0 0 0\n");
+    parseBoth(shapes + "motion R 1 0 0 1 1 0 0 0   5 4 4 1 1 0 0 256\n");
+    parseBoth(shapes + "motion Q 1 0 0 1 1 0 -1 0   5 4 4 1 1 0 0 0\n");
+    parseBoth(shapes + motion + "motion R 20 6 5 1 1 0 0 0   30 5 5 1 1 0 0 256\n");
+    parseBoth(shapes + "shape R ellipse\n");
+    parseBoth(shapes + "shape H hexagon\n");
+  }
+
+  @Test
+  public void buildTwice() {
+    AnimationBuilder<IAnimatorModel<IModelShape>> builder = new ColumnarBuilder();
+    builder.declareShape("R", "rectangle");
+    builder.addMotion("R", 0, 0, 0, 1, 1, 0, 0, 0, 10, 5, 5, 1, 1, 0, 0, 0);
+    IAnimatorModel<IModelShape> model = builder.build();
+    String built = model.toString();
+    assertSame(model, builder.build());
+    assertEquals(built, model.toString());
+  }
+
+  @Test
+  public void internsKeyFrames() {
+    AnimationBuilder<IAnimatorModel<IModelShape>> builder = new ColumnarBuilder();
+    builder.declareShape("R", "rectangle");
+    builder.addMotion("R", 0, 1, 2, 3, 4, 10, 20, 30, 5, 1, 2, 3, 4, 10, 20, 30);
+    builder.addMotion("R", 5, 1, 2, 3, 4, 10, 20, 30, 9, 7, 2, 3, 4, 10, 20, 30);
+    Map<Integer, IModelShape> keyframes = builder.build().getKeyFrames("R");
+    assertEquals(3, keyframes.size());
+    assertSame(keyframes.get(0), keyframes.get(5));
+    assertSame(keyframes.get(0).getColor(), keyframes.get(9).getColor());
+  }
+}
@@ -0,0 +1,17 @@
+package model;
+
+import cs3500.animator.model.AnimatorModel;
+import cs3500.animator.model.IAnimatorModel;
+import cs3500.animator.model.shape.IModelShape;
+
+/**
+ * Tests for {@link AnimatorModel}s that store keyframes as primitive arrays. Runs every test in
+ * {@link AnimatorModelTest} against a compact model.
+ */
+public class CompactAnimatorModelTest extends AnimatorModelTest {
+
+  @Override
+  public IAnimatorModel<IModelShape> getModel() {
+    return new AnimatorModel(true);
+  }
+}
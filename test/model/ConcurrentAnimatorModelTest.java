@@ -0,0 +1,390 @@
+package model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import cs3500.animator.model.AnimatorModel;
+import cs3500.animator.model.ConcurrentAnimatorModel;
+import cs3500.animator.model.IAnimatorModel;
+import cs3500.animator.model.IReadOnlyAnimatorModel;
+import cs3500.animator.model.MotionOrder;
+import cs3500.animator.model.shape.IModelShape;
+import cs3500.animator.model.shape.ShapeType;
+import cs3500.animator.util.AnimationBuilder;
+import cs3500.animator.util.AnimationReader;
+import java.awt.Color;
+import java.io.ByteArrayInputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.Test;
+
+/**
+ * Tests for {@link ConcurrentAnimatorModel}: every test of a plain model, plus readers and writers
+ * on several threads at once.
+ */
+public class ConcurrentAnimatorModelTest extends AnimatorModelTest {
+
+  private static final int READERS = 4;
+  private static final int WRITES = 2000;
+
+  @Override
+  public IAnimatorModel<IModelShape> getModel() {
+    return new ConcurrentAnimatorModel();
+  }
+
+  /**
+   * <p>Check that the given frame is consistent: the shape S, which always moves from (0, 0) at
+   * tick 0 to (100, 200) at tick 100, is at the bottom and in the right place, and any other
+   * shapes (which come and go) are squares.</p>
+   *
+   * @param tick  tick of the frame
+   * @param frame the frame
+   */
+  private static void checkFrame(int tick, List<IModelShape> frame) {
+    assertTrue(frame.size() >= 1);
+    IModelShape bottom = frame.get(0);
+    assertEquals(ShapeType.ELLIPSE, bottom.getType());
+    assertEquals(tick, bottom.getX(), 1e-9);
+    assertEquals(2 * tick, bottom.getY(), 1e-9);
+    for (IModelShape other : frame.subList(1, frame.size())) {
+      assertEquals(other.getWidth(), other.getHeight(), 0);
+    }
+  }
+
+  @Test
+  public void readersDuringWrites() throws InterruptedException {
+    ConcurrentAnimatorModel model = new ConcurrentAnimatorModel();
+    model.addShape("S", ShapeType.ELLIPSE);
+    model.addKeyFrame(0, "S", 0, 0, 10, 10, Color.RED);
+    model.addKeyFrame(100, "S", 100, 200, 10, 10, Color.RED);
+
+    AtomicBoolean done = new AtomicBoolean(false);
+    AtomicReference<Throwable> failure = new AtomicReference<>();
+    AtomicLong frames = new AtomicLong();
+    List<Thread> readers = new ArrayList<>();
+    for (int r = 0; r < READERS; r++) {
+      Thread reader = new Thread(() -> {
+        Random random = new Random();
+        try {
+          while (!done.get()) {
+            int tick = random.nextInt(101);
+            checkFrame(tick, model.getFrame(tick));
+            // a snapshot stays consistent across calls
+            IReadOnlyAnimatorModel<IModelShape> snapshot = model.snapshot();
+            for (String id : snapshot.getShapeIds()) {
+              assertEquals(snapshot.getKeyFrames(id).isEmpty(),
+                  snapshot.findNextKeyFrame(-1, id) == -1);
+            }
+            frames.incrementAndGet();
+          }
+        } catch (Throwable e) {
+          failure.compareAndSet(null, e);
+        }
+      });
+      readers.add(reader);
+      reader.start();
+    }
+
+    // the writer adds keyframes on S's path, and adds and removes squares over it
+    Random random = new Random(3500);
+    for (int i = 0; i < WRITES && failure.get() == null; i++) {
+      int tick = 1 + random.nextInt(99);
+      if (model.getKeyFrames("S").containsKey(tick)) {
+        model.removeKeyFrame(tick, "S");
+      } else {
+        model.addKeyFrame(tick, "S", tick, 2 * tick, 10, 10, Color.RED);
+      }
+      String square = "Q" + random.nextInt(10);
+      if (model.getShapes().containsKey(square)) {
+        model.removeShape(square);
+      } else {
+        model.addShape(square, ShapeType.RECTANGLE);
+        model.addKeyFrame(tick, square, 0, 0, tick, tick, Color.BLUE);
+        model.addKeyFrame(tick + 1, square, 5, 5, tick + 1, tick + 1, Color.BLUE);
+      }
+    }
+    done.set(true);
+    for (Thread reader : readers) {
+      reader.join();
+    }
+    if (failure.get() != null) {
+      throw new AssertionError(failure.get());
+    }
+    assertTrue(frames.get() > 0);
+  }
+
+  @Test
+  public void playbackAcrossThreads() throws InterruptedException {
+    ConcurrentAnimatorModel model = new ConcurrentAnimatorModel();
+    model.addShape("S", ShapeType.ELLIPSE);
+    model.addKeyFrame(0, "S", 0, 0, 10, 10, Color.RED);
+    model.addKeyFrame(999, "S", 999, 1998, 10, 10, Color.RED);
+
+    // every frame is played exactly once, whichever thread plays it
+    AtomicLong played = new AtomicLong();
+    List<Thread> players = new ArrayList<>();
+    for (int p = 0; p < READERS; p++) {
+      Thread player = new Thread(() -> {
+        while (true) {
+          try {
+            model.getNextFrame();
+            played.incrementAndGet();
+          } catch (IllegalStateException e) {
+            return; // no more frames
+          }
+        }
+      });
+      players.add(player);
+      player.start();
+    }
+    for (Thread player : players) {
+      player.join();
+    }
+    assertEquals(1000, played.get());
+  }
+
+  /**
+   * <p>Load an animation of a few shapes, each moving one step per tick, in order of the motions'
+   * start ticks, into the given builder.</p>
+   *
+   * @param builder the builder
+   * @param ticks   the number of ticks
+   * @return the built animation
+   */
+  private static IAnimatorModel<IModelShape> loadInOrder(
+      AnimationBuilder<IAnimatorModel<IModelShape>> builder, int ticks) {
+    builder.setBounds(0, 0, 100, 100);
+    for (int s = 0; s < 3; s++) {
+      builder.declareShape("S" + s, "rectangle");
+    }
+    for (int t = 0; t < ticks; t++) {
+      for (int s = 0; s < 3; s++) {
+        builder.addMotion("S" + s, t, t, s, 5, 5, s, 0, 0, t + 1, t + 1, s, 5, 5, s, 0, 0);
+      }
+    }
+    return builder.build();
+  }
+
+  @Test
+  public void progressiveWatermark() {
+    ConcurrentAnimatorModel model = new ConcurrentAnimatorModel();
+    assertTrue(model.isLoaded());
+    AnimationBuilder<IAnimatorModel<IModelShape>> builder =
+        new ConcurrentAnimatorModel.Builder(model, true);
+    assertFalse(model.isLoaded());
+    assertEquals(-1, model.getLoadedTick());
+    builder.setBounds(0, 0, 100, 100);
+    builder.declareShape("R", "rectangle");
+    builder.declareShape("C", "ellipse");
+    builder.addMotion("R", 0, 0, 0, 5, 5, 0, 0, 0, 10, 10, 0, 5, 5, 0, 0, 0);
+    assertEquals(-1, model.getLoadedTick());
+    assertTrue(model.hasNextFrame());
+    assertFalse(model.isNextFrameLoaded());
+
+    builder.addMotion("C", 4, 0, 0, 5, 5, 0, 0, 0, 8, 10, 0, 5, 5, 0, 0, 0);
+    assertEquals(3, model.getLoadedTick());
+    assertTrue(model.isNextFrameLoaded());
+    for (int tick = 0; tick <= 3; tick++) {
+      assertEquals(1, model.getNextFrame().size());
+    }
+    assertTrue(model.hasNextFrame());
+    assertFalse(model.isNextFrameLoaded());
+    try {
+      model.getNextFrame();
+      fail("Expected the next frame not to be loaded");
+    } catch (IllegalStateException e) {
+      assertEquals("Next frame is not loaded yet!", e.getMessage());
+    }
+
+    // from C's first keyframe to its last, which comes before any still to be loaded
+    builder.addMotion("R", 10, 10, 0, 5, 5, 0, 0, 0, 20, 20, 0, 5, 5, 0, 0, 0);
+    assertEquals(9, model.getLoadedTick());
+    assertEquals(2, model.getNextKeyFrame().size());
+    assertEquals(2, model.getNextFrame().size());
+    assertEquals(1, model.getNextFrame().size());
+    assertFalse(model.isNextFrameLoaded());
+
+    builder.build();
+    assertTrue(model.isLoaded());
+    assertEquals(20, model.getEndTick());
+  }
+
+  @Test
+  public void progressiveOutOfOrder() {
+    ConcurrentAnimatorModel model = new ConcurrentAnimatorModel();
+    AnimationBuilder<IAnimatorModel<IModelShape>> builder =
+        new ConcurrentAnimatorModel.Builder(model, true);
+    builder.declareShape("R", "rectangle");
+    builder.declareShape("C", "ellipse");
+    builder.addMotion("R", 0, 0, 0, 5, 5, 0, 0, 0, 10, 10, 0, 5, 5, 0, 0, 0);
+    builder.addMotion("R", 10, 10, 0, 5, 5, 0, 0, 0, 20, 20, 0, 5, 5, 0, 0, 0);
+    assertEquals(9, model.getLoadedTick());
+    // would change frames up to the watermark: it stays there, and the rest still loads
+    builder.addMotion("C", 5, 0, 0, 5, 5, 0, 0, 0, 30, 10, 0, 5, 5, 0, 0, 0);
+    assertEquals(9, model.getLoadedTick());
+    builder.addMotion("R", 25, 10, 0, 5, 5, 0, 0, 0, 40, 20, 0, 5, 5, 0, 0, 0);
+    builder.addMotion("C", 30, 10, 0, 5, 5, 0, 0, 0, 35, 10, 0, 5, 5, 0, 0, 0);
+    assertEquals(9, model.getLoadedTick());
+    assertEquals(40, model.getEndTick());
+    builder.build();
+    assertEquals(Integer.MAX_VALUE, model.getLoadedTick());
+    assertEquals(1, model.getFrame(2).size());
+    assertEquals(2, model.getFrame(32).size());
+    assertEquals(1, model.getFrame(38).size());
+  }
+
+  @Test
+  public void motionOrder() {
+    MotionOrder order = new MotionOrder();
+    assertTrue(order.isOrdered());
+    assertTrue(order.add("R", 0, 10));
+    assertTrue(order.add("C", 4, 8));
+    assertTrue(order.add("C", 8, 10));
+    assertTrue(order.add("R", 10, 20));
+    // starts before the last
+    assertFalse(order.add("C", 5, 30));
+    assertFalse(order.isOrdered());
+    // and the rest never are
+    assertFalse(order.add("R", 20, 30));
+    order = new MotionOrder();
+    assertTrue(order.add("R", 0, 10));
+    // after a gap
+    assertFalse(order.add("R", 11, 20));
+    order = new MotionOrder();
+    // ending before it starts
+    assertFalse(order.add("R", 10, 9));
+  }
+
+  @Test
+  public void motionOrderOfInput() throws IOException {
+    String input = "shape R rectangle\nshape C ellipse\n"
+        + "motion R 0 0 0 5 5 0 0 0 10 10 0 5 5 0 0 0\n"
+        + "motion C 4 0 0 5 5 0 0 0 8 10 0 5 5 0 0 0\n"
+        + "motion R 10 10 0 5 5 0 0 0 20 20 0 5 5 0 0 0\n";
+    assertTrue(MotionOrder.isOrdered(
+        new ByteArrayInputStream(input.getBytes(StandardCharsets.US_ASCII))));
+    input += "motion C 5 0 0 5 5 0 0 0 30 10 0 5 5 0 0 0\nnot even read\n";
+    assertFalse(MotionOrder.isOrdered(
+        new ByteArrayInputStream(input.getBytes(StandardCharsets.US_ASCII))));
+  }
+
+  @Test
+  public void progressiveUnordered() {
+    ConcurrentAnimatorModel model = new ConcurrentAnimatorModel();
+    AnimationBuilder<IAnimatorModel<IModelShape>> builder =
+        new ConcurrentAnimatorModel.Builder(model);
+    builder.declareShape("R", "rectangle");
+    builder.declareShape("C", "ellipse");
+    builder.addMotion("R", 0, 0, 0, 5, 5, 0, 0, 0, 10, 10, 0, 5, 5, 0, 0, 0);
+    builder.addMotion("R", 10, 10, 0, 5, 5, 0, 0, 0, 20, 20, 0, 5, 5, 0, 0, 0);
+    builder.addMotion("C", 5, 0, 0, 5, 5, 0, 0, 0, 30, 10, 0, 5, 5, 0, 0, 0);
+    // any motion still to come may change any frame
+    assertEquals(-1, model.getLoadedTick());
+    assertTrue(model.hasNextFrame());
+    assertFalse(model.isNextFrameLoaded());
+    builder.build();
+    assertEquals(Integer.MAX_VALUE, model.getLoadedTick());
+    assertEquals(30, model.getEndTick());
+  }
+
+  @Test
+  public void progressiveMatchesFullLoad() {
+    ConcurrentAnimatorModel model = new ConcurrentAnimatorModel();
+    loadInOrder(new ConcurrentAnimatorModel.Builder(model, true), 100);
+    assertEquals(loadInOrder(AnimatorModel.getBuilder(), 100).toString(), model.toString());
+    model = new ConcurrentAnimatorModel();
+    loadInOrder(new ConcurrentAnimatorModel.Builder(model), 100);
+    assertEquals(loadInOrder(AnimatorModel.getBuilder(), 100).toString(), model.toString());
+  }
+
+  /**
+   * <p>Play the given model on this thread while it is loaded on another by the given task,
+   * checking that every frame played is the same as in the given animation loaded in full.</p>
+   *
+   * @param model    the model being loaded
+   * @param load     loads the model
+   * @param expected the animation loaded in full
+   */
+  private static void playDuringLoad(ConcurrentAnimatorModel model, Runnable load,
+      IReadOnlyAnimatorModel<IModelShape> expected) throws InterruptedException {
+    AtomicReference<RuntimeException> failure = new AtomicReference<>();
+    Thread loader = new Thread(() -> {
+      try {
+        load.run();
+      } catch (RuntimeException e) {
+        failure.set(e);
+      }
+    });
+    loader.start();
+    model.awaitLoaded(0);
+
+    // every frame played while loading is already the complete frame
+    int played = 0;
+    while (model.hasNextFrame()) {
+      if (!model.isNextFrameLoaded()) {
+        Thread.yield();
+        continue;
+      }
+      assertEquals(expected.getFrame(played).toString(), model.getNextFrame().toString());
+      played++;
+    }
+    loader.join();
+    if (failure.get() != null) {
+      throw failure.get();
+    }
+    assertTrue(model.isLoaded());
+    assertEquals(expected.getEndTick() + 1, played);
+  }
+
+  @Test
+  public void playbackDuringLoad() throws InterruptedException {
+    int ticks = 2000;
+    ConcurrentAnimatorModel model = new ConcurrentAnimatorModel();
+    AnimationBuilder<IAnimatorModel<IModelShape>> builder =
+        new ConcurrentAnimatorModel.Builder(model, true);
+    playDuringLoad(model, () -> loadInOrder(builder, ticks),
+        loadInOrder(AnimatorModel.getBuilder(), ticks));
+  }
+
+  /**
+   * <p>Load the given resource with the given builder.</p>
+   */
+  private static <T> T load(String file, AnimationBuilder<T> builder) {
+    try (InputStream in = new FileInputStream(file)) {
+      return AnimationReader.parseFile(in, builder);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  @Test
+  public void playbackDuringUnorderedLoad() throws IOException, InterruptedException {
+    // pong.txt lists a shape's motions from tick 0 after others' from later ticks, and
+    // snowman.txt lists each shape's motions one shape after another
+    for (String file : new String[]{"resources/pong.txt", "resources/snowman.txt"}) {
+      boolean ordered;
+      try (InputStream in = new FileInputStream(file)) {
+        ordered = MotionOrder.isOrdered(in);
+      }
+      assertFalse(file, ordered);
+      // so loading it progressively loads all of it before any frame is played
+      IAnimatorModel<IModelShape> expected = load(file, AnimatorModel.getBuilder());
+      ConcurrentAnimatorModel model = new ConcurrentAnimatorModel();
+      AnimationBuilder<IAnimatorModel<IModelShape>> builder =
+          new ConcurrentAnimatorModel.Builder(model, ordered);
+      playDuringLoad(model, () -> load(file, builder), expected);
+      assertEquals(file, expected.toString(), model.toString());
+    }
+  }
+}
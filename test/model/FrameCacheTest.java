@@ -0,0 +1,168 @@
+package model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+
+import cs3500.animator.model.AnimatorModel;
+import cs3500.animator.model.FrameCache;
+import cs3500.animator.model.shape.IModelShape;
+import cs3500.animator.model.shape.ModelShape;
+import cs3500.animator.model.shape.ShapeType;
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Test;
+
+/**
+ * Tests for {@link FrameCache}, alone and installed on an {@link AnimatorModel}.
+ */
+public class FrameCacheTest {
+
+  private final IModelShape shape =
+      new ModelShape(ShapeType.RECTANGLE, 1, 2, 3, 4, Color.RED);
+
+  /**
+   * <p>Factory method. Generates a model with a single rectangle moving from tick 0 to 10.</p>
+   *
+   * @param cache the frame cache to install on the model
+   * @return a new model
+   */
+  private AnimatorModel getModel(FrameCache cache) {
+    AnimatorModel model = new AnimatorModel();
+    model.addShape("R", ShapeType.RECTANGLE);
+    model.addKeyFrame(0, "R", 0, 0, 10, 10, Color.RED);
+    model.addKeyFrame(10, "R", 100, 100, 10, 10, Color.RED);
+    model.setFrameCache(cache);
+    return model;
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testZeroFrames() {
+    new FrameCache(0, 1000);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testZeroBytes() {
+    new FrameCache(10, 0);
+  }
+
+  @Test
+  public void testMissThenHit() {
+    FrameCache cache = new FrameCache(10, 100000);
+    assertNull(cache.get(3));
+    cache.put(3, Collections.singletonList(this.shape));
+    assertEquals(Collections.singletonList(this.shape), cache.get(3));
+    assertEquals(1, cache.getHits());
+    assertEquals(1, cache.getMisses());
+  }
+
+  @Test
+  public void testEvictsLeastRecentlyUsed() {
+    FrameCache cache = new FrameCache(2, 100000);
+    cache.put(1, Collections.singletonList(this.shape));
+    cache.put(2, Collections.singletonList(this.shape));
+    cache.get(1); // 2 is now the least recently used
+    cache.put(3, Collections.singletonList(this.shape));
+    assertEquals(2, cache.size());
+    assertNull(cache.get(2));
+    assertEquals(Collections.singletonList(this.shape), cache.get(1));
+    assertEquals(Collections.singletonList(this.shape), cache.get(3));
+  }
+
+  @Test
+  public void testEvictsToStayWithinMemoryBudget() {
+    List<IModelShape> frame = new ArrayList<>(Arrays.asList(this.shape, this.shape, this.shape));
+    FrameCache cache = new FrameCache(100, 1000); // room for two of these frames
+    cache.put(1, frame);
+    cache.put(2, frame);
+    cache.put(3, frame);
+    assertEquals(2, cache.size());
+    assertNull(cache.get(1));
+    assertEquals(true, cache.getBytes() <= 1000);
+  }
+
+  @Test
+  public void testFrameLargerThanBudgetNotCached() {
+    FrameCache cache = new FrameCache(100, 100);
+    cache.put(1, new ArrayList<>(Arrays.asList(this.shape, this.shape)));
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  public void testModelServesRepeatedFramesFromCache() {
+    FrameCache cache = new FrameCache(100, 100000);
+    AnimatorModel model = this.getModel(cache);
+    List<IModelShape> first = model.getFrame(5);
+    List<IModelShape> second = model.getFrame(5);
+    assertEquals(first, second);
+    assertNotSame(first, second);
+    assertEquals(1, cache.getHits());
+    assertEquals(1, cache.getMisses());
+  }
+
+  @Test
+  public void testLoopingPlaybackHitsCache() {
+    FrameCache cache = new FrameCache(100, 100000);
+    AnimatorModel model = this.getModel(cache);
+    for (int loop = 0; loop < 3; loop++) {
+      while (model.hasNextFrame()) {
+        model.getNextFrame();
+      }
+      model.reset();
+    }
+    assertEquals(11, cache.getMisses());
+    assertEquals(22, cache.getHits());
+  }
+
+  @Test
+  public void testAddKeyFrameInvalidates() {
+    FrameCache cache = new FrameCache(100, 100000);
+    AnimatorModel model = this.getModel(cache);
+    model.getFrame(5);
+    model.addKeyFrame(5, "R", 7, 7, 10, 10, Color.BLUE);
+    assertEquals(0, cache.size());
+    assertEquals(Collections.singletonList(
+        new ModelShape(ShapeType.RECTANGLE, 7, 7, 10, 10, Color.BLUE)), model.getFrame(5));
+  }
+
+  @Test
+  public void testRemoveKeyFrameInvalidates() {
+    FrameCache cache = new FrameCache(100, 100000);
+    AnimatorModel model = this.getModel(cache);
+    model.addKeyFrame(5, "R", 7, 7, 10, 10, Color.BLUE);
+    model.getFrame(5);
+    model.removeKeyFrame(5, "R");
+    assertEquals(0, cache.size());
+    assertEquals(Collections.singletonList(
+        new ModelShape(ShapeType.RECTANGLE, 50, 50, 10, 10, Color.RED)), model.getFrame(5));
+  }
+
+  @Test
+  public void testLayeringChangesInvalidate() {
+    FrameCache cache = new FrameCache(100, 100000);
+    AnimatorModel model = this.getModel(cache);
+    model.addShape("C", ShapeType.ELLIPSE);
+    model.addKeyFrame(0, "C", 0, 0, 10, 10, Color.RED);
+    model.addKeyFrame(10, "C", 0, 0, 10, 10, Color.RED);
+    model.getFrame(10);
+    model.sendToBack("C");
+    assertEquals(0, cache.size());
+    assertEquals(ShapeType.ELLIPSE, model.getFrame(10).get(0).getType());
+    model.bringToFront("C");
+    assertEquals(ShapeType.ELLIPSE, model.getFrame(10).get(1).getType());
+    model.removeShape("C");
+    assertEquals(1, model.getFrame(10).size());
+  }
+
+  @Test
+  public void testAddShapeInvalidates() {
+    FrameCache cache = new FrameCache(100, 100000);
+    AnimatorModel model = this.getModel(cache);
+    model.getFrame(3);
+    model.addShape("C", ShapeType.ELLIPSE);
+    assertEquals(0, cache.size());
+  }
+}
@@ -0,0 +1,84 @@
+package model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import cs3500.animator.model.AnimatorModel;
+import cs3500.animator.model.IAnimatorModel;
+import cs3500.animator.model.shape.IModelShape;
+import cs3500.animator.model.shape.ShapeType;
+import cs3500.animator.util.AnimationBuilder;
+import java.awt.Color;
+import java.util.Map;
+import org.junit.Test;
+
+/**
+ * Tests for interning colors and keyframes in {@link AnimatorModel}.
+ */
+public class InterningTest {
+
+  @Test
+  public void notInterningByDefault() {
+    AnimatorModel model = new AnimatorModel();
+    model.addShape("R", ShapeType.RECTANGLE);
+    model.addKeyFrame(0, "R", 1, 2, 3, 4, new Color(10, 20, 30));
+    model.addKeyFrame(5, "R", 1, 2, 3, 4, new Color(10, 20, 30));
+    Map<Integer, IModelShape> keyframes = model.getKeyFrames("R");
+    assertNotSame(keyframes.get(0), keyframes.get(5));
+    assertEquals(0, model.getInterningSavings());
+  }
+
+  @Test
+  public void internKeyFrames() {
+    AnimatorModel model = new AnimatorModel();
+    model.setInterning(true);
+    model.addShape("R", ShapeType.RECTANGLE);
+    model.addShape("C", ShapeType.ELLIPSE);
+    model.addKeyFrame(0, "R", 1, 2, 3, 4, new Color(10, 20, 30));
+    model.addKeyFrame(5, "R", 1, 2, 3, 4, new Color(10, 20, 30)); // same state
+    model.addKeyFrame(9, "R", 7, 2, 3, 4, new Color(10, 20, 30)); // same color
+    model.addKeyFrame(0, "C", 1, 2, 3, 4, new Color(10, 20, 30)); // different type
+
+    Map<Integer, IModelShape> rect = model.getKeyFrames("R");
+    assertSame(rect.get(0), rect.get(5));
+    assertSame(rect.get(0).getColor(), rect.get(9).getColor());
+    assertSame(rect.get(0).getColor(), model.getKeyFrames("C").get(0).getColor());
+    assertEquals(ShapeType.ELLIPSE, model.getKeyFrames("C").get(0).getType());
+    // 3 colors and 1 state
+    assertEquals(4, model.getInterningSavings());
+
+    model.setInterning(false);
+    model.addKeyFrame(12, "R", 1, 2, 3, 4, new Color(10, 20, 30));
+    assertNotSame(rect.get(0), rect.get(12));
+    assertEquals(4, model.getInterningSavings());
+  }
+
+  @Test
+  public void builderInterns() {
+    for (boolean compact : new boolean[]{false, true}) {
+      AnimationBuilder<IAnimatorModel<IModelShape>> builder = AnimatorModel.getBuilder(compact);
+      builder.declareShape("R", "rectangle");
+      builder.addMotion("R", 1, 0, 0, 5, 5, 255, 0, 0, 10, 20, 0, 5, 5, 255, 0, 0);
+      builder.addMotion("R", 10, 20, 0, 5, 5, 255, 0, 0, 20, 20, 0, 5, 5, 0, 0, 255);
+      builder.addMotion("R", 20, 20, 0, 5, 5, 0, 0, 255, 30, 0, 0, 5, 5, 255, 0, 0);
+      AnimatorModel model = (AnimatorModel) builder.build();
+
+      assertTrue(model.getInterningSavings() >= 4); // at least the repeated colors
+      assertEquals(new Color(255, 0, 0), model.getKeyFrames("R").get(30).getColor());
+      assertEquals(4, model.getKeyFrames("R").size());
+      if (!compact) {
+        Map<Integer, IModelShape> keyframes = model.getKeyFrames("R");
+        assertSame(keyframes.get(1).getColor(), keyframes.get(30).getColor());
+      }
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void builderRejectsBadColor() {
+    AnimationBuilder<IAnimatorModel<IModelShape>> builder = AnimatorModel.getBuilder();
+    builder.declareShape("R", "rectangle");
+    builder.addMotion("R", 1, 0, 0, 5, 5, 256, 0, 0, 10, 20, 0, 5, 5, 255, 0, 0);
+  }
+}
@@ -0,0 +1,119 @@
+package model;
+
+import static org.junit.Assert.assertEquals;
+
+import cs3500.animator.model.AnimatorModel;
+import cs3500.animator.model.PlaybackCursor;
+import cs3500.animator.model.shape.ShapeType;
+import java.awt.Color;
+import org.junit.Test;
+
+/**
+ * Tests for {@link PlaybackCursor}.
+ */
+public class PlaybackCursorTest {
+
+  /**
+   * <p>Factory method. Generates a model of a few shapes with many keyframes each, some of them
+   * one tick apart, and lifetimes starting and ending at different ticks.</p>
+   *
+   * @param compact whether the model stores keyframes as primitive arrays
+   * @return a new model
+   */
+  private AnimatorModel getModel(boolean compact) {
+    AnimatorModel model = new AnimatorModel(compact);
+    for (int s = 0; s < 5; s++) {
+      model.addShape("S" + s, s % 2 == 0 ? ShapeType.RECTANGLE : ShapeType.ELLIPSE);
+      int tick = s * 3;
+      for (int k = 0; k < 8; k++) {
+        model.addKeyFrame(tick, "S" + s, tick * 2, 100 - tick, 10 + k, 20 + s,
+            new Color(30 * k, 10 * s, 255 - 20 * k));
+        tick += (k + s) % 3 + 1; // gaps of 1 to 3 ticks
+      }
+    }
+    return model;
+  }
+
+  /**
+   * <p>Check that the cursor computes the same frame as the model at each of the given ticks, in
+   * order.</p>
+   *
+   * @param model  the model
+   * @param cursor a cursor over the model
+   * @param ticks  ticks to check
+   */
+  private void assertSameFrames(AnimatorModel model, PlaybackCursor cursor, int... ticks) {
+    for (int tick : ticks) {
+      assertEquals("tick " + tick, model.getFrame(tick), cursor.getFrame(tick));
+    }
+  }
+
+  @Test
+  public void playInOrder() {
+    for (boolean compact : new boolean[]{false, true}) {
+      AnimatorModel model = this.getModel(compact);
+      PlaybackCursor cursor = model.newPlaybackCursor();
+      for (int tick = 0; tick <= model.getEndTick(); tick++) {
+        this.assertSameFrames(model, cursor, tick);
+      }
+    }
+  }
+
+  @Test
+  public void seek() {
+    AnimatorModel model = this.getModel(false);
+    PlaybackCursor cursor = model.newPlaybackCursor();
+    this.assertSameFrames(model, cursor, 20, 3, 4, 26, 25, 0, 12, 12, 13, 1, model.getEndTick());
+  }
+
+  @Test
+  public void modelChanged() {
+    AnimatorModel model = this.getModel(false);
+    PlaybackCursor cursor = model.newPlaybackCursor();
+    this.assertSameFrames(model, cursor, 5, 6, 7);
+
+    model.removeKeyFrame(model.findNextKeyFrame(7, "S1"), "S1");
+    this.assertSameFrames(model, cursor, 8, 9);
+    model.addShape("late", ShapeType.RECTANGLE);
+    model.addKeyFrame(9, "late", 0, 0, 1, 1, Color.BLACK);
+    model.addKeyFrame(12, "late", 9, 9, 1, 1, Color.WHITE);
+    model.bringToFront("S0");
+    this.assertSameFrames(model, cursor, 10, 11, 12);
+    model.removeShape("S2");
+    this.assertSameFrames(model, cursor, 13, 14);
+  }
+
+  @Test
+  public void keyFramesChangedDuringPlayback() {
+    for (boolean compact : new boolean[]{false, true}) {
+      AnimatorModel model = this.getModel(compact);
+      AnimatorModel expected = this.getModel(compact); // changed without playing it first
+      PlaybackCursor cursor = model.newPlaybackCursor();
+      this.assertSameFrames(model, cursor, 0, 1, 2, 3, 4, 5);
+      for (AnimatorModel changed : new AnimatorModel[]{model, expected}) {
+        // drop S1's keyframes up to here, so its remembered segment no longer exists
+        while (changed.findPrevKeyFrame(6, "S1") >= 0) {
+          changed.removeKeyFrame(changed.findPrevKeyFrame(6, "S1"), "S1");
+        }
+        changed.addKeyFrame(7, "S3", 0, 0, 1, 1, Color.BLACK);
+      }
+      for (int tick = 6; tick <= model.getEndTick(); tick++) {
+        assertEquals("tick " + tick, expected.getFrame(tick), cursor.getFrame(tick));
+      }
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void tickOutOfRange() {
+    AnimatorModel model = this.getModel(false);
+    model.newPlaybackCursor().getFrame(model.getEndTick() + 1);
+  }
+
+  @Test
+  public void getNextFrameMatchesGetFrame() {
+    AnimatorModel model = this.getModel(true);
+    for (int tick = 0; tick <= model.getEndTick(); tick++) {
+      assertEquals(model.getFrame(tick), model.getNextFrame());
+    }
+  }
+}
@@ -0,0 +1,160 @@
+package model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import cs3500.animator.model.AnimatorModel;
+import cs3500.animator.model.IReadOnlyAnimatorModel;
+import cs3500.animator.model.shape.IModelShape;
+import cs3500.animator.model.shape.ShapeType;
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.Test;
+
+/**
+ * Tests for {@link AnimatorModel#snapshot()}.
+ */
+public class SnapshotTest {
+
+  /**
+   * <p>Factory method. Generates a model of a rectangle and an ellipse, each with a few
+   * keyframes.</p>
+   *
+   * @param compact whether the model stores keyframes as primitive arrays
+   * @return a new model
+   */
+  private AnimatorModel getModel(boolean compact) {
+    AnimatorModel model = new AnimatorModel(compact);
+    model.addShape("R", ShapeType.RECTANGLE);
+    model.addKeyFrame(0, "R", 0, 0, 10, 10, Color.RED);
+    model.addKeyFrame(10, "R", 100, 50, 20, 10, Color.BLUE);
+    model.addKeyFrame(20, "R", 100, 100, 20, 20, Color.BLUE);
+    model.addShape("C", ShapeType.ELLIPSE);
+    model.addKeyFrame(5, "C", 50, 50, 30, 30, Color.GREEN);
+    model.addKeyFrame(15, "C", 0, 50, 30, 30, Color.GREEN);
+    return model;
+  }
+
+  /**
+   * <p>Return every frame of the given animation.</p>
+   *
+   * @param model the animation
+   * @return every frame of the animation, in order
+   */
+  private List<List<IModelShape>> allFrames(IReadOnlyAnimatorModel<IModelShape> model) {
+    List<List<IModelShape>> frames = new ArrayList<>();
+    for (int tick = 0; tick <= model.getEndTick(); tick++) {
+      frames.add(model.getFrame(tick));
+    }
+    return frames;
+  }
+
+  @Test
+  public void snapshotMatchesModel() {
+    AnimatorModel model = this.getModel(false);
+    IReadOnlyAnimatorModel<IModelShape> snapshot = model.snapshot();
+    assertEquals(model.toString(), snapshot.toString());
+    assertEquals(this.allFrames(model), this.allFrames(snapshot));
+    assertEquals(model.getShapeIds(), snapshot.getShapeIds());
+    assertEquals(model.getEndTick(), snapshot.getEndTick());
+  }
+
+  @Test
+  public void snapshotUnaffectedByLaterChanges() {
+    for (boolean compact : new boolean[]{false, true}) {
+      AnimatorModel model = this.getModel(compact);
+      model.getFrame(3); // so the model has built its lifetime index
+      IReadOnlyAnimatorModel<IModelShape> snapshot = model.snapshot();
+      String text = snapshot.toString();
+      List<List<IModelShape>> frames = this.allFrames(snapshot);
+
+      model.addKeyFrame(30, "R", 0, 0, 1, 1, Color.BLACK);
+      model.removeKeyFrame(5, "C");
+      model.addShape("T", ShapeType.RECTANGLE);
+      model.addKeyFrame(2, "T", 1, 2, 3, 4, Color.WHITE);
+      model.sendToBack("C");
+      model.removeShape("R");
+      model.setBounds(10, 10, 100, 100);
+
+      assertEquals(text, snapshot.toString());
+      assertEquals(frames, this.allFrames(snapshot));
+      assertEquals(Arrays.asList("R", "C"), snapshot.getShapeIds());
+      assertEquals(20, snapshot.getEndTick());
+      assertEquals(800, snapshot.getWidth());
+      assertEquals(Arrays.asList("C", "T"), model.getShapeIds());
+    }
+  }
+
+  @Test
+  public void successiveSnapshots() {
+    AnimatorModel model = this.getModel(true);
+    IReadOnlyAnimatorModel<IModelShape> first = model.snapshot();
+    model.addKeyFrame(25, "C", 0, 0, 1, 1, Color.BLACK);
+    IReadOnlyAnimatorModel<IModelShape> second = model.snapshot();
+    model.addKeyFrame(40, "C", 0, 0, 1, 1, Color.BLACK);
+
+    assertEquals(20, first.getEndTick());
+    assertEquals(25, second.getEndTick());
+    assertEquals(40, model.getEndTick());
+    assertEquals(2, first.getKeyFrames("C").size());
+    assertEquals(3, second.getKeyFrames("C").size());
+    assertEquals(4, model.getKeyFrames("C").size());
+  }
+
+  @Test
+  public void snapshotOfSnapshot() {
+    AnimatorModel snapshot = (AnimatorModel) this.getModel(false).snapshot();
+    assertSame(snapshot, snapshot.snapshot());
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void snapshotCannotBeChanged() {
+    AnimatorModel snapshot = (AnimatorModel) this.getModel(false).snapshot();
+    snapshot.addKeyFrame(3, "R", 0, 0, 1, 1, Color.BLACK);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void snapshotCannotBeReordered() {
+    AnimatorModel snapshot = (AnimatorModel) this.getModel(false).snapshot();
+    snapshot.bringToFront("R");
+  }
+
+  @Test
+  public void readersOnOtherThreads() throws InterruptedException {
+    AnimatorModel model = new AnimatorModel();
+    model.addShape("S", ShapeType.RECTANGLE);
+    BlockingQueue<IReadOnlyAnimatorModel<IModelShape>> snapshots = new ArrayBlockingQueue<>(8);
+    AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    Thread reader = new Thread(() -> {
+      try {
+        for (int i = 0; i < 200; i++) {
+          IReadOnlyAnimatorModel<IModelShape> snapshot = snapshots.take();
+          // every keyframe added before the snapshot is there, and nothing after it
+          int keyframes = snapshot.getKeyFrames("S").size();
+          assertEquals(keyframes - 1, snapshot.getEndTick());
+          for (int tick = 0; tick <= snapshot.getEndTick(); tick++) {
+            assertEquals(1, snapshot.getFrame(tick).size());
+          }
+        }
+      } catch (Throwable e) {
+        failure.set(e);
+      }
+    });
+    reader.start();
+    for (int tick = 0; tick < 200; tick++) {
+      model.addKeyFrame(tick, "S", tick, tick, 10, 10, Color.RED);
+      snapshots.put(model.snapshot());
+    }
+    reader.join();
+    if (failure.get() != null) {
+      throw new AssertionError(failure.get());
+    }
+    assertEquals(200, model.getKeyFrames("S").size());
+  }
+}
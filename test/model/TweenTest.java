@@ -0,0 +1,167 @@
+package model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import cs3500.animator.model.AnimatorModel;
+import cs3500.animator.model.shape.IModelShape;
+import cs3500.animator.model.shape.ModelShape;
+import cs3500.animator.model.shape.ShapeType;
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+
+/**
+ * Tests for how {@link AnimatorModel} interpolates ("tweens") the state of a shape between two
+ * keyframes, in both ways of storing keyframes: the frames must be exactly those of the original
+ * formula, which interpolated each attribute on its own and truncated the color channels.
+ */
+public class TweenTest {
+
+  /**
+   * <p>Return the state of a shape at the given tick between two keyframes, computed as the
+   * model originally did.</p>
+   *
+   * @param type      type of the shape
+   * @param startTick tick of the first keyframe
+   * @param start     state at the first keyframe
+   * @param endTick   tick of the second keyframe
+   * @param end       state at the second keyframe
+   * @param tick      tick strictly between the two
+   * @return the state at the tick
+   */
+  private static IModelShape oldTween(ShapeType type, double startTick, IModelShape start,
+      double endTick, IModelShape end, double tick) {
+    List<Double> startAttributes = start.getAttributes();
+    List<Double> endAttributes = end.getAttributes();
+    List<Double> attributes = new ArrayList<>();
+    for (int i = 0; i < startAttributes.size(); i++) {
+      attributes.add(startAttributes.get(i) * ((endTick - tick) / (endTick - startTick))
+          + endAttributes.get(i) * ((tick - startTick) / (endTick - startTick)));
+    }
+    Color color = new Color(attributes.get(4).intValue(), attributes.get(5).intValue(),
+        attributes.get(6).intValue());
+    return new ModelShape(type, attributes.get(0), attributes.get(1), attributes.get(2),
+        attributes.get(3), color);
+  }
+
+  /**
+   * <p>Return a model, stored either way, of one shape R with the given two keyframes.</p>
+   */
+  private static AnimatorModel model(boolean compact, int startTick, IModelShape start,
+      int endTick, IModelShape end) {
+    AnimatorModel model = new AnimatorModel(compact);
+    model.addShape("R", start.getType());
+    model.addKeyFrame(startTick, "R", start.getX(), start.getY(), start.getWidth(),
+        start.getHeight(), start.getColor());
+    model.addKeyFrame(endTick, "R", end.getX(), end.getY(), end.getWidth(), end.getHeight(),
+        end.getColor());
+    return model;
+  }
+
+  /**
+   * <p>Check that every tick strictly between the two keyframes is tweened exactly as the
+   * original formula did, both through {@link AnimatorModel#getFrame(int)} and in playback, in
+   * both ways of storing keyframes.</p>
+   */
+  private static void assertTweensAsBefore(int startTick, IModelShape start, int endTick,
+      IModelShape end) {
+    for (boolean compact : new boolean[]{false, true}) {
+      AnimatorModel model = model(compact, startTick, start, endTick, end);
+      AnimatorModel played = model(compact, startTick, start, endTick, end);
+      for (int tick = 0; tick <= startTick; tick++) {
+        played.getNextFrame();
+      }
+      for (int tick = startTick + 1; tick < endTick; tick++) {
+        IModelShape expected = oldTween(start.getType(), startTick, start, endTick, end, tick);
+        String message = (compact ? "compact" : "objects") + ", tick " + tick;
+        assertEquals(message, expected, model.getFrame(tick).get(0));
+        assertEquals(message, expected, played.getNextFrame().get(0));
+      }
+    }
+  }
+
+  @Test
+  public void fractionalMidpoints() {
+    // thirds and halves of odd distances, negative coordinates, and fractional keyframes
+    assertTweensAsBefore(0, new ModelShape(ShapeType.RECTANGLE, 0, -7, 1, 10, Color.BLACK),
+        3, new ModelShape(ShapeType.RECTANGLE, 1, 8, 2, 0, Color.BLACK));
+    assertTweensAsBefore(2, new ModelShape(ShapeType.ELLIPSE, 0.1, 0.2, 0.3, 0.7, Color.RED),
+        9, new ModelShape(ShapeType.ELLIPSE, 100.9, -0.2, 33.3, 1e-3, Color.RED));
+    AnimatorModel model = model(true, 10, new ModelShape(ShapeType.PLUS, 5, 0, 4, 4, Color.RED),
+        20, new ModelShape(ShapeType.PLUS, 6, 0, 4, 4, Color.RED));
+    assertEquals(5.5, model.getFrame(15).get(0).getX(), 0);
+  }
+
+  @Test
+  public void colorChannelsTruncated() {
+    // 127.5, 1.33 and 1.67, 254.5: never rounded up
+    assertTweensAsBefore(0, new ModelShape(ShapeType.RECTANGLE, 0, 0, 1, 1,
+        new Color(0, 1, 255)), 2, new ModelShape(ShapeType.RECTANGLE, 0, 0, 1, 1,
+        new Color(255, 2, 254)));
+    assertTweensAsBefore(0, new ModelShape(ShapeType.RECTANGLE, 0, 0, 1, 1,
+        new Color(1, 200, 7)), 3, new ModelShape(ShapeType.RECTANGLE, 0, 0, 1, 1,
+        new Color(2, 100, 0)));
+    AnimatorModel model = model(false, 0, new ModelShape(ShapeType.RECTANGLE, 0, 0, 1, 1,
+        new Color(0, 255, 1)), 2, new ModelShape(ShapeType.RECTANGLE, 0, 0, 1, 1,
+        new Color(255, 0, 2)));
+    assertEquals(new Color(127, 127, 1), model.getFrame(1).get(0).getColor());
+  }
+
+  @Test
+  public void zeroLengthSegment() {
+    // a motion that starts and ends at the same tick is a single keyframe: nothing to tween
+    for (boolean compact : new boolean[]{false, true}) {
+      AnimatorModel model = new AnimatorModel(compact);
+      model.addShape("R", ShapeType.RECTANGLE);
+      model.addKeyFrame(5, "R", 1.5, 2, 3, 4, Color.BLUE);
+      model.addKeyFrame(5, "R", 1.5, 2, 3, 4, Color.BLUE);
+      assertEquals(new ModelShape(ShapeType.RECTANGLE, 1.5, 2, 3, 4, Color.BLUE),
+          model.getFrame(5).get(0));
+      assertTrue(model.getFrame(4).isEmpty());
+    }
+    // keyframes one tick apart have nothing in between either
+    assertTweensAsBefore(3, new ModelShape(ShapeType.ELLIPSE, 0, 0, 1, 1, Color.RED),
+        4, new ModelShape(ShapeType.ELLIPSE, 9, 9, 2, 2, Color.BLUE));
+  }
+
+  @Test
+  public void tickOnKeyFrame() {
+    IModelShape start = new ModelShape(ShapeType.RECTANGLE, 0.25, 1, 2, 3, new Color(1, 2, 3));
+    IModelShape middle = new ModelShape(ShapeType.RECTANGLE, 7.75, 1, 2, 3, new Color(4, 5, 6));
+    IModelShape end = new ModelShape(ShapeType.RECTANGLE, 10, 1, 2, 3, new Color(7, 8, 9));
+    for (boolean compact : new boolean[]{false, true}) {
+      AnimatorModel model = model(compact, 0, start, 10, end);
+      model.addKeyFrame(4, "R", 7.75, 1, 2, 3, new Color(4, 5, 6));
+      assertEquals(start, model.getFrame(0).get(0));
+      assertEquals(middle, model.getFrame(4).get(0));
+      assertEquals(end, model.getFrame(10).get(0));
+      // either side of the middle keyframe, tweened towards and away from it
+      assertEquals(oldTween(ShapeType.RECTANGLE, 0, start, 4, middle, 3),
+          model.getFrame(3).get(0));
+      assertEquals(oldTween(ShapeType.RECTANGLE, 4, middle, 10, end, 5),
+          model.getFrame(5).get(0));
+    }
+  }
+
+  @Test
+  public void randomKeyFrames() {
+    Random random = new Random(3);
+    for (int i = 0; i < 200; i++) {
+      int startTick = random.nextInt(5);
+      int endTick = startTick + 1 + random.nextInt(30);
+      assertTweensAsBefore(startTick, randomShape(random), endTick, randomShape(random));
+    }
+  }
+
+  /**
+   * <p>Return a rectangle with random, often fractional, attributes.</p>
+   */
+  private static IModelShape randomShape(Random random) {
+    return new ModelShape(ShapeType.RECTANGLE, random.nextInt(2000) / 8.0 - 100,
+        random.nextInt(2000) / 3.0, random.nextInt(500) / 7.0, random.nextInt(500),
+        new Color(random.nextInt(256), random.nextInt(256), random.nextInt(256)));
+  }
+}
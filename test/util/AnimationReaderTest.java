@@ -0,0 +1,215 @@
+package util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static util.Gzip.gzip;
+
+import cs3500.animator.model.AnimatorModel;
+import cs3500.animator.model.IAnimatorModel;
+import cs3500.animator.model.shape.IModelShape;
+import cs3500.animator.util.AnimationReader;
+import cs3500.animator.util.AnimationReader.Tokenizer;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.Test;
+
+/**
+ * Tests for reading plain and gzip-compressed input with {@link AnimationReader}.
+ */
+public class AnimationReaderTest {
+
+  private static final String INPUT = "canvas 0 0 400 300\n"
+      + "# a comment\n"
+      + "shape R rectangle\n"
+      + "motion R 1 10 20 5 5 255 0 0   10 50 20 5 5 0 0 255\n"
+      + "shape C ellipse\n"
+      + "motion C 3 0 0 8 8 0 255 0   6 0 9 8 8 0 255 0\n";
+
+  /**
+   * <p>Parse the given input with the given tokenizer, and describe the resulting model, or the
+   * exception thrown.</p>
+   */
+  private static String parse(String input, Tokenizer tokenizer) {
+    try {
+      return AnimationReader.parseFile(new StringReader(input), AnimatorModel.getBuilder(),
+          tokenizer).toString();
+    } catch (RuntimeException e) {
+      return e.getClass().getName() + ": " + e.getMessage();
+    }
+  }
+
+  /**
+   * <p>Check that both tokenizers read the given input the same way, returning the result.</p>
+   */
+  private static String parseBoth(String input) {
+    String expected = parse(input, Tokenizer.SCANNER);
+    assertEquals(expected, parse(input, Tokenizer.STREAMING));
+    return expected;
+  }
+
+  /**
+   * <p>Write the given data to a new temporary file, deleted when the tests end.</p>
+   */
+  private static Path write(byte[] data) throws IOException {
+    Path file = Files.createTempFile("animation", ".txt");
+    file.toFile().deleteOnExit();
+    return Files.write(file, data);
+  }
+
+  /**
+   * <p>Return an animation of many shapes, over many lines, with the given line in place of the
+   * one after the last.</p>
+   */
+  private static String manyShapes(String last) {
+    StringBuilder input = new StringBuilder("canvas 0 0 400 300\n"); // line 1
+    for (int i = 0; i < 20000; i++) { // lines 2 to 60001, three for each shape
+      input.append("shape S").append(i).append(" ellipse # shape number ").append(i).append('\n');
+      input.append("motion S").append(i).append(" 1 ").append(i).append(" 0 5 5 0 0 0\r\n  ")
+          .append(i + 10).append(" 0 ").append(i).append(" 5 5 0 0 0\n");
+    }
+    return input.append(last).append('\n').toString(); // line 60002
+  }
+
+  /**
+   * <p>Parse the given input from a mapped file in parallel, and describe the resulting model, or
+   * the exception thrown.</p>
+   */
+  private static String parseMapped(String input) throws IOException {
+    ForkJoinPool pool = new ForkJoinPool(3);
+    try {
+      return AnimationReader.parseFile(write(input.getBytes(StandardCharsets.US_ASCII)),
+          AnimatorModel.getBuilder(), pool).toString();
+    } catch (RuntimeException e) {
+      return e.getClass().getName() + ": " + e.getMessage();
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  @Test
+  public void testPlainStream() throws IOException {
+    IAnimatorModel<IModelShape> expected =
+        AnimationReader.parseFile(new StringReader(INPUT), AnimatorModel.getBuilder());
+    IAnimatorModel<IModelShape> actual = AnimationReader.parseFile(
+        new ByteArrayInputStream(INPUT.getBytes(StandardCharsets.US_ASCII)),
+        AnimatorModel.getBuilder());
+    assertEquals(expected.toString(), actual.toString());
+    assertEquals(400, actual.getWidth());
+  }
+
+  @Test
+  public void testCompressedStream() throws IOException {
+    IAnimatorModel<IModelShape> expected =
+        AnimationReader.parseFile(new StringReader(INPUT), AnimatorModel.getBuilder());
+    IAnimatorModel<IModelShape> actual = AnimationReader.parseFile(
+        new ByteArrayInputStream(gzip(INPUT.getBytes(StandardCharsets.US_ASCII))),
+        AnimatorModel.getBuilder());
+    assertEquals(expected.toString(), actual.toString());
+    assertEquals(2, actual.getShapeIds().size());
+  }
+
+  @Test
+  public void testEmptyStream() throws IOException {
+    IAnimatorModel<IModelShape> model = AnimationReader.parseFile(
+        new ByteArrayInputStream(new byte[0]), AnimatorModel.getBuilder());
+    assertEquals(0, model.getShapeIds().size());
+  }
+
+  @Test(expected = IOException.class)
+  public void testTruncatedCompressedStream() throws IOException {
+    byte[] data = gzip(INPUT.getBytes(StandardCharsets.US_ASCII));
+    byte[] truncated = new byte[data.length / 2];
+    System.arraycopy(data, 0, truncated, 0, truncated.length);
+    AnimationReader.parseFile(new ByteArrayInputStream(truncated), AnimatorModel.getBuilder());
+  }
+
+  @Test
+  public void testTokenizersAgree() {
+    assertEquals(parse(INPUT, Tokenizer.SCANNER), parseBoth(INPUT));
+    parseBoth("canvas 0 0 400 300#comment right after a number\r\n"
+        + "shape R#comment\trectangle\n"
+        + "shape R rectangle\f"
+        + "motion R +1 007 -20 5 5 255 0 0\t\u000B10 50 20 5 5 0 0 255 # trailing\n"
+        + "# comment at the end with no line separator");
+    // read as integers by the scanner in some locales
+    parseBoth("canvas 0 0 400 1,000");
+    parseBoth("canvas 0 0 400 \u0661\u0662");
+    parseBoth("");
+    parseBoth("# nothing but a comment");
+  }
+
+  @Test
+  public void testTokenizersFailAlike() {
+    String[] inputs = {
+        "canvas 0 0 400",
+        "canvas 0 0 400 3.5",
+        "canvas 0 0 400 2147483648",
+        "canvas 0 0 400 -2147483649",
+        "canvas 0 0 400 99999999999999999999",
+        "shape",
+        "shape R",
+        "motion",
+        "motion R 1 10 20 5 5 255 0 0 10 50 20 5 5 0 0 x",
+        "rectangle R extra # words\nshape R rectangle",
+        "rectangle R extra\u2028shape R rectangle",
+        "rectangle",
+    };
+    for (String input : inputs) {
+      String result = parseBoth(input);
+      if (!result.contains("Exception")) {
+        fail("Expected " + input + " to fail, got: " + result);
+      }
+    }
+  }
+
+  @Test
+  public void testStreamingLongInput() {
+    StringBuilder input = new StringBuilder("canvas 0 0 400 300\n");
+    for (int i = 0; i < 5000; i++) {
+      input.append("shape S").append(i).append(" ellipse # shape number ").append(i).append('\n');
+      input.append("motion S").append(i).append(" 1 ").append(i).append(" 0 5 5 0 0 0  ")
+          .append(i + 10).append(" 0 ").append(i).append(" 5 5 0 0 0\r\n");
+    }
+    input.append("shape ").append(new String(new char[100000]).replace('\0', 'x'))
+        .append(" rectangle");
+    parseBoth(input.toString()); // tokens and comments spread over many buffers, one very long
+  }
+
+  @Test
+  public void testMappedMatchesStream() throws IOException {
+    String input = manyShapes("shape last rectangle # the end");
+    assertEquals(parse(input, Tokenizer.STREAMING), parseMapped(input));
+    assertEquals(parse(INPUT, Tokenizer.STREAMING), parseMapped(INPUT));
+    assertEquals(parse("", Tokenizer.STREAMING), parseMapped(""));
+  }
+
+  @Test
+  public void testMappedReportsLine() throws IOException {
+    assertEquals("java.lang.IllegalStateException: Line 60002: "
+            + "Motion: expected integer for initial y-coordinate, got: x",
+        parseMapped(manyShapes("motion S5 1 2 x")));
+    assertEquals("java.lang.IllegalStateException: Line 60002: "
+            + "Unexpected keyword: rectangle R extra # words",
+        parseMapped(manyShapes("rectangle R extra # words")));
+    assertEquals("java.lang.IllegalArgumentException: Line 60002: "
+            + "Shape with the given ID does not exist!",
+        parseMapped(manyShapes("motion Q 1 0 0 1 1 0 0 0 2 0 0 1 1 0 0 0")));
+  }
+
+  @Test
+  public void testMappedCompressedFile() throws IOException {
+    Path file = write(gzip(INPUT.getBytes(StandardCharsets.US_ASCII)));
+    ForkJoinPool pool = new ForkJoinPool(2);
+    try {
+      assertEquals(parse(INPUT, Tokenizer.STREAMING),
+          AnimationReader.parseFile(file, AnimatorModel.getBuilder(), pool).toString());
+    } finally {
+      pool.shutdown();
+    }
+  }
+}
@@ -0,0 +1,167 @@
+package util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static util.Gzip.gzip;
+
+import cs3500.animator.model.AnimatorModel;
+import cs3500.animator.model.IAnimatorModel;
+import cs3500.animator.model.shape.IModelShape;
+import cs3500.animator.model.shape.ShapeType;
+import cs3500.animator.util.AnimationReader;
+import cs3500.animator.util.BinaryAnimationReader;
+import cs3500.animator.util.BinaryAnimationWriter;
+import java.awt.Color;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.Test;
+
+/**
+ * Tests for writing animations with {@link BinaryAnimationWriter} and reading them back with
+ * {@link BinaryAnimationReader} and {@link AnimationReader}.
+ */
+public class BinaryAnimationTest {
+
+  private static final String INPUT = "canvas 5 10 400 300\n"
+      + "shape R rectangle\n"
+      + "motion R 1 10 20 5 5 255 0 0   10 50 20 5 5 0 0 255\n"
+      + "motion R 10 50 20 5 5 0 0 255   20 -50 20 50 5 0 128 255\n"
+      + "shape C ellipse\n"
+      + "motion C 3 0 0 8 8 0 255 0   6 0 9 8 8 0 255 0\n"
+      + "shape P plus\n"
+      + "motion P 4 1 1 2 2 9 9 9   4 1 1 2 2 9 9 9\n";
+
+  /**
+   * <p>Read the text animation.</p>
+   */
+  private static IAnimatorModel<IModelShape> text() {
+    return AnimationReader.parseFile(new StringReader(INPUT), AnimatorModel.getBuilder());
+  }
+
+  /**
+   * <p>Write the given animation in the binary format.</p>
+   */
+  private static byte[] binary(IAnimatorModel<IModelShape> model) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    BinaryAnimationWriter.write(model, bytes);
+    return bytes.toByteArray();
+  }
+
+  @Test
+  public void testRoundTrip() throws IOException {
+    IAnimatorModel<IModelShape> expected = text();
+    IAnimatorModel<IModelShape> actual = BinaryAnimationReader.parseFile(
+        new ByteArrayInputStream(binary(expected)), AnimatorModel.getBuilder());
+    assertEquals(expected.toString(), actual.toString());
+    assertEquals(Arrays.asList("R", "C", "P"), actual.getShapeIds());
+    assertEquals(ShapeType.PLUS, actual.getShapeType("P"));
+    assertEquals(5, actual.getX());
+    assertEquals(300, actual.getHeight());
+    // writing it again gives the same bytes
+    assertArrayEquals(binary(expected), binary(actual));
+  }
+
+  @Test
+  public void testRoundTripKeepsLayers() throws IOException {
+    IAnimatorModel<IModelShape> expected = text();
+    expected.bringToFront("R");
+    IAnimatorModel<IModelShape> actual = BinaryAnimationReader.parseFile(
+        new ByteArrayInputStream(binary(expected)), AnimatorModel.getBuilder());
+    assertEquals(Arrays.asList("C", "P", "R"), actual.getShapeIds());
+  }
+
+  @Test
+  public void testDetectedByAnimationReader() throws IOException {
+    IAnimatorModel<IModelShape> expected = text();
+    byte[] data = binary(expected);
+    assertTrue(BinaryAnimationReader.isBinary(new ByteArrayInputStream(data)));
+    assertFalse(BinaryAnimationReader.isBinary(new ByteArrayInputStream(INPUT.getBytes())));
+    assertFalse(BinaryAnimationReader.isBinary(new ByteArrayInputStream(new byte[2])));
+    assertEquals(expected.toString(), AnimationReader.parseFile(new ByteArrayInputStream(data),
+        AnimatorModel.getBuilder()).toString());
+    assertEquals(expected.toString(), AnimationReader.parseFile(
+        new ByteArrayInputStream(gzip(data)), AnimatorModel.getBuilder()).toString());
+  }
+
+  @Test
+  public void testDetectedInFile() throws IOException {
+    IAnimatorModel<IModelShape> expected = text();
+    Path file = Files.createTempFile("animation", ".bin");
+    file.toFile().deleteOnExit();
+    Files.write(file, binary(expected));
+    ForkJoinPool pool = new ForkJoinPool(2);
+    try {
+      assertEquals(expected.toString(),
+          AnimationReader.parseFile(file, AnimatorModel.getBuilder(), pool).toString());
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  @Test
+  public void testEmptyAnimation() throws IOException {
+    IAnimatorModel<IModelShape> expected = new AnimatorModel();
+    IAnimatorModel<IModelShape> actual = BinaryAnimationReader.parseFile(
+        new ByteArrayInputStream(binary(expected)), AnimatorModel.getBuilder());
+    assertEquals(expected.toString(), actual.toString());
+  }
+
+  @Test(expected = IOException.class)
+  public void testNotBinary() throws IOException {
+    BinaryAnimationReader.parseFile(new ByteArrayInputStream(INPUT.getBytes()),
+        AnimatorModel.getBuilder());
+  }
+
+  @Test
+  public void testUnsupportedVersion() throws IOException {
+    byte[] data = binary(text());
+    data[7] = 2; // the last byte of the version
+    try {
+      BinaryAnimationReader.parseFile(new ByteArrayInputStream(data), AnimatorModel.getBuilder());
+      fail("Expected an IOException");
+    } catch (IOException e) {
+      assertEquals("Unsupported binary animation version: 2", e.getMessage());
+    }
+  }
+
+  @Test(expected = IOException.class)
+  public void testTruncated() throws IOException {
+    byte[] data = binary(text());
+    BinaryAnimationReader.parseFile(new ByteArrayInputStream(
+        Arrays.copyOf(data, data.length - 1)), AnimatorModel.getBuilder());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testFractionalValue() throws IOException {
+    IAnimatorModel<IModelShape> model = new AnimatorModel();
+    model.addShape("R", ShapeType.RECTANGLE);
+    model.addKeyFrame(1, "R", 0.5, 0, 1, 1, Color.RED);
+    binary(model);
+  }
+
+  @Test
+  public void testNothingWrittenIfInvalid() throws IOException {
+    // only the last keyframe of the last shape cannot be written
+    IAnimatorModel<IModelShape> model = text();
+    model.addShape("Q", ShapeType.RECTANGLE);
+    model.addKeyFrame(1, "Q", 0, 0, 1, 1, Color.RED);
+    model.addKeyFrame(2, "Q", 0, 0, 1, 1.25, Color.RED);
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try {
+      BinaryAnimationWriter.write(model, bytes);
+      fail("Expected a fractional height to be rejected");
+    } catch (IllegalArgumentException e) {
+      assertEquals("Keyframe values must be whole numbers!", e.getMessage());
+    }
+    assertEquals(0, bytes.size());
+  }
+}
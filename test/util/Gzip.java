@@ -0,0 +1,30 @@
+package util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Gzip-compresses test input for the reader tests.
+ */
+final class Gzip {
+
+  private Gzip() {
+    // no instances
+  }
+
+  /**
+   * <p>Return the given bytes gzip-compressed.</p>
+   *
+   * @param data the bytes
+   * @return the bytes, compressed
+   * @throws IOException if compressing fails
+   */
+  static byte[] gzip(byte[] data) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+      out.write(data);
+    }
+    return bytes.toByteArray();
+  }
+}
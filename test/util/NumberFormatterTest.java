@@ -0,0 +1,81 @@
+package util;
+
+import static org.junit.Assert.assertEquals;
+
+import cs3500.animator.util.NumberFormatter;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+import java.util.Random;
+import org.junit.Test;
+
+/**
+ * Tests for {@link NumberFormatter}, against the {@link DecimalFormat} it replaces.
+ */
+public class NumberFormatterTest {
+
+  private static final DecimalFormat FORMAT =
+      new DecimalFormat("0.#", DecimalFormatSymbols.getInstance(Locale.ENGLISH));
+
+  private static void check(double value) {
+    assertEquals(String.valueOf(value), FORMAT.format(value),
+        NumberFormatter.formatDecimal(value));
+  }
+
+  @Test
+  public void testSimple() {
+    assertEquals("0", NumberFormatter.formatDecimal(0));
+    assertEquals("12", NumberFormatter.formatDecimal(12.0));
+    assertEquals("12.5", NumberFormatter.formatDecimal(12.5));
+    assertEquals("-3.3", NumberFormatter.formatDecimal(-10.0 / 3));
+    assertEquals("0.1", NumberFormatter.formatDecimal(0.1 + 0.2 - 0.2));
+  }
+
+  @Test
+  public void testRounding() {
+    // half-even on the exact binary value: 0.25 is a tie, 0.35 is just below one
+    check(0.25);
+    check(0.35);
+    check(0.45);
+    check(0.95);
+    check(9.95);
+    check(2.05);
+    check(7.000000000000001);
+    check(123456789.05);
+  }
+
+  @Test
+  public void testSignsAndExtremes() {
+    check(-0.0);
+    check(-0.04);
+    check(-0.05);
+    check(-0.06);
+    check(Double.MIN_VALUE);
+    check(4503599627370496.5);
+    check(9007199254740993.0);
+    check(1e20);
+    check(-1.5e300);
+    check(Long.MAX_VALUE);
+  }
+
+  @Test
+  public void testRandom() {
+    Random random = new Random(3500);
+    for (int i = 0; i < 100000; i++) {
+      check((random.nextDouble() - 0.5) * 2000);
+      check((random.nextInt(2000000) - 1000000) / 20.0);
+      check(Double.longBitsToDouble(random.nextLong()));
+    }
+  }
+
+  @Test
+  public void testAppendable() throws IOException {
+    StringWriter out = new StringWriter();
+    NumberFormatter.appendDecimal(out, 2.25);
+    out.append(' ');
+    NumberFormatter.appendInt(out, -7);
+    assertEquals("2.2 -7", out.toString());
+  }
+}
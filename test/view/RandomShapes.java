@@ -0,0 +1,36 @@
+package view;
+
+import cs3500.animator.model.IAnimatorModel;
+import cs3500.animator.model.shape.IModelShape;
+import cs3500.animator.model.shape.ShapeType;
+import java.awt.Color;
+import java.util.Random;
+
+/**
+ * Fills models with random shapes for the view tests, the same ones every time.
+ */
+final class RandomShapes {
+
+  private RandomShapes() {
+    // no instances
+  }
+
+  /**
+   * <p>Add the given number of shapes, of every type, with random keyframes, to the model.</p>
+   *
+   * @param model  the model
+   * @param shapes number of shapes to add
+   */
+  static void addRandomShapes(IAnimatorModel<IModelShape> model, int shapes) {
+    Random random = new Random(3500);
+    ShapeType[] types = ShapeType.values();
+    for (int i = 0; i < shapes; i++) {
+      String id = "s" + i;
+      model.addShape(id, types[i % types.length]);
+      for (int tick = random.nextInt(5); tick < 60; tick += 1 + random.nextInt(10)) {
+        model.addKeyFrame(tick, id, random.nextInt(50), random.nextInt(3) * 10, 5, 5,
+            new Color(random.nextInt(2) * 255, 0, 0));
+      }
+    }
+  }
+}
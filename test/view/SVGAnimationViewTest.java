@@ -1,6 +1,7 @@
 package view;
 
 import static org.junit.Assert.assertEquals;
+import static view.RandomShapes.addRandomShapes;
 
 import cs3500.animator.model.AnimatorModel;
 import cs3500.animator.model.IAnimatorModel;
@@ -9,6 +10,7 @@ import cs3500.animator.model.shape.ShapeType;
 import cs3500.animator.view.IAnimatorView;
 import cs3500.animator.view.SVGAnimationView;
 import java.awt.Color;
+import java.util.concurrent.ForkJoinPool;
 import org.junit.Test;
 
 import java.io.IOException;
@@ -207,6 +209,217 @@ public class SVGAnimationViewTest {
     assertEquals(expected.toString(), viewOutput.toString());
   }
 
+  @Test
+  public void testSkipUnchanged() throws IOException {
+    IAnimatorModel<IModelShape> model = this.getModel();
+    Appendable viewOutput = new StringBuilder();
+    SVGAnimationView view = new SVGAnimationView(model, viewOutput, 1.0);
+    Appendable expected = new StringBuilder();
+
+    model.addShape("c", ShapeType.RECTANGLE);
+    model.addKeyFrame(0, "c", 5, 5, 10, 10, Color.BLACK);
+    model.addKeyFrame(1, "c", 6, 5, 10, 10, Color.BLACK);
+    view.setSkip(SVGAnimationView.Skip.UNCHANGED);
+    view.render();
+
+    expected
+        .append("<svg viewbox=\"0 0 800 600\" xmlns=\"http://www.w3.org/2000/svg\">")
+        .append("\n")
+        .append("<rect id=\"c\""
+            + " x=\"5.0\" y=\"5.0\" width=\"10.0\" height=\"10.0\" fill=\"rgb(0,0,0)\""
+            + " visibility=\"hidden\">")
+        .append("\n")
+        .append("\t<set attributeName=\"visibility\""
+            + " to=\"visible\" begin=\"0.0s\" dur=\"1ms\" fill=\"freeze\"/>")
+        .append("\n")
+        .append("\t<animate attributeName=\"x\""
+            + " from=\"5.0\" to=\"6.0\" begin=\"0.0s\" dur=\"1.0s\" fill=\"freeze\"/>")
+        .append("\n")
+        .append("\t<set attributeName=\"visibility\""
+            + " to=\"hidden\" begin=\"1.0s\" dur=\"1ms\" fill=\"freeze\"/>")
+        .append("\n")
+        .append("</rect>").append("\n")
+        .append("\n")
+        .append("</svg>");
+    assertEquals(expected.toString(), viewOutput.toString());
+    assertEquals(4, view.getSkippedCount());
+  }
+
+  @Test
+  public void testSkipStaticShapes() throws IOException {
+    IAnimatorModel<IModelShape> model = this.getModel();
+    model.addShape("still", ShapeType.PLUS);
+    model.addKeyFrame(0, "still", 5, 5, 10, 10, Color.RED);
+    model.addKeyFrame(5, "still", 5, 5, 10, 10, Color.RED);
+    model.addKeyFrame(9, "still", 5, 5, 10, 10, Color.RED);
+    model.addShape("moving", ShapeType.ELLIPSE);
+    model.addKeyFrame(0, "moving", 5, 5, 10, 10, Color.RED);
+    model.addKeyFrame(5, "moving", 5, 5, 20, 10, Color.RED);
+
+    StringBuilder all = new StringBuilder();
+    new SVGAnimationView(model, all, 1.0).render();
+    StringBuilder viewOutput = new StringBuilder();
+    SVGAnimationView view = new SVGAnimationView(model, viewOutput, 1.0);
+    view.setSkip(SVGAnimationView.Skip.STATIC_SHAPES);
+    view.render();
+
+    // the plus has two animations per segment, both left out; the ellipse keeps all five
+    assertEquals(4, view.getSkippedCount());
+    assertEquals(9, all.toString().split("<animate", -1).length - 1);
+    assertEquals(5, viewOutput.toString().split("<animate", -1).length - 1);
+    assertEquals(all.substring(all.indexOf("<ellipse")),
+        viewOutput.substring(viewOutput.indexOf("<ellipse")));
+
+    view.setSkip(SVGAnimationView.Skip.NONE);
+    viewOutput.setLength(0);
+    view.render();
+    assertEquals(all.toString(), viewOutput.toString());
+    assertEquals(0, view.getSkippedCount());
+  }
+
+  @Test
+  public void testMergeAnimations() throws IOException {
+    IAnimatorModel<IModelShape> model = this.getModel();
+    Appendable viewOutput = new StringBuilder();
+    SVGAnimationView view = new SVGAnimationView(model, viewOutput, 2.0);
+    Appendable expected = new StringBuilder();
+
+    model.addShape("c", ShapeType.RECTANGLE);
+    model.addKeyFrame(2, "c", 5, 5, 10, 10, Color.BLACK);
+    model.addKeyFrame(4, "c", 6, 5, 10, 10, Color.BLACK);
+    model.addKeyFrame(10, "c", 6, 7, 10, 10, Color.RED);
+    view.setMergeAnimations(true);
+    view.setSkip(SVGAnimationView.Skip.UNCHANGED);
+    view.render();
+
+    expected
+        .append("<svg viewbox=\"0 0 800 600\" xmlns=\"http://www.w3.org/2000/svg\">")
+        .append("\n")
+        .append("<rect id=\"c\""
+            + " x=\"5.0\" y=\"5.0\" width=\"10.0\" height=\"10.0\" fill=\"rgb(0,0,0)\""
+            + " visibility=\"hidden\">")
+        .append("\n")
+        .append("\t<set attributeName=\"visibility\""
+            + " to=\"visible\" begin=\"1.0s\" dur=\"1ms\" fill=\"freeze\"/>\n")
+        .append("\t<animate attributeName=\"x\" values=\"5.0;6.0;6.0\" keyTimes=\"0;0.25;1\""
+            + " begin=\"1.0s\" dur=\"4.0s\" calcMode=\"linear\" fill=\"freeze\"/>\n")
+        .append("\t<animate attributeName=\"y\" values=\"5.0;5.0;7.0\" keyTimes=\"0;0.25;1\""
+            + " begin=\"1.0s\" dur=\"4.0s\" calcMode=\"linear\" fill=\"freeze\"/>\n")
+        .append("\t<animate attributeName=\"fill\""
+            + " values=\"rgb(0,0,0);rgb(0,0,0);rgb(255,0,0)\" keyTimes=\"0;0.25;1\""
+            + " begin=\"1.0s\" dur=\"4.0s\" calcMode=\"linear\" fill=\"freeze\"/>\n")
+        .append("\t<set attributeName=\"visibility\""
+            + " to=\"hidden\" begin=\"5.0s\" dur=\"1ms\" fill=\"freeze\"/>")
+        .append("\n")
+        .append("</rect>").append("\n")
+        .append("\n")
+        .append("</svg>");
+    assertEquals(expected.toString(), viewOutput.toString());
+    assertEquals(2, view.getSkippedCount()); // width and height
+  }
+
+  @Test
+  public void testMergeSingleKeyframe() throws IOException {
+    IAnimatorModel<IModelShape> model = this.getModel();
+    model.addShape("c", ShapeType.PLUS);
+    model.addKeyFrame(0, "c", 5, 5, 10, 10, Color.BLACK);
+    StringBuilder separate = new StringBuilder();
+    new SVGAnimationView(model, separate, 1.0).render();
+    StringBuilder merged = new StringBuilder();
+    SVGAnimationView view = new SVGAnimationView(model, merged, 1.0);
+    view.setMergeAnimations(true);
+    view.render();
+    assertEquals(separate.toString(), merged.toString());
+  }
+
+  @Test
+  public void testPlusSymbols() throws IOException {
+    IAnimatorModel<IModelShape> model = this.getModel();
+    Appendable viewOutput = new StringBuilder();
+    SVGAnimationView view = new SVGAnimationView(model, viewOutput, 1.0);
+    Appendable expected = new StringBuilder();
+
+    model.addShape("c", ShapeType.PLUS);
+    model.addKeyFrame(0, "c", 5, 5, 10, 10, Color.BLACK);
+    model.addKeyFrame(1, "c", 6, 5, 10, 10, Color.BLACK);
+    view.setPlusSymbols(true);
+    view.setSkip(SVGAnimationView.Skip.UNCHANGED);
+    view.render();
+
+    expected
+        .append("<svg viewbox=\"0 0 800 600\" xmlns=\"http://www.w3.org/2000/svg\""
+            + " xmlns:xlink=\"http://www.w3.org/1999/xlink\">")
+        .append("\n")
+        .append("<defs>\n"
+            + "<symbol id=\"easy-animator-plus\" viewBox=\"0 0 3 3\""
+            + " preserveAspectRatio=\"none\">\n"
+            + "<polygon points=\"1,0 2,0 2,1 3,1 3,2 2,2 2,3 1,3 1,2 0,2 0,1 1,1 1,0\"/>\n"
+            + "</symbol>\n"
+            + "</defs>\n")
+        .append("<use id=\"c\" xlink:href=\"#easy-animator-plus\""
+            + " x=\"5.0\" y=\"5.0\" width=\"10.0\" height=\"10.0\" fill=\"rgb(0,0,0)\""
+            + " visibility=\"hidden\">")
+        .append("\n")
+        .append("\t<set attributeName=\"visibility\""
+            + " to=\"visible\" begin=\"0.0s\" dur=\"1ms\" fill=\"freeze\"/>")
+        .append("\n")
+        .append("\t<animate attributeName=\"x\""
+            + " from=\"5.0\" to=\"6.0\" begin=\"0.0s\" dur=\"1.0s\" fill=\"freeze\"/>")
+        .append("\n")
+        .append("\t<set attributeName=\"visibility\""
+            + " to=\"hidden\" begin=\"1.0s\" dur=\"1ms\" fill=\"freeze\"/>")
+        .append("\n")
+        .append("</use>").append("\n")
+        .append("\n")
+        .append("</svg>");
+    assertEquals(expected.toString(), viewOutput.toString());
+  }
+
+  @Test
+  public void testPlusSymbolsWithoutPlus() throws IOException {
+    IAnimatorModel<IModelShape> model = this.getModel();
+    model.addShape("r", ShapeType.RECTANGLE);
+    model.addKeyFrame(0, "r", 5, 5, 10, 10, Color.BLACK);
+    model.addKeyFrame(4, "r", 9, 5, 10, 10, Color.BLUE);
+    StringBuilder polygons = new StringBuilder();
+    new SVGAnimationView(model, polygons, 1.0).render();
+    StringBuilder symbols = new StringBuilder();
+    SVGAnimationView view = new SVGAnimationView(model, symbols, 1.0);
+    view.setPlusSymbols(true);
+    view.render();
+    // nothing to define if there are no plus signs
+    assertEquals(polygons.toString(), symbols.toString());
+  }
+
+  @Test
+  public void testParallelRendering() throws IOException {
+    IAnimatorModel<IModelShape> model = this.getModel();
+    addRandomShapes(model, 500);
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      for (SVGAnimationView.Skip skip : SVGAnimationView.Skip.values()) {
+        for (boolean merge : new boolean[]{false, true}) {
+          StringBuilder expected = new StringBuilder();
+          SVGAnimationView sequential = new SVGAnimationView(model, expected, 3.0);
+          sequential.setSkip(skip);
+          sequential.setMergeAnimations(merge);
+          sequential.render();
+
+          StringBuilder actual = new StringBuilder();
+          SVGAnimationView parallel = new SVGAnimationView(model, actual, 3.0);
+          parallel.setSkip(skip);
+          parallel.setMergeAnimations(merge);
+          parallel.setParallelRendering(pool);
+          parallel.render();
+          assertEquals(expected.toString(), actual.toString());
+          assertEquals(sequential.getSkippedCount(), parallel.getSkippedCount());
+        }
+      }
+    } finally {
+      pool.shutdown();
+    }
+  }
+
   @Test(expected = UnsupportedOperationException.class)
   public void testDrawRectangleUnsupported() {
     IAnimatorModel<IModelShape> model = this.getModel();
@@ -0,0 +1,63 @@
+package view;
+
+import static org.junit.Assert.assertEquals;
+
+import cs3500.animator.view.svg.SVGWriter;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Random;
+import org.junit.Test;
+
+/**
+ * Tests for {@link SVGWriter}.
+ */
+public class SVGWriterTest {
+
+  private static void check(double value) throws IOException {
+    StringBuilder out = new StringBuilder();
+    SVGWriter writer = new SVGWriter(out);
+    writer.appendDouble(value);
+    writer.flush();
+    assertEquals(String.valueOf(value), out.toString());
+  }
+
+  @Test
+  public void testDoubles() throws IOException {
+    double[] values = {0.0, -0.0, 1.0, -7.0, 0.05, 0.35, 1.25, 0.001, 0.00099, 12.345, 9999999.0,
+        1e7, 9999999.999, 0.1 + 0.2, 0.35 - 0.05, 1e-20, 3.5e300, Double.NaN,
+        Double.NEGATIVE_INFINITY};
+    for (double value : values) {
+      check(value);
+    }
+    Random random = new Random(3500);
+    for (int i = 0; i < 100000; i++) {
+      check(random.nextInt(100000) / 20.0);
+      check(random.nextInt(100000) / (double) (1 + random.nextInt(1000)));
+      check((random.nextDouble() - 0.5) * 1e8);
+    }
+  }
+
+  @Test
+  public void testIntsAndColors() throws IOException {
+    StringBuilder out = new StringBuilder();
+    SVGWriter writer = new SVGWriter(out);
+    writer.appendInt(0).append(' ').appendInt(-42).append(' ').appendInt(Integer.MAX_VALUE)
+        .append(' ').appendInt(Integer.MIN_VALUE).append(' ').appendRgb(255, 0, 17);
+    assertEquals("", out.toString()); // nothing passed on until flushed
+    writer.flush();
+    assertEquals("0 -42 2147483647 -2147483648 rgb(255,0,17)", out.toString());
+  }
+
+  @Test
+  public void testLargeOutput() throws IOException {
+    StringWriter out = new StringWriter();
+    StringBuilder expected = new StringBuilder();
+    SVGWriter writer = new SVGWriter(out);
+    for (int i = 0; i < 50000; i++) {
+      writer.append("\t<animate begin=\"").appendDouble(i / 20.0).append('"').appendInt(i);
+      expected.append("\t<animate begin=\"").append(i / 20.0).append('"').append(i);
+    }
+    writer.flush();
+    assertEquals(expected.toString(), out.toString());
+  }
+}
@@ -1,6 +1,7 @@
 package view;
 
 import static org.junit.Assert.assertEquals;
+import static view.RandomShapes.addRandomShapes;
 
 import cs3500.animator.model.AnimatorModel;
 import cs3500.animator.model.IAnimatorModel;
@@ -9,6 +10,7 @@ import cs3500.animator.model.shape.ShapeType;
 import cs3500.animator.view.TextualAnimationView;
 import cs3500.animator.view.IAnimatorView;
 import java.awt.Color;
+import java.util.concurrent.ForkJoinPool;
 import org.junit.Test;
 
 import java.io.IOException;
@@ -320,6 +322,35 @@ public class TextualAnimationViewTest {
     assertEquals(expected.toString(), viewOutput.toString());
   }
 
+  @Test
+  public void testParallelRendering() throws IOException {
+    IAnimatorModel<IModelShape> model = this.getModel();
+    addRandomShapes(model, 500);
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      StringBuilder expected = new StringBuilder();
+      new TextualAnimationView(model, expected, 3.0).render();
+      StringBuilder actual = new StringBuilder();
+      TextualAnimationView parallel = new TextualAnimationView(model, actual, 3.0);
+      parallel.setParallelRendering(pool);
+      parallel.render();
+      assertEquals(expected.toString(), actual.toString());
+
+      // fewer shapes than chunks
+      IAnimatorModel<IModelShape> small = this.getModel();
+      addRandomShapes(small, 2);
+      expected.setLength(0);
+      new TextualAnimationView(small, expected, 3.0).render();
+      actual.setLength(0);
+      parallel = new TextualAnimationView(small, actual, 3.0);
+      parallel.setParallelRendering(pool);
+      parallel.render();
+      assertEquals(expected.toString(), actual.toString());
+    } finally {
+      pool.shutdown();
+    }
+  }
+
   @Test(expected = UnsupportedOperationException.class)
   public void testDrawRectangleUnsupported() {
     IAnimatorModel<IModelShape> model = this.getModel();